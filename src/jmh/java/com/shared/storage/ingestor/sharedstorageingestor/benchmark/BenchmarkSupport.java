@@ -0,0 +1,86 @@
+package com.shared.storage.ingestor.sharedstorageingestor.benchmark;
+
+import com.shared.storage.ingestor.sharedstorageingestor.SharedStorageIngestorApplication;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+final class BenchmarkSupport {
+    private static final String DIRECTORY_PROPERTY = "benchmark.dir";
+    private static final String DIRECTORY_PREFIX = "shared-storage-benchmark-";
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Creates the working directory under {@code -Dbenchmark.dir} when it is set, otherwise under the system temp directory.
+     */
+    static Path createTempDirectory() throws IOException {
+        final String parent = System.getProperty(DIRECTORY_PROPERTY);
+        if (Objects.nonNull(parent)) {
+            return Files.createTempDirectory(Files.createDirectories(Path.of(parent)), DIRECTORY_PREFIX);
+        }
+        return Files.createTempDirectory(DIRECTORY_PREFIX);
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * Starts the application without a web server, keeping every file it writes under the given directory.
+     */
+    static ConfigurableApplicationContext startApplication(Path directory, String... properties) {
+        return startApplication(directory, WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Points the log files, batch segments, job repository, spill tier, message journal and index archive at
+     * subdirectories of the given directory, so runs neither share state nor write outside of it. The properties are
+     * passed as command-line arguments, which take precedence over application.properties.
+     */
+    static ConfigurableApplicationContext startApplication(Path directory, WebApplicationType webApplicationType, String... properties) {
+        final List<String> arguments = new ArrayList<>(List.of(
+                "spring.main.banner-mode=off",
+                "logging.level.root=warn",
+                "arsenal.nat.telemetry.storage.log-dir=" + directory.resolve("log"),
+                "arsenal.nat.telemetry.storage.batch-dir=" + directory.resolve("batch"),
+                "arsenal.nat.telemetry.job-repository.dir=" + directory.resolve("job-repository"),
+                "arsenal.nat.telemetry.tiering.spill-dir=" + directory.resolve("spill"),
+                "arsenal.nat.telemetry.messaging.journal-dir=" + directory.resolve("journal"),
+                "arsenal.nat.telemetry.index.archive-dir=" + directory.resolve("archive")));
+        arguments.addAll(List.of(properties));
+        return new SpringApplicationBuilder(SharedStorageIngestorApplication.class)
+                .web(webApplicationType)
+                .run(arguments.stream().map("--"::concat).toArray(String[]::new));
+    }
+
+    static LogEvent logEvent(int payloadBytes, long sequence) {
+        return LogEvent.builder()
+                .message("x".repeat(payloadBytes))
+                .timestamp(String.valueOf(sequence))
+                .ipAddress("10.0.0.1")
+                .journey("checkout")
+                .subJourney("payment")
+                .type("INFO")
+                .application("benchmark")
+                .hostname("benchmark-host")
+                .product("telemetry")
+                .transaction("TX" + sequence)
+                .returnCode("00")
+                .acronym("BMK")
+                .span(Long.toHexString(sequence))
+                .correlationId("correlation-" + sequence)
+                .channel("api")
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.shared.storage.ingestor.sharedstorageingestor.benchmark;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.DataProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DataProvider#persist} and {@link DataProvider#count()} on a single stripe that already holds
+ * {@code fillLevel} records. Sealing is disabled so the log file keeps its fill level for the whole run.
+ * <p>
+ * Comparing the {@code channel} and {@code mmap} engines tells whether memory mapping pays off on a given
+ * filesystem; set {@code -Dbenchmark.dir} through {@code -jvmArgsAppend} to run against the shared mount instead
+ * of the local temp directory. The {@code json} format is not line-delimited, so it always runs on {@code channel}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataProviderBenchmark {
+    private static final int PREFILL_GROUP_SIZE = 1_000;
+
+    @Param({"ndjson", "json"})
+    private String format;
+
+    @Param({"channel", "mmap"})
+    private String engine;
+
+    @Param({"256", "4096"})
+    private int payloadBytes;
+
+    @Param({"0", "100000"})
+    private int fillLevel;
+
+    @Param({"batch", "none"})
+    private String fsyncPolicy;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private DataProvider dataProvider;
+    private LogEvent logEvent;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = BenchmarkSupport.createTempDirectory();
+        context = BenchmarkSupport.startApplication(directory,
+                "arsenal.nat.telemetry.storage-format=" + format,
+                "arsenal.nat.telemetry.storage-engine=" + engine,
+                "arsenal.nat.telemetry.stripes=1",
+                "arsenal.nat.telemetry.group-commit.fsync-policy=" + fsyncPolicy,
+                "arsenal.nat.telemetry.sealing.max-records=" + Integer.MAX_VALUE,
+                "arsenal.nat.telemetry.sealing.max-bytes=" + Long.MAX_VALUE,
+                "arsenal.nat.telemetry.sealing.max-age-millis=" + Long.MAX_VALUE);
+        dataProvider = context.getBean(DataProvider.class);
+        final List<LogEvent> group = new ArrayList<>(PREFILL_GROUP_SIZE);
+        for (int i = 0; i < fillLevel; i++) {
+            group.add(BenchmarkSupport.logEvent(payloadBytes, i));
+            if (group.size() == PREFILL_GROUP_SIZE || i == fillLevel - 1) {
+                dataProvider.persist(group);
+                group.clear();
+            }
+        }
+        logEvent = BenchmarkSupport.logEvent(payloadBytes, fillLevel);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        BenchmarkSupport.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void persist() {
+        dataProvider.persist(logEvent);
+    }
+
+    @Benchmark
+    public Integer count() {
+        return dataProvider.count();
+    }
+}
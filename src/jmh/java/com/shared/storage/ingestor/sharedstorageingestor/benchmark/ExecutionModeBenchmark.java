@@ -0,0 +1,89 @@
+package com.shared.storage.ingestor.sharedstorageingestor.benchmark;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.ExecutionMode;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application once per {@link ExecutionMode} on a random port and posts events to /batch2 from a fixed
+ * number of concurrent connections, printing throughput, latency percentiles and status codes for each mode.
+ * It is not a JMH benchmark; run its main method with the {@code benchmark} profile test classpath, passing
+ * {@code [connections] [requests]}. Virtual mode is skipped on runtimes older than Java 21.
+ */
+public final class ExecutionModeBenchmark {
+    private static final int DEFAULT_CONNECTIONS = 2_000;
+    private static final int DEFAULT_REQUESTS = 50_000;
+
+    private ExecutionModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int connections = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CONNECTIONS;
+        final int requests = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_REQUESTS;
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            if (mode == ExecutionMode.VIRTUAL && Runtime.version().feature() < 21) {
+                System.out.println(mode + ": skipped, requires Java 21");
+                continue;
+            }
+            final Path directory = BenchmarkSupport.createTempDirectory();
+            try (final ConfigurableApplicationContext context = BenchmarkSupport.startApplication(directory, WebApplicationType.SERVLET,
+                    "server.port=0", "arsenal.nat.telemetry.execution.mode=" + mode.name().toLowerCase())) {
+                final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                run(mode, URI.create("http://localhost:" + port + "/batch2"), connections, requests / 10);
+                System.out.println(mode + ": " + run(mode, URI.create("http://localhost:" + port + "/batch2"), connections, requests));
+            } finally {
+                BenchmarkSupport.deleteDirectory(directory);
+            }
+        }
+    }
+
+    private static String run(ExecutionMode mode, URI uri, int connections, int requests) throws InterruptedException {
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(30)).build();
+        final Semaphore inFlight = new Semaphore(connections);
+        final long[] latencies = new long[requests];
+        final Map<Integer, Integer> statuses = new ConcurrentHashMap<>();
+        final List<CompletableFuture<?>> responses = new ArrayList<>(requests);
+        final long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            final int index = i;
+            final long sent = System.nanoTime();
+            final HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"benchmark " + mode + " " + i + "\",\"application\":\"benchmark\"}"))
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        statuses.merge(error == null ? response.statusCode() : -1, 1, Integer::sum);
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        final long elapsedNanos = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return String.format("%d requests, %d connections, %.0f req/s, p50=%dms p99=%dms p999=%dms, statuses=%s",
+                requests, connections, requests / (elapsedNanos / 1e9),
+                millis(latencies, 0.50), millis(latencies, 0.99), millis(latencies, 0.999), statuses);
+    }
+
+    private static long millis(long[] sortedLatencies, double percentile) {
+        return TimeUnit.NANOSECONDS.toMillis(sortedLatencies[(int) Math.min(sortedLatencies.length - 1, sortedLatencies.length * percentile)]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.shared.storage.ingestor.sharedstorageingestor.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogEventSerializationBenchmark {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectWriter LOG_EVENT_WRITER = OBJECT_MAPPER.writerFor(LogEvent.class);
+    private static final ObjectReader LOG_EVENT_READER = OBJECT_MAPPER.readerFor(LogEvent.class);
+
+    @Param({"128", "1024", "8192"})
+    private int payloadBytes;
+
+    private LogEvent logEvent;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        logEvent = BenchmarkSupport.logEvent(payloadBytes, 1L);
+        serialized = LOG_EVENT_WRITER.writeValueAsBytes(logEvent);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return LOG_EVENT_WRITER.writeValueAsBytes(logEvent);
+    }
+
+    @Benchmark
+    public LogEvent deserialize() throws IOException {
+        return LOG_EVENT_READER.readValue(serialized);
+    }
+
+    @Benchmark
+    public ByteBuffer codecEncode() {
+        return LogEventCodec.encode(logEvent);
+    }
+
+    @Benchmark
+    public byte[] codecEncodeToBytes() {
+        return LogEventCodec.encodeToBytes(logEvent);
+    }
+
+    @Benchmark
+    public LogEvent codecDecode() throws IOException {
+        return LogEventCodec.decode(serialized);
+    }
+}
@@ -0,0 +1,66 @@
+package com.shared.storage.ingestor.sharedstorageingestor.benchmark;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.service.impl.BatchTelemetryDataPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives {@link BatchTelemetryDataPipeline#pipeline} from several threads against a temporary directory with the
+ * default sealing policy, so segment sealing and the export jobs run in the background as they do in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"ndjson", "json"})
+    private String format;
+
+    @Param({"512"})
+    private int payloadBytes;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private BatchTelemetryDataPipeline pipeline;
+    private LogEvent logEvent;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = BenchmarkSupport.createTempDirectory();
+        context = BenchmarkSupport.startApplication(directory, "arsenal.nat.telemetry.storage-format=" + format);
+        pipeline = context.getBean(BatchTelemetryDataPipeline.class);
+        logEvent = BenchmarkSupport.logEvent(payloadBytes, 0L);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        BenchmarkSupport.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void pipeline() {
+        pipeline.pipeline(logEvent);
+    }
+}
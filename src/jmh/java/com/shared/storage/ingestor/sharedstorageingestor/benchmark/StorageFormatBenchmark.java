@@ -0,0 +1,106 @@
+package com.shared.storage.ingestor.sharedstorageingestor.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl.JsonStorageFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl.NdjsonStorageFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sealing a log file into a batch segment, either creating the segment or appending to an existing one,
+ * and counting the records of a log file, for each storage format and file size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageFormatBenchmark {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int APPEND_GROUP_SIZE = 1_000;
+
+    @Param({"json", "ndjson"})
+    private String format;
+
+    @Param({"1000", "10000"})
+    private int records;
+
+    @Param({"false", "true"})
+    private boolean existingTarget;
+
+    private StorageFormat storageFormat;
+    private Path directory;
+    private Path source;
+    private Path target;
+    private FileChannel sourceChannel;
+
+    @Setup
+    public void setUp() throws IOException {
+        storageFormat = "json".equals(format) ? new JsonStorageFormat() : new NdjsonStorageFormat();
+        directory = BenchmarkSupport.createTempDirectory();
+        source = directory.resolve("log-events" + storageFormat.getFileExtension());
+        target = directory.resolve("batch" + storageFormat.getFileExtension());
+        sourceChannel = FileChannel.open(source, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        sourceChannel.write(ByteBuffer.wrap(storageFormat.getEmptyContent()));
+        final List<byte[]> group = new ArrayList<>(APPEND_GROUP_SIZE);
+        for (int i = 0; i < records; i++) {
+            group.add(OBJECT_MAPPER.writeValueAsBytes(BenchmarkSupport.logEvent(256, i)));
+            if (group.size() == APPEND_GROUP_SIZE || i == records - 1) {
+                storageFormat.append(sourceChannel, group);
+                group.clear();
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareTarget() throws IOException {
+        if (existingTarget) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sourceChannel.close();
+        BenchmarkSupport.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public File export() throws IOException {
+        final File file = target.toFile();
+        storageFormat.export(sourceChannel, file, false);
+        return file;
+    }
+
+    @Benchmark
+    public int count() throws IOException {
+        return storageFormat.count(sourceChannel);
+    }
+}
@@ -1,15 +1,16 @@
 package com.shared.storage.ingestor.sharedstorageingestor.app.resource;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.dto.BulkIngestionResponseDTO;
 import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
-import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.DataProvider;
-import com.shared.storage.ingestor.sharedstorageingestor.service.impl.BatchTelemetryDataPipeline;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.service.BulkIngestionService;
+import com.shared.storage.ingestor.sharedstorageingestor.service.IngestQueue;
+import com.shared.storage.ingestor.sharedstorageingestor.service.TelemetryDataPipeline;
 import lombok.RequiredArgsConstructor;
-import org.springframework.batch.item.json.JacksonJsonObjectReader;
-import org.springframework.batch.item.json.JsonItemReader;
-import org.springframework.batch.item.json.builder.JsonItemReaderBuilder;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -17,13 +18,18 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serializable;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 public class BatchResource {
     //    private final SharedStorageProvider sharedStorageProvider;
-    private final BatchTelemetryDataPipeline batchTelemetryDataPipeline;
+    private final TelemetryDataPipeline<LogEvent, Serializable> telemetryDataPipeline;
+    private final BulkIngestionService bulkIngestionService;
+    private final ObjectProvider<IngestQueue> ingestQueueProvider;
+    private final TelemetryConfiguration telemetryConfiguration;
 
 //    @PostMapping(value = "batch")
 //    public CompletableFuture<ResponseEntity<String>> save(@RequestBody LogEvent logEvent) {
@@ -33,7 +39,32 @@ public class BatchResource {
 
     @PostMapping(value = "batch2")
     public CompletableFuture<ResponseEntity<String>> save(@RequestBody LogEvent logEvent) {
-        batchTelemetryDataPipeline.pipeline(logEvent);
-        return CompletableFuture.supplyAsync(() -> ResponseEntity.ok("Log adicionado com sucesso."));
+        final IngestQueue ingestQueue = ingestQueueProvider.getIfAvailable();
+        if (Objects.isNull(ingestQueue)) {
+            telemetryDataPipeline.pipeline(logEvent);
+            return CompletableFuture.completedFuture(ResponseEntity.ok("Log adicionado com sucesso."));
+        }
+        if (!ingestQueue.isRunning()) {
+            return CompletableFuture.completedFuture(retryLater(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+        return ingestQueue.offer(logEvent)
+                .map(acknowledgement -> acknowledgement
+                        .thenApply(persisted -> ResponseEntity.ok("Log adicionado com sucesso."))
+                        .exceptionally(e -> retryLater(HttpStatus.SERVICE_UNAVAILABLE)))
+                .orElseGet(() -> CompletableFuture.completedFuture(retryLater(HttpStatus.TOO_MANY_REQUESTS)));
+    }
+
+    @PostMapping(value = "batch2/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkIngestionResponseDTO> saveAll(InputStream body) throws IOException {
+        final BulkIngestionResponseDTO response = bulkIngestionService.ingest(body);
+        return Objects.isNull(response.getError())
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.badRequest().body(response);
+    }
+
+    private ResponseEntity<String> retryLater(HttpStatus status) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(telemetryConfiguration.getIngestion().getRetryAfterSeconds()))
+                .build();
     }
 }
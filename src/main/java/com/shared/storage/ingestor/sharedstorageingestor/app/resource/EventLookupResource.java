@@ -0,0 +1,71 @@
+package com.shared.storage.ingestor.sharedstorageingestor.app.resource;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.dto.BulkIngestionResponseDTO;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl.SharedStorageDataProvider;
+import com.shared.storage.ingestor.sharedstorageingestor.service.PipelineResult;
+import com.shared.storage.ingestor.sharedstorageingestor.service.TelemetryDataPipeline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Finds sealed events by one indexed field, e.g. {@code GET batch2/events?correlationId=...}, and replays them
+ * through the pipeline. A replay reports the events the pipeline persisted as accepted and the ones deduplication
+ * dropped apart. Only available while segment indexing is enabled.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "arsenal.nat.telemetry", name = "index.enabled", havingValue = "true")
+public class EventLookupResource {
+    private final SharedStorageDataProvider sharedStorageDataProvider;
+    private final TelemetryDataPipeline<LogEvent, Serializable> telemetryDataPipeline;
+    private final TelemetryConfiguration telemetryConfiguration;
+
+    @GetMapping(value = "batch2/events")
+    public ResponseEntity<List<LogEvent>> find(@RequestParam Map<String, String> parameters) throws IOException {
+        final Optional<Map.Entry<String, String>> criterion = toCriterion(parameters);
+        if (criterion.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(sharedStorageDataProvider.findEvents(criterion.get().getKey(), criterion.get().getValue()));
+    }
+
+    @PostMapping(value = "batch2/events/replay")
+    public ResponseEntity<BulkIngestionResponseDTO> replay(@RequestParam Map<String, String> parameters) throws IOException {
+        final Optional<Map.Entry<String, String>> criterion = toCriterion(parameters);
+        if (criterion.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        final List<LogEvent> events = sharedStorageDataProvider.findEvents(criterion.get().getKey(), criterion.get().getValue());
+        if (events.isEmpty()) {
+            return ResponseEntity.ok(BulkIngestionResponseDTO.builder().build());
+        }
+        final PipelineResult result = telemetryDataPipeline.pipeline(events);
+        return ResponseEntity.ok(BulkIngestionResponseDTO.builder()
+                .accepted(result.persisted().cardinality())
+                .duplicates(result.duplicates().cardinality())
+                .rejected(events.size() - result.storedCount())
+                .build());
+    }
+
+    private Optional<Map.Entry<String, String>> toCriterion(Map<String, String> parameters) {
+        final List<String> fields = telemetryConfiguration.getIndex().getFields();
+        final List<Map.Entry<String, String>> criteria = parameters.entrySet()
+                .stream()
+                .filter(parameter -> fields.contains(parameter.getKey()))
+                .toList();
+        return criteria.size() == 1 ? Optional.of(criteria.get(0)) : Optional.empty();
+    }
+}
@@ -0,0 +1,22 @@
+package com.shared.storage.ingestor.sharedstorageingestor.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkIngestionResponseDTO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private int accepted;
+    private int rejected;
+    private int duplicates;
+    private String error;
+}
@@ -0,0 +1,6 @@
+package com.shared.storage.ingestor.sharedstorageingestor.domain.event;
+
+import java.util.UUID;
+
+public record BatchExportedEvent(UUID batchId, long sequence) {
+}
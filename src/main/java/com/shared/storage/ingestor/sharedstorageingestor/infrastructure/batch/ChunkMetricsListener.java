@@ -0,0 +1,92 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+
+/**
+ * Counts the items each export chunk read, wrote and filtered. The step execution only keeps a running read total, so
+ * the total seen before the chunk is kept in the chunk context and the difference is recorded once it commits.
+ * <p>
+ * The step processes and writes futures, so its own write and filter totals count every item as written. Filtered
+ * items are instead reported by the processor chain through {@link #recordFiltered()}, and written items are counted
+ * by the writer returned from {@link #countWritten(ItemStreamWriter)}, which sees the unwrapped results.
+ */
+public class ChunkMetricsListener implements ChunkListener {
+    private static final String ITEMS_METRIC = "telemetry.export.items";
+    private static final String READ_COUNT_ATTRIBUTE = "telemetry.readCount";
+    private final Counter read;
+    private final Counter written;
+    private final Counter filtered;
+    private final DistributionSummary chunkItems;
+
+    public ChunkMetricsListener(MeterRegistry meterRegistry) {
+        this.read = itemCounter(meterRegistry, "read");
+        this.written = itemCounter(meterRegistry, "written");
+        this.filtered = itemCounter(meterRegistry, "filtered");
+        this.chunkItems = DistributionSummary.builder("telemetry.export.chunk.items")
+                .description("Items read per export chunk")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        context.setAttribute(READ_COUNT_ATTRIBUTE, context.getStepContext().getStepExecution().getReadCount());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        final StepExecution stepExecution = context.getStepContext().getStepExecution();
+        final long readItems = stepExecution.getReadCount() - (long) context.getAttribute(READ_COUNT_ATTRIBUTE);
+        read.increment(readItems);
+        chunkItems.record(readItems);
+    }
+
+    public void recordFiltered() {
+        filtered.increment();
+    }
+
+    /**
+     * Wraps the writer so that every item it writes successfully is counted as written.
+     */
+    public <T> ItemStreamWriter<T> countWritten(ItemStreamWriter<T> delegate) {
+        return new CountingItemWriter<>(delegate, written);
+    }
+
+    private static Counter itemCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(ITEMS_METRIC)
+                .description("Items processed by the export step")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record CountingItemWriter<T>(ItemStreamWriter<T> delegate, Counter written) implements ItemStreamWriter<T> {
+
+        @Override
+        public void write(Chunk<? extends T> chunk) throws Exception {
+            delegate.write(chunk);
+            written.increment(chunk.size());
+        }
+
+        @Override
+        public void open(ExecutionContext executionContext) {
+            delegate.open(executionContext);
+        }
+
+        @Override
+        public void update(ExecutionContext executionContext) {
+            delegate.update(executionContext);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a sealed batch segment into line-aligned byte ranges, one per worker step. The partition count is capped
+ * by the grid size and by the minimum number of bytes a partition is worth, so small segments are read by a single
+ * worker. Partition names are stable for a given segment, which lets a restarted job rerun only the failed ones.
+ */
+@RequiredArgsConstructor
+public class SegmentPartitioner implements Partitioner {
+    public static final String PARTITION_PARAMETER = "partition";
+    public static final String START_OFFSET_PARAMETER = "startOffset";
+    public static final String END_OFFSET_PARAMETER = "endOffset";
+    private static final String PARTITION_PREFIX = "partition-";
+    private final SegmentFormat segmentFormat;
+    private final File segment;
+    private final long minPartitionBytes;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        final int partitions = (int) Math.max(1L, Math.min(gridSize, segment.length() / Math.max(1L, minPartitionBytes)));
+        final List<SegmentRange> ranges = split(partitions);
+        final Map<String, ExecutionContext> contexts = new LinkedHashMap<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            final ExecutionContext context = new ExecutionContext();
+            context.putInt(PARTITION_PARAMETER, i);
+            context.putLong(START_OFFSET_PARAMETER, ranges.get(i).start());
+            context.putLong(END_OFFSET_PARAMETER, ranges.get(i).end());
+            contexts.put(PARTITION_PREFIX + i, context);
+        }
+        return contexts;
+    }
+
+    private List<SegmentRange> split(int partitions) {
+        try {
+            final List<SegmentRange> ranges = segmentFormat.split(segment, partitions);
+            return ranges.isEmpty() ? List.of(new SegmentRange(0, 0)) : ranges;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not partition batch segment " + segment, e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Objects;
+
+@Component
+@Order(100)
+public class EnrichmentLogEventProcessor implements LogEventProcessor {
+    private final String hostname;
+
+    public EnrichmentLogEventProcessor(TelemetryConfiguration telemetryConfiguration) {
+        this.hostname = telemetryConfiguration.getProcessing().isEnrichHostname() ? resolveHostname() : null;
+    }
+
+    @Override
+    public LogEvent process(LogEvent item) {
+        if (Objects.nonNull(hostname) && Objects.isNull(item.getHostname())) {
+            item.setHostname(hostname);
+        }
+        return item;
+    }
+
+    private static String resolveHostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Set;
+
+@Component
+@Order(200)
+public class FilteringLogEventProcessor implements LogEventProcessor {
+    private final Set<String> excludedTypes;
+
+    public FilteringLogEventProcessor(TelemetryConfiguration telemetryConfiguration) {
+        this.excludedTypes = Set.copyOf(telemetryConfiguration.getProcessing().getExcludedTypes());
+    }
+
+    @Override
+    public LogEvent process(LogEvent item) {
+        if (Objects.nonNull(item.getType()) && excludedTypes.contains(item.getType())) {
+            return null;
+        }
+        return item;
+    }
+}
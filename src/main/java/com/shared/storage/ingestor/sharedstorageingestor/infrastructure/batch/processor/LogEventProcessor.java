@@ -0,0 +1,16 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import org.springframework.batch.item.ItemProcessor;
+
+/**
+ * A single stage of the export processing chain. Stages are picked up as beans and run in {@link org.springframework.core.annotation.Order}
+ * order; returning {@code null} filters the event out of the batch. Stages run concurrently on the processor pool and
+ * must be thread-safe.
+ */
+public interface LogEventProcessor extends ItemProcessor<LogEvent, LogEvent> {
+
+    default String getStageName() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,102 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.ChunkMetricsListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ItemProcessor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Runs every {@link LogEventProcessor} stage in order and records how many events each stage received and passed on,
+ * and how long it spent on them. Partitions run their worker steps concurrently through this one chain, so the figures
+ * are kept per step execution, found through the step context the async processor registers on its threads, and are
+ * logged and dropped when that step finishes. Events a stage drops are reported to the {@link ChunkMetricsListener}, as
+ * the async processor hides them from the step's own filter count.
+ */
+@Slf4j
+public class LogEventProcessorChain implements ItemProcessor<LogEvent, LogEvent>, StepExecutionListener {
+    private final List<LogEventProcessor> processors;
+    private final ChunkMetricsListener chunkMetricsListener;
+    private final Map<Long, List<StageStatistics>> statisticsByStep = new ConcurrentHashMap<>();
+
+    public LogEventProcessorChain(List<LogEventProcessor> processors, ChunkMetricsListener chunkMetricsListener) {
+        this.processors = List.copyOf(processors);
+        this.chunkMetricsListener = chunkMetricsListener;
+    }
+
+    @Override
+    public LogEvent process(LogEvent item) throws Exception {
+        final List<StageStatistics> statistics = currentStatistics();
+        LogEvent current = item;
+        for (int i = 0; i < processors.size(); i++) {
+            current = Objects.isNull(statistics) ? processors.get(i).process(current) : statistics.get(i).process(processors.get(i), current);
+            if (Objects.isNull(current)) {
+                chunkMetricsListener.recordFiltered();
+                return null;
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        statisticsByStep.put(stepExecution.getId(), processors.stream().map(processor -> new StageStatistics()).toList());
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        final List<StageStatistics> statistics = statisticsByStep.remove(stepExecution.getId());
+        if (Objects.nonNull(statistics)) {
+            log.info("Processor stages of {}: {}", stepExecution.getStepName(), IntStream.range(0, processors.size())
+                    .mapToObj(i -> statistics.get(i).describe(processors.get(i)))
+                    .collect(Collectors.joining(", ")));
+        }
+        return stepExecution.getExitStatus();
+    }
+
+    private List<StageStatistics> currentStatistics() {
+        final StepContext context = StepSynchronizationManager.getContext();
+        return Objects.isNull(context) ? null : statisticsByStep.get(context.getStepExecution().getId());
+    }
+
+    private static final class StageStatistics {
+        private final LongAdder received = new LongAdder();
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder elapsedNanos = new LongAdder();
+
+        private LogEvent process(LogEventProcessor processor, LogEvent item) throws Exception {
+            final long start = System.nanoTime();
+            try {
+                final LogEvent result = processor.process(item);
+                if (Objects.nonNull(result)) {
+                    passed.increment();
+                }
+                return result;
+            } finally {
+                elapsedNanos.add(System.nanoTime() - start);
+                received.increment();
+            }
+        }
+
+        private String describe(LogEventProcessor processor) {
+            final long items = received.sum();
+            final long nanos = elapsedNanos.sum();
+            final long itemsPerSecond = nanos == 0 ? 0 : items * TimeUnit.SECONDS.toNanos(1) / nanos;
+            return processor.getStageName() + "[received=" + items + " passed=" + passed.sum() + " busyMillis=" + TimeUnit.NANOSECONDS.toMillis(nanos)
+                    + " itemsPerSecond=" + itemsPerSecond + "]";
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+@Component
+@Order(300)
+public class MaskingLogEventProcessor implements LogEventProcessor {
+    private static final String MASKED_OCTET = "*";
+    private final boolean maskIpAddress;
+
+    public MaskingLogEventProcessor(TelemetryConfiguration telemetryConfiguration) {
+        this.maskIpAddress = telemetryConfiguration.getProcessing().isMaskIpAddress();
+    }
+
+    @Override
+    public LogEvent process(LogEvent item) {
+        if (maskIpAddress && Objects.nonNull(item.getIpAddress())) {
+            final int lastSeparator = Math.max(item.getIpAddress().lastIndexOf('.'), item.getIpAddress().lastIndexOf(':'));
+            if (lastSeparator >= 0) {
+                item.setIpAddress(item.getIpAddress().substring(0, lastSeparator + 1) + MASKED_OCTET);
+            }
+        }
+        return item;
+    }
+}
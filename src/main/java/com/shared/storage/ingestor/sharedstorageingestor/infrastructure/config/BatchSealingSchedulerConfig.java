@@ -0,0 +1,37 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl.SharedStorageDataProvider;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.scheduler.BatchSealingJob;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnBean(value = SharedStorageDataProvider.class)
+public class BatchSealingSchedulerConfig {
+
+    @Bean
+    public JobDetail batchSealingJobDetail() {
+        return JobBuilder.newJob(BatchSealingJob.class)
+                .withIdentity("batchSealingJob")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger batchSealingTrigger(JobDetail batchSealingJobDetail, TelemetryConfiguration telemetryConfiguration) {
+        return TriggerBuilder.newTrigger()
+                .forJob(batchSealingJobDetail)
+                .withIdentity("batchSealingTrigger")
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMilliseconds(telemetryConfiguration.getSealing().getCheckIntervalMillis())
+                        .repeatForever()
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .build();
+    }
+}
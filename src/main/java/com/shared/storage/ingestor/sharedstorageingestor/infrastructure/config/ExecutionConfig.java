@@ -0,0 +1,18 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+@Configuration
+@ConditionalOnProperty(prefix = "arsenal.nat.telemetry.execution", name = "mode", havingValue = "virtual")
+public class ExecutionConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        TaskExecutors.requireVirtualThreads();
+        return protocolHandler -> protocolHandler.setExecutor(new VirtualThreadTaskExecutor("tomcat-handler-"));
+    }
+}
@@ -0,0 +1,6 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config;
+
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL
+}
@@ -2,51 +2,65 @@ package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.ChunkMetricsListener;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.SegmentPartitioner;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor.LogEventProcessor;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor.LogEventProcessorChain;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRange;
 import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl.SharedStorageDataProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
-import org.checkerframework.checker.units.qual.A;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
-import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.partition.PartitionHandler;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.partition.support.TaskExecutorPartitionHandler;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.integration.async.AsyncItemProcessor;
-import org.springframework.batch.item.Chunk;
-import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.json.JacksonJsonObjectMarshaller;
-import org.springframework.batch.item.json.JacksonJsonObjectReader;
 import org.springframework.batch.item.json.JsonFileItemWriter;
-import org.springframework.batch.item.json.JsonItemReader;
 import org.springframework.batch.item.json.builder.JsonFileItemWriterBuilder;
-import org.springframework.batch.item.json.builder.JsonItemReaderBuilder;
-import org.springframework.batch.item.support.CompositeItemProcessor;
-import org.springframework.batch.repeat.RepeatOperations;
 import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
-import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.jdbc.support.JdbcTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
 import java.io.File;
-import java.io.IOException;
-import java.util.Arrays;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
+
+import static com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.SegmentPartitioner.END_OFFSET_PARAMETER;
+import static com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.SegmentPartitioner.PARTITION_PARAMETER;
+import static com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.SegmentPartitioner.START_OFFSET_PARAMETER;
+import static com.shared.storage.ingestor.sharedstorageingestor.service.BatchExportScheduler.BATCH_FILE_PARAMETER;
+import static com.shared.storage.ingestor.sharedstorageingestor.service.BatchExportScheduler.BATCH_ID_PARAMETER;
+import static com.shared.storage.ingestor.sharedstorageingestor.service.BatchExportScheduler.SEQUENCE_PARAMETER;
 
 @Configuration
 @ConditionalOnBean(value = SharedStorageDataProvider.class)
@@ -55,13 +69,43 @@ import java.util.stream.Collectors;
 public class JsonBatchJobConfig {
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final Logger log = LoggerFactory.getLogger(JsonBatchJobConfig.class);
+    private static final String JOB_REPOSITORY_SCHEMA = "/org/springframework/batch/core/schema-h2.sql";
+    private static final String JOB_REPOSITORY_FILE = "batch";
+    private static final String JOB_INSTANCE_TABLE = "BATCH_JOB_INSTANCE";
+    private static final String H2_DRIVER = "org.h2.Driver";
+    private static final String H2_USER = "sa";
+    private static final String H2_FILE_URL_PREFIX = "jdbc:h2:file:";
+    private static final String H2_FILE_URL_OPTIONS = ";AUTO_SERVER=TRUE";
     private final SharedStorageDataProvider sharedStorageDataProvider;
+    private final TelemetryConfiguration telemetryConfiguration;
+    private AsyncTaskExecutor partitionTaskExecutor;
+    private AsyncTaskExecutor processorTaskExecutor;
 
+    /**
+     * The job repository is an in-memory database unless file mode is opted into. In file mode it outlives the
+     * process, so an export interrupted by a crash restarts from the last chunk its partitions committed instead of
+     * reprocessing the whole segment. The schema is only created the first time the database file is opened.
+     */
     @Bean
-    public DataSource batchDataSource() {
-        return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
-                .addScript("/org/springframework/batch/core/schema-h2.sql")
-                .generateUniqueName(true).build();
+    public DataSource batchDataSource() throws SQLException {
+        final TelemetryConfiguration.JobRepository jobRepository = telemetryConfiguration.getJobRepository();
+        if (jobRepository.getMode() == JobRepositoryMode.MEMORY) {
+            return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+                    .addScript(JOB_REPOSITORY_SCHEMA)
+                    .generateUniqueName(true).build();
+        }
+        final DataSource dataSource = DataSourceBuilder.create()
+                .driverClassName(H2_DRIVER)
+                .url(H2_FILE_URL_PREFIX + new File(jobRepository.getDir(), JOB_REPOSITORY_FILE).getAbsolutePath() + H2_FILE_URL_OPTIONS)
+                .username(H2_USER)
+                .build();
+        try (Connection connection = dataSource.getConnection();
+             ResultSet tables = connection.getMetaData().getTables(null, null, JOB_INSTANCE_TABLE, null)) {
+            if (!tables.next()) {
+                new ResourceDatabasePopulator(new ClassPathResource(JOB_REPOSITORY_SCHEMA)).execute(dataSource);
+            }
+        }
+        return dataSource;
     }
 
     @Bean
@@ -70,86 +114,117 @@ public class JsonBatchJobConfig {
     }
 
     @Bean
-    public JsonItemReader<LogEvent> jsonItemReader() {
-        return new JsonItemReaderBuilder<LogEvent>()
-                .jsonObjectReader(new JacksonJsonObjectReader<>(LogEvent.class))
-                .resource(new FileSystemResource("C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\batch\\batch-" + sharedStorageDataProvider.getUuid() + ".json"))
-                .name("logEventJsonItemReader")
-                .build();
+    @StepScope
+    public Partitioner segmentPartitioner(@Value("#{jobParameters['" + BATCH_FILE_PARAMETER + "']}") String batchFile) {
+        return new SegmentPartitioner(sharedStorageDataProvider.getSegmentFormat(), new File(batchFile),
+                telemetryConfiguration.getExport().getMinPartitionBytes());
     }
 
     @Bean
-    public AsyncItemProcessor<LogEvent, LogEvent> asyncJsonItemProcessor() {
-        final AsyncItemProcessor<LogEvent, LogEvent> asyncItemProcessor = new AsyncItemProcessor<>();
-        final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("spring_batch_async");
-        executor.setConcurrencyLimit(10);
-        asyncItemProcessor.setTaskExecutor(executor);
-        asyncItemProcessor.setDelegate(item -> {
-            try {
-                log.info(new ObjectMapper().writeValueAsString(item));
-                return null;
-            } catch (IOException e) {
-                return item;
-            }
-        });
-        return asyncItemProcessor;
+    @StepScope
+    public ItemStreamReader<LogEvent> jsonItemReader(
+            @Value("#{jobParameters['" + BATCH_FILE_PARAMETER + "']}") String batchFile,
+            @Value("#{stepExecutionContext['" + START_OFFSET_PARAMETER + "']}") Long startOffset,
+            @Value("#{stepExecutionContext['" + END_OFFSET_PARAMETER + "']}") Long endOffset
+    ) {
+        return sharedStorageDataProvider.getSegmentFormat()
+                .createItemReader(new FileSystemResource(batchFile), new SegmentRange(startOffset, endOffset));
     }
 
     @Bean
-    public ItemProcessor<Future<LogEvent>, LogEvent> itemProcessor() {
-        return item -> {
-            final LogEvent logEvent = item.get();
-            if (Objects.nonNull(logEvent)) {
-                log.info(OBJECT_MAPPER.writeValueAsString(logEvent));
-                return logEvent;
-            } else {
-                return null;
-            }
-        };
+    public ChunkMetricsListener chunkMetricsListener(MeterRegistry meterRegistry) {
+        return new ChunkMetricsListener(meterRegistry);
     }
 
     @Bean
-    public ItemProcessor<LogEvent, LogEvent> compositeItemProcessor() {
-        CompositeItemProcessor<LogEvent, LogEvent> compositeItemProcessor = new CompositeItemProcessor<>();
-        compositeItemProcessor.setDelegates(Arrays.asList(asyncJsonItemProcessor(), itemProcessor()));
-        return compositeItemProcessor;
+    public LogEventProcessorChain logEventProcessorChain(List<LogEventProcessor> processors, ChunkMetricsListener chunkMetricsListener) {
+        return new LogEventProcessorChain(processors, chunkMetricsListener);
+    }
+
+    @Bean
+    public AsyncItemProcessor<LogEvent, LogEvent> asyncJsonItemProcessor(LogEventProcessorChain logEventProcessorChain) {
+        final TelemetryConfiguration.Processing processing = telemetryConfiguration.getProcessing();
+        processorTaskExecutor = TaskExecutors.create(telemetryConfiguration.getExecution().getMode(), "batch-processor-",
+                processing.getThreads(), processing.getQueueCapacity());
+        final AsyncItemProcessor<LogEvent, LogEvent> asyncItemProcessor = new AsyncItemProcessor<>();
+        asyncItemProcessor.setTaskExecutor(processorTaskExecutor);
+        asyncItemProcessor.setDelegate(logEventProcessorChain);
+        return asyncItemProcessor;
+    }
+
+    @Bean(destroyMethod = "")
+    public AsyncItemWriter<LogEvent> asyncJsonItemWriter(ChunkMetricsListener chunkMetricsListener) {
+        final AsyncItemWriter<LogEvent> asyncItemWriter = new AsyncItemWriter<>();
+        asyncItemWriter.setDelegate(chunkMetricsListener.countWritten(jsonItemWriter(null, null, null, null)));
+        return asyncItemWriter;
     }
 
     @Bean
-    public JsonFileItemWriter<LogEvent> jsonItemWriter() {
+    @StepScope
+    public JsonFileItemWriter<LogEvent> jsonItemWriter(
+            @Value("#{jobParameters['" + BATCH_FILE_PARAMETER + "']}") String batchFile,
+            @Value("#{jobParameters['" + BATCH_ID_PARAMETER + "']}") String batchId,
+            @Value("#{jobParameters['" + SEQUENCE_PARAMETER + "']}") Long sequence,
+            @Value("#{stepExecutionContext['" + PARTITION_PARAMETER + "']}") Integer partition
+    ) {
         return new JsonFileItemWriterBuilder<LogEvent>()
                 .name("jsonItemWriter")
-                .resource(new FileSystemResource("C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\batch\\test-batch-" + sharedStorageDataProvider.getUuid() + ".json"))
-                .jsonObjectMarshaller(new JacksonJsonObjectMarshaller<>())
+                .resource(new FileSystemResource(new File(new File(batchFile).getParentFile(), "test-batch-" + batchId + "-" + sequence + "-" + partition + ".json")))
+                .jsonObjectMarshaller(new JacksonJsonObjectMarshaller<>(OBJECT_MAPPER))
                 .build();
     }
 
     @Bean
-    public Step jsonStep(
+    public Step jsonWorkerStep(
             JobRepository jobRepository,
-            PlatformTransactionManager transactionManager
+            PlatformTransactionManager transactionManager,
+            AsyncItemProcessor<LogEvent, LogEvent> asyncJsonItemProcessor,
+            AsyncItemWriter<LogEvent> asyncJsonItemWriter,
+            LogEventProcessorChain logEventProcessorChain,
+            ChunkMetricsListener chunkMetricsListener
     ) {
+        return new StepBuilder("sampleWorkerStep", jobRepository)
+                .<LogEvent, Future<LogEvent>>chunk(telemetryConfiguration.getExport().getChunkSize(), transactionManager)
+                .reader(jsonItemReader(null, null, null))
+                .processor(asyncJsonItemProcessor)
+                .writer(asyncJsonItemWriter)
+                .listener(logEventProcessorChain)
+                .listener(chunkMetricsListener)
+                .build();
+    }
+
+    /**
+     * The partition pool queues at most one grid of partitions; when concurrent export jobs fill it, the job thread
+     * runs its partition itself instead of queueing without bound.
+     */
+    @Bean
+    public PartitionHandler segmentPartitionHandler(Step jsonWorkerStep) {
+        final TelemetryConfiguration.Export export = telemetryConfiguration.getExport();
+        partitionTaskExecutor = TaskExecutors.create(telemetryConfiguration.getExecution().getMode(), "batch-partition-",
+                export.getPartitionThreads(), export.getPartitions());
+        final TaskExecutorPartitionHandler partitionHandler = new TaskExecutorPartitionHandler();
+        partitionHandler.setTaskExecutor(partitionTaskExecutor);
+        partitionHandler.setStep(jsonWorkerStep);
+        partitionHandler.setGridSize(export.getPartitions());
+        return partitionHandler;
+    }
+
+    @Bean
+    public Step jsonStep(JobRepository jobRepository, PartitionHandler segmentPartitionHandler) {
         return new StepBuilder("sampleStep", jobRepository)
-                .<LogEvent, LogEvent>chunk(5, transactionManager)
-                .reader(jsonItemReader())
-                .processor(compositeItemProcessor())
-                .writer(jsonItemWriter())
-                .allowStartIfComplete(true)
+                .partitioner("sampleWorkerStep", segmentPartitioner(null))
+                .partitionHandler(segmentPartitionHandler)
                 .build();
     }
 
     @Bean
     public Tasklet fileDeletingTasklet() {
         return (contribution, chunkContext) -> {
-            final File file = new FileSystemResource("C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\batch\\batch-" + sharedStorageDataProvider.getUuid() + ".json").getFile();
-            if (file.exists()) {
-                boolean deleted = file.delete();
-                if (deleted) {
-                    log.info("Batch file deleted {}", file.getAbsolutePath());
-                } else {
-                    log.info("Log file {} could not be deleted", file.getAbsolutePath());
-                }
-            }
+            final Map<String, Object> jobParameters = chunkContext.getStepContext().getJobParameters();
+            final UUID batchId = UUID.fromString((String) jobParameters.get(BATCH_ID_PARAMETER));
+            final long sequence = (Long) jobParameters.get(SEQUENCE_PARAMETER);
+            sharedStorageDataProvider.acknowledgeExport(batchId, sequence);
+            log.info("Batch segment {} {} exported and deleted", batchId, sequence);
             return RepeatStatus.FINISHED;
         };
     }
@@ -158,15 +233,19 @@ public class JsonBatchJobConfig {
     public Step deleteFileStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
         return new StepBuilder("deleteFileStep", jobRepository)
                 .tasklet(fileDeletingTasklet(), transactionManager)
-                .allowStartIfComplete(true)
                 .build();
     }
 
+    @PreDestroy
+    public void shutdown() {
+        TaskExecutors.shutdown(partitionTaskExecutor);
+        TaskExecutors.shutdown(processorTaskExecutor);
+    }
+
     @Bean
-    public Job jsonProcessingJob(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+    public Job jsonProcessingJob(JobRepository jobRepository, PlatformTransactionManager transactionManager, Step jsonStep) {
         return new JobBuilder("logEventJob", jobRepository)
-                .incrementer(new RunIdIncrementer())
-                .start(jsonStep(jobRepository, transactionManager))
+                .start(jsonStep)
                 .next(deleteFileStep(jobRepository, transactionManager))
                 .build();
     }
@@ -0,0 +1,37 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl.SharedStorageDataProvider;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.scheduler.OrphanRecoveryJob;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnBean(value = SharedStorageDataProvider.class)
+public class OrphanRecoverySchedulerConfig {
+
+    @Bean
+    public JobDetail orphanRecoveryJobDetail() {
+        return JobBuilder.newJob(OrphanRecoveryJob.class)
+                .withIdentity("orphanRecoveryJob")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger orphanRecoveryTrigger(JobDetail orphanRecoveryJobDetail, TelemetryConfiguration telemetryConfiguration) {
+        return TriggerBuilder.newTrigger()
+                .forJob(orphanRecoveryJobDetail)
+                .withIdentity("orphanRecoveryTrigger")
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMilliseconds(telemetryConfiguration.getCoordination().getScanIntervalMillis())
+                        .repeatForever()
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Builds the bounded executors used by the ingest and export paths for the configured {@link ExecutionMode}.
+ * Platform mode uses a fixed pool with a bounded queue that runs overflow on the caller; virtual mode starts a
+ * virtual thread per task and bounds concurrency with a throttle that blocks the caller instead. Both wait for
+ * running tasks on shutdown, so an export job is not cut off while the resources it uses are still open.
+ */
+public final class TaskExecutors {
+    private static final int VIRTUAL_THREADS_FEATURE_VERSION = 21;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private TaskExecutors() {
+    }
+
+    public static AsyncTaskExecutor create(ExecutionMode mode, String threadNamePrefix, int threads, int queueCapacity) {
+        if (mode == ExecutionMode.VIRTUAL) {
+            requireVirtualThreads();
+            final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            executor.setTaskTerminationTimeout(SHUTDOWN_TIMEOUT.toMillis());
+            return executor;
+        }
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(SHUTDOWN_TIMEOUT.toMillis());
+        executor.initialize();
+        return executor;
+    }
+
+    public static void shutdown(AsyncTaskExecutor executor) {
+        if (executor instanceof DisposableBean disposable) {
+            try {
+                disposable.destroy();
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not shut down executor " + executor, e);
+            }
+        } else if (executor instanceof SimpleAsyncTaskExecutor simple) {
+            simple.close();
+        }
+    }
+
+    static void requireVirtualThreads() {
+        if (Runtime.version().feature() < VIRTUAL_THREADS_FEATURE_VERSION) {
+            throw new IllegalStateException("Execution mode " + ExecutionMode.VIRTUAL + " requires Java "
+                    + VIRTUAL_THREADS_FEATURE_VERSION + " or later, running on " + Runtime.version());
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config;
 
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.commit.FsyncPolicy;
 import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,4 +13,151 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "arsenal.nat.telemetry")
 public class TelemetryConfiguration {
     private String datasource;
+    private String storageFormat = "json";
+    private String storageEngine = "channel";
+    private int stripes = 4;
+    private Storage storage = new Storage();
+    private GroupCommit groupCommit = new GroupCommit();
+    private Export export = new Export();
+    private JobRepository jobRepository = new JobRepository();
+    private Sealing sealing = new Sealing();
+    private Compression compression = new Compression();
+    private Dictionary dictionary = new Dictionary();
+    private Index index = new Index();
+    private Tiering tiering = new Tiering();
+    private Coordination coordination = new Coordination();
+    private Messaging messaging = new Messaging();
+    private Processing processing = new Processing();
+    private Ingestion ingestion = new Ingestion();
+    private Deduplication deduplication = new Deduplication();
+    private Execution execution = new Execution();
+    private Logging logging = new Logging();
+
+    @Data
+    public static class Storage {
+        private String logDir = "C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\log";
+        private String batchDir = "C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\batch";
+        private long mappedSegmentBytes = 32L * 1024 * 1024;
+    }
+
+    @Data
+    public static class GroupCommit {
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.BATCH;
+        private long fsyncIntervalMillis = 50L;
+        private int maxRecords = 1024;
+    }
+
+    @Data
+    public static class Sealing {
+        private int maxRecords = 10_000;
+        private long maxBytes = 16L * 1024 * 1024;
+        private long maxAgeMillis = 30_000L;
+        private long checkIntervalMillis = 1_000L;
+    }
+
+    @Data
+    public static class Compression {
+        private String codec = "none";
+        private int blockBytes = 256 * 1024;
+    }
+
+    @Data
+    public static class Dictionary {
+        private boolean enabled = false;
+        private List<String> fields = new ArrayList<>(List.of("application", "hostname", "acronym", "channel", "product",
+                "journey", "subJourney", "type", "returnCode"));
+        private int maxEntries = 4096;
+    }
+
+    @Data
+    public static class Index {
+        private boolean enabled = false;
+        private List<String> fields = new ArrayList<>(List.of("correlationId", "transaction"));
+        private double falsePositiveRate = 0.01;
+        private String archiveDir = "C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\archive";
+        private long retentionMillis = 7L * 24 * 60 * 60 * 1000;
+        private int maxResults = 1000;
+    }
+
+    @Data
+    public static class Tiering {
+        private boolean enabled = false;
+        private int hotTierBytes = 64 * 1024 * 1024;
+        private long offerTimeoutMillis = 100L;
+        private int flushMaxRecords = 1024;
+        private long latencyThresholdMillis = 500L;
+        private long probeIntervalMillis = 5_000L;
+        private String spillDir = "C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\spill";
+        private long spillSegmentBytes = 64L * 1024 * 1024;
+    }
+
+    @Data
+    public static class Coordination {
+        private long scanIntervalMillis = 5_000L;
+        private int maxClaimsPerScan = 1;
+    }
+
+    @Data
+    public static class Messaging {
+        private String journalDir = "C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\journal";
+        private long segmentBytes = 64L * 1024 * 1024;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.BATCH;
+        private long fsyncIntervalMillis = 50L;
+        private String consumerGroup = "default";
+        private int maxPollMessages = 500;
+    }
+
+    @Data
+    public static class Export {
+        private int threads = 2;
+        private int maxPendingBatches = 16;
+        private int chunkSize = 500;
+        private int partitions = 4;
+        private int partitionThreads = 4;
+        private long minPartitionBytes = 1024L * 1024;
+        private long retryDelayMillis = 1_000L;
+        private long maxRetryDelayMillis = 300_000L;
+    }
+
+    @Data
+    public static class JobRepository {
+        private JobRepositoryMode mode = JobRepositoryMode.MEMORY;
+        private String dir = "C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\job-repository";
+    }
+
+    @Data
+    public static class Processing {
+        private int threads = 4;
+        private int queueCapacity = 1_000;
+        private boolean enrichHostname = true;
+        private List<String> excludedTypes = new ArrayList<>();
+        private boolean maskIpAddress = false;
+    }
+
+    @Data
+    public static class Ingestion {
+        private String mode = "queued";
+        private int bulkGroupSize = 500;
+        private int queueCapacity = 65_536;
+        private int writerThreads = 4;
+        private long retryAfterSeconds = 1L;
+    }
+
+    @Data
+    public static class Deduplication {
+        private boolean enabled = false;
+        private long windowMillis = 300_000L;
+        private int maxEntries = 200_000;
+        private int stripes = 32;
+    }
+
+    @Data
+    public static class Execution {
+        private ExecutionMode mode = ExecutionMode.PLATFORM;
+    }
+
+    @Data
+    public static class Logging {
+        private long debugSampleRate = 1_000L;
+    }
 }
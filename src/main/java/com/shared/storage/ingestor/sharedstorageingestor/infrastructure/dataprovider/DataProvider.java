@@ -1,8 +1,16 @@
 package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider;
 
 import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
 
 public interface DataProvider {
     void persist(Serializable data);
+
+    /**
+     * @return the positions, in iteration order, of the records that were persisted
+     */
+    BitSet persist(Collection<? extends Serializable> data);
+
     Integer count();
 }
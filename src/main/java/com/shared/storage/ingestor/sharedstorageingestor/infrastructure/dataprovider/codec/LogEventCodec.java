@@ -0,0 +1,524 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Hand-specialized JSON codec for {@link LogEvent}. Encoding writes UTF-8 straight into a per-thread buffer and
+ * produces the same bytes as Jackson's default {@code ObjectMapper}, so records written by either path are
+ * interchangeable. Like Jackson's UTF-8 generator, it writes each half of a surrogate pair as a six-character hex
+ * escape rather than combining the pair into one four-byte sequence; the decoder accepts both forms. Decoding matches
+ * field names byte by byte and builds each field value with a single {@link String} allocation, unescaping into a
+ * per-thread scratch buffer only when the value needs it. Unknown fields are skipped.
+ * <p>
+ * The per-thread buffers are kept for reuse while they hold at most {@value #MAX_RETAINED_BUFFER_SIZE} elements. A
+ * larger record gets a buffer of its own that is dropped afterwards, so one outsized event does not pin memory on
+ * every thread that ever handled one.
+ * <p>
+ * Given a {@link SegmentDictionary}, the fields it covers are written as the unquoted ID of their value when the
+ * dictionary has one, and read back as the dictionary's shared value instance.
+ */
+public final class LogEventCodec {
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ESCAPED_CHAR_BYTES = 6;
+    private static final int MAX_ID_DIGITS = 10;
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final List<Field> FIELDS = List.of(
+            new Field("message", LogEvent::getMessage, LogEvent::setMessage),
+            new Field("timestamp", LogEvent::getTimestamp, LogEvent::setTimestamp),
+            new Field("ipAddress", LogEvent::getIpAddress, LogEvent::setIpAddress),
+            new Field("journey", LogEvent::getJourney, LogEvent::setJourney),
+            new Field("subJourney", LogEvent::getSubJourney, LogEvent::setSubJourney),
+            new Field("type", LogEvent::getType, LogEvent::setType),
+            new Field("application", LogEvent::getApplication, LogEvent::setApplication),
+            new Field("hostname", LogEvent::getHostname, LogEvent::setHostname),
+            new Field("product", LogEvent::getProduct, LogEvent::setProduct),
+            new Field("transaction", LogEvent::getTransaction, LogEvent::setTransaction),
+            new Field("returnCode", LogEvent::getReturnCode, LogEvent::setReturnCode),
+            new Field("acronym", LogEvent::getAcronym, LogEvent::setAcronym),
+            new Field("span", LogEvent::getSpan, LogEvent::setSpan),
+            new Field("correlationId", LogEvent::getCorrelationId, LogEvent::setCorrelationId),
+            new Field("channel", LogEvent::getChannel, LogEvent::setChannel));
+    private static final ThreadLocal<ByteBuffer> ENCODE_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
+    private static final ThreadLocal<char[]> DECODE_BUFFER = ThreadLocal.withInitial(() -> new char[INITIAL_BUFFER_SIZE]);
+
+    private LogEventCodec() {
+    }
+
+    /**
+     * Encodes the event into the calling thread's buffer. The returned buffer is ready to be read and may be reused
+     * by the next encoding on the same thread.
+     */
+    public static ByteBuffer encode(LogEvent logEvent) {
+        return encode(logEvent, null);
+    }
+
+    /**
+     * Encodes the event like {@link #encode(LogEvent)}, replacing the values found in the dictionary by their ID.
+     */
+    public static ByteBuffer encode(LogEvent logEvent, SegmentDictionary dictionary) {
+        ByteBuffer buffer = ENCODE_BUFFER.get();
+        final int maxLength = maxEncodedLength(logEvent);
+        if (buffer.capacity() < maxLength) {
+            buffer = ByteBuffer.allocate(Math.max(maxLength, Math.min(buffer.capacity() * 2, MAX_RETAINED_BUFFER_SIZE)));
+            if (buffer.capacity() <= MAX_RETAINED_BUFFER_SIZE) {
+                ENCODE_BUFFER.set(buffer);
+            }
+        }
+        final byte[] out = buffer.array();
+        int position = 0;
+        out[position++] = '{';
+        for (int i = 0; i < FIELDS.size(); i++) {
+            final Field field = FIELDS.get(i);
+            if (i > 0) {
+                out[position++] = ',';
+            }
+            System.arraycopy(field.prefix, 0, out, position, field.prefix.length);
+            position += field.prefix.length;
+            final String value = field.getter.apply(logEvent);
+            final int id = dictionary == null || value == null || !dictionary.isEncoded(i) ? -1 : dictionary.idOf(value);
+            if (value == null) {
+                System.arraycopy(NULL, 0, out, position, NULL.length);
+                position += NULL.length;
+            } else if (id >= 0) {
+                position = writeId(id, out, position);
+            } else {
+                out[position++] = '"';
+                position = writeString(value, out, position);
+                out[position++] = '"';
+            }
+        }
+        out[position++] = '}';
+        buffer.clear().limit(position);
+        return buffer;
+    }
+
+    public static byte[] encodeToBytes(LogEvent logEvent) {
+        final ByteBuffer buffer = encode(logEvent);
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public static LogEvent decode(byte[] bytes) throws IOException {
+        return decode(bytes, 0, bytes.length);
+    }
+
+    public static LogEvent decode(byte[] bytes, int offset, int length) throws IOException {
+        return new Decoder(bytes, offset, offset + length, null).decode();
+    }
+
+    /**
+     * Decodes a record of a dictionary-encoded segment. Fields the dictionary covers may hold either an ID or a
+     * plain string.
+     */
+    public static LogEvent decode(byte[] bytes, int offset, int length, SegmentDictionary dictionary) throws IOException {
+        return new Decoder(bytes, offset, offset + length, dictionary).decode();
+    }
+
+    /**
+     * @return the position of the named field in encoded records, or -1 when {@link LogEvent} has no such field
+     */
+    public static int fieldIndex(String name) {
+        final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < FIELDS.size(); i++) {
+            if (Arrays.equals(FIELDS.get(i).name, bytes)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int fieldCount() {
+        return FIELDS.size();
+    }
+
+    public static String fieldValue(LogEvent logEvent, int index) {
+        return FIELDS.get(index).getter.apply(logEvent);
+    }
+
+    static byte[] encodeString(String value) {
+        final byte[] out = new byte[value.length() * MAX_ESCAPED_CHAR_BYTES];
+        return Arrays.copyOf(out, writeString(value, out, 0));
+    }
+
+    private static int maxEncodedLength(LogEvent logEvent) {
+        int length = 2;
+        for (Field field : FIELDS) {
+            final String value = field.getter.apply(logEvent);
+            length += 1 + field.prefix.length + (value == null ? NULL.length : 2 + Math.max(value.length() * MAX_ESCAPED_CHAR_BYTES, MAX_ID_DIGITS));
+        }
+        return length;
+    }
+
+    private static int writeString(String value, byte[] out, int position) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    out[position++] = '\\';
+                    out[position++] = (byte) c;
+                } else if (c >= 0x20) {
+                    out[position++] = (byte) c;
+                } else {
+                    position = writeControlChar(c, out, position);
+                }
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                position = writeUnicodeEscape(c, out, position);
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    private static int writeId(int id, byte[] out, int position) {
+        int digits = 1;
+        for (int remaining = id; remaining >= 10; remaining /= 10) {
+            digits++;
+        }
+        int remaining = id;
+        for (int i = position + digits - 1; i >= position; i--) {
+            out[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return position + digits;
+    }
+
+    private static int writeControlChar(char c, byte[] out, int position) {
+        final byte shortEscape = switch (c) {
+            case '\b' -> 'b';
+            case '\t' -> 't';
+            case '\n' -> 'n';
+            case '\f' -> 'f';
+            case '\r' -> 'r';
+            default -> 0;
+        };
+        if (shortEscape == 0) {
+            return writeUnicodeEscape(c, out, position);
+        }
+        out[position++] = '\\';
+        out[position++] = shortEscape;
+        return position;
+    }
+
+    private static int writeUnicodeEscape(char c, byte[] out, int position) {
+        out[position++] = '\\';
+        out[position++] = 'u';
+        out[position++] = HEX[(c >> 12) & 0xF];
+        out[position++] = HEX[(c >> 8) & 0xF];
+        out[position++] = HEX[(c >> 4) & 0xF];
+        out[position++] = HEX[c & 0xF];
+        return position;
+    }
+
+    private static final class Field {
+        private final byte[] name;
+        private final byte[] prefix;
+        private final Function<LogEvent, String> getter;
+        private final BiConsumer<LogEvent, String> setter;
+
+        private Field(String name, Function<LogEvent, String> getter, BiConsumer<LogEvent, String> setter) {
+            this.name = name.getBytes(StandardCharsets.UTF_8);
+            this.prefix = ("\"" + name + "\":").getBytes(StandardCharsets.UTF_8);
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    private static final class Decoder {
+        private final byte[] in;
+        private final int end;
+        private final SegmentDictionary dictionary;
+        private int position;
+
+        private Decoder(byte[] in, int offset, int end, SegmentDictionary dictionary) {
+            this.in = in;
+            this.position = offset;
+            this.end = end;
+            this.dictionary = dictionary;
+        }
+
+        private LogEvent decode() throws IOException {
+            final LogEvent logEvent = new LogEvent();
+            expect('{');
+            if (peek() == '}') {
+                position++;
+                return logEvent;
+            }
+            while (true) {
+                expect('"');
+                final int field = readFieldName();
+                expect(':');
+                if (field < 0) {
+                    skipValue();
+                } else if (dictionary != null && dictionary.isEncoded(field)) {
+                    FIELDS.get(field).setter.accept(logEvent, readEncodedValue());
+                } else {
+                    FIELDS.get(field).setter.accept(logEvent, readStringValue());
+                }
+                final byte next = next();
+                if (next == '}') {
+                    return logEvent;
+                }
+                if (next != ',') {
+                    throw error("',' or '}'");
+                }
+            }
+        }
+
+        private int readFieldName() throws IOException {
+            final int start = position;
+            final int stringEnd = findStringEnd();
+            for (int i = 0; i < FIELDS.size(); i++) {
+                final byte[] name = FIELDS.get(i).name;
+                if (stringEnd - start == name.length && regionMatches(name, start)) {
+                    position = stringEnd + 1;
+                    return i;
+                }
+            }
+            if (containsEscape(start, stringEnd)) {
+                position = start;
+                return fieldIndex(unescape());
+            }
+            position = stringEnd + 1;
+            return -1;
+        }
+
+        private String readEncodedValue() throws IOException {
+            final byte first = peek();
+            if (first < '0' || first > '9') {
+                return readStringValue();
+            }
+            long id = 0;
+            while (position < end && in[position] >= '0' && in[position] <= '9') {
+                id = id * 10 + (in[position++] - '0');
+                if (id > Integer.MAX_VALUE) {
+                    throw error("a dictionary ID");
+                }
+            }
+            if (id >= dictionary.size()) {
+                throw error("a dictionary ID below " + dictionary.size());
+            }
+            return dictionary.valueOf((int) id);
+        }
+
+        private String readStringValue() throws IOException {
+            final byte first = peek();
+            if (first == '"') {
+                position++;
+                final int start = position;
+                final int stringEnd = findStringEnd();
+                if (!containsEscape(start, stringEnd)) {
+                    position = stringEnd + 1;
+                    return new String(in, start, stringEnd - start, StandardCharsets.UTF_8);
+                }
+                return unescape();
+            }
+            if (first == '{' || first == '[') {
+                throw error("a string value");
+            }
+            final int start = position;
+            while (position < end && !isDelimiter(in[position])) {
+                position++;
+            }
+            if (position - start == NULL.length && regionMatches(NULL, start)) {
+                return null;
+            }
+            return new String(in, start, position - start, StandardCharsets.UTF_8);
+        }
+
+        private String unescape() throws IOException {
+            char[] out = DECODE_BUFFER.get();
+            if (out.length < end - position) {
+                out = new char[Math.max(end - position, Math.min(out.length * 2, MAX_RETAINED_BUFFER_SIZE))];
+                if (out.length <= MAX_RETAINED_BUFFER_SIZE) {
+                    DECODE_BUFFER.set(out);
+                }
+            }
+            int length = 0;
+            while (true) {
+                if (position >= end) {
+                    throw error("'\"'");
+                }
+                final int b = in[position++];
+                if (b == '"') {
+                    return new String(out, 0, length);
+                }
+                if (b >= 0) {
+                    out[length++] = b == '\\' ? readEscape() : (char) b;
+                } else {
+                    length = readMultiByteChar(b, out, length);
+                }
+            }
+        }
+
+        private char readEscape() throws IOException {
+            final byte escaped = next();
+            return switch (escaped) {
+                case '"', '\\', '/' -> (char) escaped;
+                case 'b' -> '\b';
+                case 't' -> '\t';
+                case 'n' -> '\n';
+                case 'f' -> '\f';
+                case 'r' -> '\r';
+                case 'u' -> readHexChar();
+                default -> throw error("a valid escape sequence");
+            };
+        }
+
+        private char readHexChar() throws IOException {
+            if (position + 4 > end) {
+                throw error("four hex digits");
+            }
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                final int digit = Character.digit(in[position++], 16);
+                if (digit < 0) {
+                    throw error("four hex digits");
+                }
+                value = (value << 4) | digit;
+            }
+            return (char) value;
+        }
+
+        private int readMultiByteChar(int first, char[] out, int length) throws IOException {
+            final int continuationBytes;
+            int codePoint;
+            if ((first & 0xE0) == 0xC0) {
+                continuationBytes = 1;
+                codePoint = first & 0x1F;
+            } else if ((first & 0xF0) == 0xE0) {
+                continuationBytes = 2;
+                codePoint = first & 0x0F;
+            } else if ((first & 0xF8) == 0xF0) {
+                continuationBytes = 3;
+                codePoint = first & 0x07;
+            } else {
+                throw error("a valid UTF-8 sequence");
+            }
+            if (position + continuationBytes > end) {
+                throw error("a valid UTF-8 sequence");
+            }
+            for (int i = 0; i < continuationBytes; i++) {
+                final int next = in[position++];
+                if ((next & 0xC0) != 0x80) {
+                    throw error("a valid UTF-8 sequence");
+                }
+                codePoint = (codePoint << 6) | (next & 0x3F);
+            }
+            if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                out[length++] = Character.highSurrogate(codePoint);
+                out[length++] = Character.lowSurrogate(codePoint);
+            } else {
+                out[length++] = (char) codePoint;
+            }
+            return length;
+        }
+
+        private void skipValue() throws IOException {
+            final byte first = peek();
+            if (first == '"') {
+                position++;
+                position = findStringEnd() + 1;
+                return;
+            }
+            if (first != '{' && first != '[') {
+                while (position < end && !isDelimiter(in[position])) {
+                    position++;
+                }
+                return;
+            }
+            int depth = 0;
+            while (position < end) {
+                final byte b = in[position++];
+                if (b == '"') {
+                    position = findStringEnd() + 1;
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if ((b == '}' || b == ']') && --depth == 0) {
+                    return;
+                }
+            }
+            throw error("the end of a nested value");
+        }
+
+        private int findStringEnd() throws IOException {
+            int i = position;
+            while (i < end) {
+                final byte b = in[i];
+                if (b == '"') {
+                    return i;
+                }
+                i += b == '\\' ? 2 : 1;
+            }
+            throw error("'\"'");
+        }
+
+        private boolean containsEscape(int start, int stringEnd) {
+            for (int i = start; i < stringEnd; i++) {
+                if (in[i] == '\\') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean regionMatches(byte[] expected, int start) {
+            for (int i = 0; i < expected.length; i++) {
+                if (in[start + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isDelimiter(byte b) {
+            return b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+
+        private void expect(char expected) throws IOException {
+            if (next() != expected) {
+                throw error("'" + expected + "'");
+            }
+        }
+
+        private byte peek() throws IOException {
+            skipWhitespace();
+            if (position >= end) {
+                throw error("more content");
+            }
+            return in[position];
+        }
+
+        private byte next() throws IOException {
+            final byte b = peek();
+            position++;
+            return b;
+        }
+
+        private void skipWhitespace() {
+            while (position < end && (in[position] == ' ' || in[position] == '\t' || in[position] == '\n' || in[position] == '\r')) {
+                position++;
+            }
+        }
+
+        private IOException error(String expected) {
+            return new IOException("Malformed log event record: expected " + expected + " at offset " + position);
+        }
+    }
+}
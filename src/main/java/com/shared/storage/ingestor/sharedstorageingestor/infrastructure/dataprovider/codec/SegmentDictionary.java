@@ -0,0 +1,183 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of the values taken by low-cardinality {@link LogEvent} fields within one batch segment. A dictionary-encoded
+ * segment starts with a single dictionary line, {@code {"@dictionary":{"fields":[...],"values":[...]}}}, and its
+ * records store the covered fields as the unquoted ID of their value, so every line stays valid JSON and a value
+ * left out of the table is simply written as a string.
+ * <p>
+ * Values are interned when a dictionary is built or read, so records decode them to the same {@link String}
+ * instances across segments and partitions.
+ */
+public final class SegmentDictionary {
+    private static final String DICTIONARY_FIELD = "@dictionary";
+    private static final String FIELDS_FIELD = "fields";
+    private static final String VALUES_FIELD = "values";
+    private static final byte[] MARKER = ("{\"" + DICTIONARY_FIELD + "\":").getBytes(StandardCharsets.UTF_8);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Interner<String> VALUES = Interners.newWeakInterner();
+    private final List<String> fields;
+    private final boolean[] encodedFields;
+    private final String[] values;
+    private final Map<String, Integer> ids;
+
+    private SegmentDictionary(List<String> fields, List<String> values) {
+        this.fields = List.copyOf(fields);
+        this.encodedFields = toFieldMask(fields);
+        this.values = new String[values.size()];
+        this.ids = new HashMap<>(values.size() * 2);
+        for (int i = 0; i < values.size(); i++) {
+            this.values[i] = VALUES.intern(values.get(i));
+            ids.put(this.values[i], i);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when a field does not exist on {@link LogEvent}
+     */
+    public static Builder builder(Collection<String> fields, int maxEntries) {
+        return new Builder(List.copyOf(fields), maxEntries);
+    }
+
+    public static boolean isDictionaryLine(byte[] bytes, int offset, int length) {
+        if (length < MARKER.length) {
+            return false;
+        }
+        for (int i = 0; i < MARKER.length; i++) {
+            if (bytes[offset + i] != MARKER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static SegmentDictionary parse(byte[] bytes, int offset, int length) throws IOException {
+        final JsonNode dictionary = OBJECT_MAPPER.readTree(bytes, offset, length).path(DICTIONARY_FIELD);
+        if (!dictionary.path(FIELDS_FIELD).isArray() || !dictionary.path(VALUES_FIELD).isArray()) {
+            throw new IOException("Malformed segment dictionary");
+        }
+        final List<String> fields = new ArrayList<>();
+        dictionary.get(FIELDS_FIELD).forEach(field -> fields.add(field.asText()));
+        final List<String> values = new ArrayList<>();
+        dictionary.get(VALUES_FIELD).forEach(value -> values.add(value.asText()));
+        try {
+            return new SegmentDictionary(fields, values);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed segment dictionary", e);
+        }
+    }
+
+    /**
+     * @return the dictionary line, without its line separator
+     */
+    public byte[] toLine() {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        line.writeBytes(MARKER);
+        line.writeBytes(("{\"" + FIELDS_FIELD + "\":").getBytes(StandardCharsets.UTF_8));
+        writeArray(line, fields);
+        line.writeBytes((",\"" + VALUES_FIELD + "\":").getBytes(StandardCharsets.UTF_8));
+        writeArray(line, List.of(values));
+        line.writeBytes("}}".getBytes(StandardCharsets.UTF_8));
+        return line.toByteArray();
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    boolean isEncoded(int fieldIndex) {
+        return encodedFields[fieldIndex];
+    }
+
+    int idOf(String value) {
+        return ids.getOrDefault(value, -1);
+    }
+
+    String valueOf(int id) {
+        return values[id];
+    }
+
+    private static boolean[] toFieldMask(List<String> fields) {
+        final boolean[] mask = new boolean[LogEventCodec.fieldCount()];
+        for (String field : fields) {
+            final int index = LogEventCodec.fieldIndex(field);
+            if (index < 0) {
+                throw new IllegalArgumentException("Log events have no field named " + field);
+            }
+            mask[index] = true;
+        }
+        return mask;
+    }
+
+    private static void writeArray(ByteArrayOutputStream line, List<String> strings) {
+        line.write('[');
+        for (int i = 0; i < strings.size(); i++) {
+            if (i > 0) {
+                line.write(',');
+            }
+            line.write('"');
+            line.writeBytes(LogEventCodec.encodeString(strings.get(i)));
+            line.write('"');
+        }
+        line.write(']');
+    }
+
+    /**
+     * Counts the values of the covered fields over the records of a segment. Only values seen more than once make
+     * it into the dictionary, most frequent first so they get the shortest IDs.
+     */
+    public static final class Builder {
+        private final List<String> fields;
+        private final boolean[] encodedFields;
+        private final int maxEntries;
+        private final Map<String, Integer> occurrences = new HashMap<>();
+
+        private Builder(List<String> fields, int maxEntries) {
+            this.fields = fields;
+            this.encodedFields = toFieldMask(fields);
+            this.maxEntries = maxEntries;
+        }
+
+        public void add(LogEvent logEvent) {
+            for (int i = 0; i < encodedFields.length; i++) {
+                if (encodedFields[i]) {
+                    final String value = LogEventCodec.fieldValue(logEvent, i);
+                    if (value != null) {
+                        occurrences.merge(value, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        public SegmentDictionary build() {
+            final List<String> values = occurrences.entrySet()
+                    .stream()
+                    .filter(entry -> entry.getValue() > 1)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                    .limit(Math.max(0, maxEntries))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            return new SegmentDictionary(fields, values);
+        }
+    }
+}
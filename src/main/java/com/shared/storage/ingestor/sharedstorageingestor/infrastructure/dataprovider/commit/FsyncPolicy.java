@@ -0,0 +1,7 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.commit;
+
+public enum FsyncPolicy {
+    BATCH,
+    INTERVAL,
+    NONE
+}
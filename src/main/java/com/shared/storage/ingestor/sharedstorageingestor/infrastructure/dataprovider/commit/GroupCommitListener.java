@@ -0,0 +1,8 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.commit;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface GroupCommitListener {
+    void onAppend(int records, long bytes) throws IOException;
+}
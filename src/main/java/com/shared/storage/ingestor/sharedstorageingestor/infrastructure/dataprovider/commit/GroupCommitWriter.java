@@ -0,0 +1,220 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.commit;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Collects records submitted by concurrent callers through a lock-free queue and appends them to the
+ * locked log file's {@link LogStorage} in groups, one buffered write per group. Every acknowledgement completes once its group is durable according to
+ * the configured {@link FsyncPolicy}. Appends, syncs, {@link WriterTask}s and the {@link GroupCommitListener}
+ * callback all run on the single writer thread, so they may safely rewrite the file without further locking.
+ * <p>
+ * The listener runs once the group is appended, and synced unless syncs are interval-based; its failures are logged
+ * and never fail the acknowledgements of records already in the file. A failure that stops the writer thread fails
+ * every pending acknowledgement and makes later submissions fail at once rather than wait forever.
+ */
+@Slf4j
+public class GroupCommitWriter implements Closeable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+    private final LogStorage logStorage;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final int maxGroupSize;
+    private final GroupCommitListener listener;
+    private final Queue<PendingRecord> queue = new ConcurrentLinkedQueue<>();
+    private final Queue<PendingTask> tasks = new ConcurrentLinkedQueue<>();
+    private final List<CompletableFuture<Void>> unsynced = new ArrayList<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private volatile boolean terminated;
+    private long lastSyncNanos = System.nanoTime();
+
+    public GroupCommitWriter(String name, LogStorage logStorage, FsyncPolicy fsyncPolicy,
+                             long fsyncIntervalMillis, int maxGroupSize, GroupCommitListener listener) {
+        this.logStorage = logStorage;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.maxGroupSize = maxGroupSize;
+        this.listener = listener;
+        this.writerThread = new Thread(this::run, name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public CompletableFuture<Void> submit(byte[] record) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Group commit writer is closed"));
+        }
+        final PendingRecord pendingRecord = new PendingRecord(record, new CompletableFuture<>());
+        queue.offer(pendingRecord);
+        LockSupport.unpark(writerThread);
+        if (terminated) {
+            failQueued(new IllegalStateException("Group commit writer is closed"));
+        }
+        return pendingRecord.acknowledgement();
+    }
+
+    public CompletableFuture<Void> execute(WriterTask task) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Group commit writer is closed"));
+        }
+        final PendingTask pendingTask = new PendingTask(task, new CompletableFuture<>());
+        tasks.offer(pendingTask);
+        LockSupport.unpark(writerThread);
+        if (terminated) {
+            failQueued(new IllegalStateException("Group commit writer is closed"));
+        }
+        return pendingTask.completion();
+    }
+
+    public boolean isSyncRequired() {
+        return fsyncPolicy != FsyncPolicy.NONE;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            writeUntilClosed();
+        } catch (Error e) {
+            log.error("Group commit writer stopped", e);
+            running = false;
+            failUnsynced(e);
+            throw e;
+        } finally {
+            terminated = true;
+            failQueued(new IllegalStateException("Group commit writer is closed"));
+        }
+    }
+
+    private void writeUntilClosed() {
+        final List<PendingRecord> group = new ArrayList<>(maxGroupSize);
+        while (running || !queue.isEmpty() || !tasks.isEmpty()) {
+            try {
+                PendingRecord next = queue.poll();
+                if (Objects.nonNull(next)) {
+                    while (Objects.nonNull(next)) {
+                        group.add(next);
+                        next = group.size() < maxGroupSize ? queue.poll() : null;
+                    }
+                    commit(group);
+                } else if (tasks.isEmpty()) {
+                    LockSupport.parkNanos(this, parkNanos());
+                }
+                runTasks();
+                if (!unsynced.isEmpty() && System.nanoTime() - lastSyncNanos >= fsyncIntervalNanos) {
+                    sync();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Error while writing to the log file", e);
+                group.forEach(pendingRecord -> pendingRecord.acknowledgement().completeExceptionally(e));
+                failUnsynced(e);
+            } finally {
+                group.clear();
+            }
+        }
+        try {
+            sync();
+        } catch (IOException | RuntimeException e) {
+            failUnsynced(e);
+        }
+    }
+
+    /**
+     * Appends a group and syncs it unless syncs are interval-based, before telling the listener, so a failing listener
+     * cannot fail records that are already durable.
+     */
+    private void commit(List<PendingRecord> group) throws IOException {
+        final List<byte[]> records = new ArrayList<>(group.size());
+        group.forEach(pendingRecord -> records.add(pendingRecord.record()));
+        logStorage.append(records);
+        group.forEach(pendingRecord -> unsynced.add(pendingRecord.acknowledgement()));
+        if (fsyncPolicy != FsyncPolicy.INTERVAL) {
+            sync();
+        }
+        try {
+            listener.onAppend(group.size(), bytes(records));
+        } catch (IOException | RuntimeException e) {
+            log.error("Error while handling a committed group of {} records", group.size(), e);
+        }
+    }
+
+    private void runTasks() {
+        PendingTask pendingTask;
+        while (Objects.nonNull(pendingTask = tasks.poll())) {
+            try {
+                pendingTask.task().run();
+                pendingTask.completion().complete(null);
+            } catch (IOException | RuntimeException e) {
+                log.error("Error while running writer task", e);
+                pendingTask.completion().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void sync() throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NONE) {
+            logStorage.force();
+        }
+        lastSyncNanos = System.nanoTime();
+        unsynced.forEach(acknowledgement -> acknowledgement.complete(null));
+        unsynced.clear();
+    }
+
+    private long bytes(List<byte[]> records) {
+        long bytes = 0;
+        for (byte[] record : records) {
+            bytes += record.length;
+        }
+        return bytes;
+    }
+
+    private void failQueued(Throwable e) {
+        PendingRecord pendingRecord;
+        while (Objects.nonNull(pendingRecord = queue.poll())) {
+            pendingRecord.acknowledgement().completeExceptionally(e);
+        }
+        PendingTask pendingTask;
+        while (Objects.nonNull(pendingTask = tasks.poll())) {
+            pendingTask.completion().completeExceptionally(e);
+        }
+    }
+
+    private void failUnsynced(Throwable e) {
+        unsynced.forEach(acknowledgement -> acknowledgement.completeExceptionally(e));
+        unsynced.clear();
+    }
+
+    private long parkNanos() {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && !unsynced.isEmpty()) {
+            return Math.max(1L, fsyncIntervalNanos - (System.nanoTime() - lastSyncNanos));
+        }
+        return IDLE_PARK_NANOS;
+    }
+
+    private record PendingRecord(byte[] record, CompletableFuture<Void> acknowledgement) {
+    }
+
+    private record PendingTask(WriterTask task, CompletableFuture<Void> completion) {
+    }
+}
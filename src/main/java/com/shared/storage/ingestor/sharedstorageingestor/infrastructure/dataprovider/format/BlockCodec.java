@@ -0,0 +1,14 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format;
+
+import java.io.IOException;
+
+/**
+ * Compresses the blocks of a block-compressed batch segment. Implementations are looked up as
+ * {@code <name>BlockCodec} beans, and the name is recorded in every segment so it is always read back with the codec
+ * that wrote it.
+ */
+public interface BlockCodec {
+    String getName();
+    byte[] compress(byte[] source, int offset, int length) throws IOException;
+    void decompress(byte[] source, int offset, int length, byte[] target, int targetLength) throws IOException;
+}
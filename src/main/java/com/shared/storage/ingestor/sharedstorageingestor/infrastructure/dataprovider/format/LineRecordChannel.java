@@ -0,0 +1,66 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Channel that hands every newline-delimited record written to it to a {@link LineConsumer}, so a log file can be
+ * streamed record by record through {@code transferTo}. A record split across writes is buffered until its line
+ * separator arrives; an unterminated last record is handed over on close.
+ */
+public final class LineRecordChannel implements WritableByteChannel {
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private final LineConsumer consumer;
+    private byte[] pending = new byte[INITIAL_BUFFER_SIZE];
+    private int pendingLength;
+    private boolean open = true;
+
+    public LineRecordChannel(LineConsumer consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+        final int written = source.remaining();
+        while (source.hasRemaining()) {
+            if (pendingLength == pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            final int length = Math.min(source.remaining(), pending.length - pendingLength);
+            source.get(pending, pendingLength, length);
+            int lineStart = 0;
+            for (int i = pendingLength; i < pendingLength + length; i++) {
+                if (pending[i] == LINE_SEPARATOR) {
+                    if (i > lineStart) {
+                        consumer.accept(pending, lineStart, i - lineStart);
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            pendingLength += length - lineStart;
+            System.arraycopy(pending, lineStart, pending, 0, pendingLength);
+        }
+        return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (open && pendingLength > 0) {
+            consumer.accept(pending, 0, pendingLength);
+        }
+        open = false;
+    }
+
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(byte[] bytes, int offset, int length) throws IOException;
+    }
+}
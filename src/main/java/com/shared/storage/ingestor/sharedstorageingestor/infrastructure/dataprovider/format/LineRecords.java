@@ -0,0 +1,64 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Framing check for records stored one JSON object per line. Appends only ever tear at the tail, so a line that is
+ * newline-terminated, starts with '{', ends with '}' and holds no NUL bytes left behind by a partially flushed page
+ * is a complete record.
+ */
+public final class LineRecords {
+    private static final byte OBJECT_START = '{';
+    private static final byte OBJECT_END = '}';
+    private static final byte NUL = 0;
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final int READ_BUFFER_SIZE = 4 * 1024;
+
+    private LineRecords() {
+    }
+
+    public static boolean isRecord(ByteBuffer buffer, int start, int end) {
+        if (end - start < 2 || buffer.get(start) != OBJECT_START || buffer.get(end - 1) != OBJECT_END) {
+            return false;
+        }
+        for (int i = start + 1; i < end - 1; i++) {
+            if (buffer.get(i) == NUL) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the content of the file's first line, or an empty array when the file holds no complete line
+     */
+    public static byte[] readFirstLine(FileChannel channel) throws IOException {
+        return readLine(channel, 0L);
+    }
+
+    /**
+     * @return the content of the line starting at {@code position}, or an empty array when no complete line does
+     */
+    public static byte[] readLine(FileChannel channel, long position) throws IOException {
+        byte[] line = new byte[READ_BUFFER_SIZE];
+        int length = 0;
+        while (true) {
+            if (length == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            final int read = channel.read(ByteBuffer.wrap(line, length, line.length - length), position + length);
+            if (read <= 0) {
+                return new byte[0];
+            }
+            for (int i = length; i < length + read; i++) {
+                if (line[i] == LINE_SEPARATOR) {
+                    return Arrays.copyOf(line, i);
+                }
+            }
+            length += read;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Read side of a sealed batch segment: what the export job and the segment index need once a segment is published.
+ * Formats that log files are appended to extend it as {@link StorageFormat}.
+ */
+public interface SegmentFormat {
+    String getFileExtension();
+    int count(FileChannel channel) throws IOException;
+    List<SegmentRange> split(File segment, int partitions) throws IOException;
+    ItemStreamReader<LogEvent> createItemReader(Resource resource, SegmentRange range);
+    void scan(File segment, SegmentRecordVisitor visitor) throws IOException;
+
+    /**
+     * Reads the records found by {@link #scan} at the given locations, in segment order; a location past the end of
+     * the segment is skipped. By default the locations sharing an offset are read through one item reader, so a
+     * format that locates every record from the start of the segment reads it once; formats that can seek to a
+     * record read them all through one open channel instead.
+     */
+    default List<LogEvent> read(File segment, List<SegmentLocation> locations) throws IOException {
+        final List<SegmentLocation> sorted = locations.stream().sorted(SegmentLocation.SEGMENT_ORDER).toList();
+        final List<LogEvent> events = new ArrayList<>(sorted.size());
+        int i = 0;
+        while (i < sorted.size()) {
+            final long offset = sorted.get(i).offset();
+            final ItemStreamReader<LogEvent> reader = createItemReader(new FileSystemResource(segment), new SegmentRange(offset, offset + 1));
+            reader.open(new ExecutionContext());
+            try {
+                int read = 0;
+                LogEvent logEvent = null;
+                boolean exhausted = false;
+                for (; i < sorted.size() && sorted.get(i).offset() == offset; i++) {
+                    final int record = sorted.get(i).record();
+                    while (!exhausted && read <= record) {
+                        logEvent = reader.read();
+                        exhausted = Objects.isNull(logEvent);
+                        read++;
+                    }
+                    if (!exhausted && read == record + 1) {
+                        events.add(logEvent);
+                    }
+                }
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Could not read the records at offset " + offset + " of " + segment.getAbsolutePath(), e);
+            } finally {
+                reader.close();
+            }
+        }
+        return events;
+    }
+}
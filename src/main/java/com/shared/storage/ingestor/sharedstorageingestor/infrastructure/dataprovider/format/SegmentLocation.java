@@ -0,0 +1,12 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format;
+
+import java.util.Comparator;
+
+/**
+ * Where {@link SegmentFormat#scan} found a record: a reader created for the range starting at {@code offset} returns
+ * it after skipping {@code record} others.
+ */
+public record SegmentLocation(long offset, int record) {
+    public static final Comparator<SegmentLocation> SEGMENT_ORDER = Comparator.comparingLong(SegmentLocation::offset)
+            .thenComparingInt(SegmentLocation::record);
+}
@@ -0,0 +1,8 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format;
+
+public record SegmentRange(long start, long end) {
+
+    public long length() {
+        return end - start;
+    }
+}
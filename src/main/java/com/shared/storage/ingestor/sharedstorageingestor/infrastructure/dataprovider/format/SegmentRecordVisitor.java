@@ -0,0 +1,14 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+
+import java.io.IOException;
+
+/**
+ * Receives the records of a sealed segment with their location: a reader created for the range starting at
+ * {@code offset} returns the record after skipping {@code record} others.
+ */
+@FunctionalInterface
+public interface SegmentRecordVisitor {
+    void visit(LogEvent logEvent, long offset, int record) throws IOException;
+}
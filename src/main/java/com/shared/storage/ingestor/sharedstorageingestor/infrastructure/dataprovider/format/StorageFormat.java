@@ -0,0 +1,14 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+public interface StorageFormat extends SegmentFormat {
+    byte[] getEmptyContent();
+    boolean isLineDelimited();
+    void append(FileChannel channel, List<byte[]> records) throws IOException;
+    long repair(FileChannel channel) throws IOException;
+    void export(FileChannel source, File target, boolean sync) throws IOException;
+}
@@ -0,0 +1,215 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.SegmentDictionary;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.BlockCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentLocation;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRange;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRecordVisitor;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Sealed-segment format that stores the records of a line-delimited format as independently compressed blocks (see
+ * {@link BlockIndex} for the layout). Segments are written whole by {@link BlockSegmentWriter} and never appended to,
+ * so it is only a {@link SegmentFormat} and cannot be the format of log files. Segments that are not block-compressed,
+ * such as ones sealed before compression was enabled, are handed to the wrapped format, so pending segments keep
+ * exporting after a configuration change.
+ */
+public class BlockCompressedSegmentFormat implements SegmentFormat {
+    private static final String BLOCK_FILE_TYPE = ".blk";
+    private static final byte LINE_SEPARATOR = '\n';
+    private final StorageFormat delegate;
+    private final BlockCodec codec;
+    private final Map<String, BlockCodec> codecs;
+    private final int blockBytes;
+
+    public BlockCompressedSegmentFormat(StorageFormat delegate, BlockCodec codec, Map<String, BlockCodec> codecs, int blockBytes) {
+        if (!delegate.isLineDelimited()) {
+            throw new IllegalArgumentException("Block compression needs a line-delimited storage format");
+        }
+        this.delegate = delegate;
+        this.codec = codec;
+        this.codecs = codecs;
+        this.blockBytes = blockBytes;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return delegate.getFileExtension().concat(BLOCK_FILE_TYPE);
+    }
+
+    @Override
+    public int count(FileChannel channel) throws IOException {
+        if (!BlockIndex.isBlockSegment(channel)) {
+            return delegate.count(channel);
+        }
+        final BlockIndex index = BlockIndex.read(channel);
+        final BlockCodec segmentCodec = codecs.get(index.codecName());
+        if (Objects.isNull(segmentCodec)) {
+            throw new IOException("No block codec named " + index.codecName());
+        }
+        return (int) index.records() - (Objects.nonNull(BlockIndex.readDictionary(channel, index, segmentCodec)) ? 1 : 0);
+    }
+
+    public BlockSegmentWriter openWriter(File target, boolean sync) throws IOException {
+        return new BlockSegmentWriter(target, codec, blockBytes, sync);
+    }
+
+    /**
+     * Groups consecutive blocks into partitions of roughly equal uncompressed size, using the block index at the end
+     * of the segment.
+     */
+    @Override
+    public List<SegmentRange> split(File segment, int partitions) throws IOException {
+        try (final FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            if (!BlockIndex.isBlockSegment(channel)) {
+                return delegate.split(segment, partitions);
+            }
+            final BlockIndex index = BlockIndex.read(channel);
+            long rawBytes = 0;
+            for (BlockIndex.Block block : index.blocks()) {
+                rawBytes += block.rawLength();
+            }
+            final long step = Math.max(1L, rawBytes / Math.max(1, partitions));
+            final List<SegmentRange> ranges = new ArrayList<>(partitions);
+            long start = -1;
+            long accumulated = 0;
+            for (BlockIndex.Block block : index.blocks()) {
+                if (start < 0) {
+                    start = block.offset();
+                } else if (accumulated >= step && ranges.size() < partitions - 1) {
+                    ranges.add(new SegmentRange(start, block.offset()));
+                    start = block.offset();
+                    accumulated = 0;
+                }
+                accumulated += block.rawLength();
+            }
+            if (start >= 0) {
+                ranges.add(new SegmentRange(start, index.indexOffset()));
+            }
+            return ranges;
+        }
+    }
+
+    @Override
+    public ItemStreamReader<LogEvent> createItemReader(Resource resource, SegmentRange range) {
+        try (final FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+            if (!BlockIndex.isBlockSegment(channel)) {
+                return delegate.createItemReader(resource, range);
+            }
+            return new BlockSegmentItemReader(resource, Objects.nonNull(range) ? range : wholeSegment(BlockIndex.read(channel)), codecs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open batch segment " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * Records are located by the offset of their block and their position among the block's records, not counting
+     * the dictionary line.
+     */
+    @Override
+    public void scan(File segment, SegmentRecordVisitor visitor) throws IOException {
+        try (final FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            if (!BlockIndex.isBlockSegment(channel)) {
+                delegate.scan(segment, visitor);
+                return;
+            }
+            final BlockIndex index = BlockIndex.read(channel);
+            final BlockCodec segmentCodec = codecs.get(index.codecName());
+            if (Objects.isNull(segmentCodec)) {
+                throw new IOException("No block codec named " + index.codecName());
+            }
+            SegmentDictionary dictionary = null;
+            for (BlockIndex.Block block : index.blocks()) {
+                final byte[] raw = BlockIndex.readBlock(channel, block.offset(), segmentCodec);
+                int record = 0;
+                int lineStart = 0;
+                while (lineStart < raw.length) {
+                    int lineEnd = lineStart;
+                    while (lineEnd < raw.length && raw[lineEnd] != LINE_SEPARATOR) {
+                        lineEnd++;
+                    }
+                    final int length = lineEnd - lineStart;
+                    if (block.offset() == index.blocks().get(0).offset() && lineStart == 0 && SegmentDictionary.isDictionaryLine(raw, 0, length)) {
+                        dictionary = SegmentDictionary.parse(raw, 0, length);
+                    } else if (length > 0) {
+                        visitor.visit(LogEventCodec.decode(raw, lineStart, length, dictionary), block.offset(), record++);
+                    }
+                    lineStart = lineEnd + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decompresses each block holding a location once, through one channel, and picks the located records from it.
+     */
+    @Override
+    public List<LogEvent> read(File segment, List<SegmentLocation> locations) throws IOException {
+        try (final FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            if (!BlockIndex.isBlockSegment(channel)) {
+                return delegate.read(segment, locations);
+            }
+            final BlockIndex index = BlockIndex.read(channel);
+            final BlockCodec segmentCodec = codecs.get(index.codecName());
+            if (Objects.isNull(segmentCodec)) {
+                throw new IOException("No block codec named " + index.codecName());
+            }
+            final SegmentDictionary dictionary = BlockIndex.readDictionary(channel, index, segmentCodec);
+            final List<LogEvent> events = new ArrayList<>(locations.size());
+            long blockOffset = -1;
+            byte[] raw = null;
+            List<int[]> lines = List.of();
+            for (SegmentLocation location : locations.stream().sorted(SegmentLocation.SEGMENT_ORDER).toList()) {
+                if (location.offset() != blockOffset) {
+                    blockOffset = location.offset();
+                    raw = BlockIndex.readBlock(channel, blockOffset, segmentCodec);
+                    lines = recordLines(raw, Objects.nonNull(dictionary) && blockOffset == index.blocks().get(0).offset());
+                }
+                if (location.record() < lines.size()) {
+                    final int[] line = lines.get(location.record());
+                    events.add(LogEventCodec.decode(raw, line[0], line[1] - line[0], dictionary));
+                }
+            }
+            return events;
+        }
+    }
+
+    /**
+     * @return the start and end of each record line of a block, numbered as {@link #scan} numbers them
+     */
+    private static List<int[]> recordLines(byte[] raw, boolean skipDictionary) {
+        final List<int[]> lines = new ArrayList<>();
+        int lineStart = 0;
+        while (lineStart < raw.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < raw.length && raw[lineEnd] != LINE_SEPARATOR) {
+                lineEnd++;
+            }
+            if (lineEnd > lineStart && !(skipDictionary && lineStart == 0)) {
+                lines.add(new int[]{lineStart, lineEnd});
+            }
+            lineStart = lineEnd + 1;
+        }
+        return lines;
+    }
+
+    private SegmentRange wholeSegment(BlockIndex index) {
+        final long start = index.blocks().isEmpty() ? index.indexOffset() : index.blocks().get(0).offset();
+        return new SegmentRange(start, index.indexOffset());
+    }
+}
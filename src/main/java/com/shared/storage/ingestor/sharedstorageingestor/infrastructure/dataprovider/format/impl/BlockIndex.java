@@ -0,0 +1,116 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.SegmentDictionary;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.BlockCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout of a block-compressed batch segment, all integers big-endian:
+ * <pre>
+ * header : magic (int) | codec name length (byte) | codec name (US-ASCII)
+ * block  : compressed length (int) | raw length (int) | records (int) | compressed bytes
+ * index  : one entry per block: block offset (long) | raw length (int) | records (int)
+ * footer : index offset (long) | block count (int) | records (long) | magic (int)
+ * </pre>
+ * Every block holds whole newline-delimited records, so a reader can start at any block offset. In a
+ * dictionary-encoded segment the first record of the first block is the {@link SegmentDictionary} line, counted
+ * among the records.
+ */
+record BlockIndex(String codecName, List<Block> blocks, long indexOffset, long records) {
+    static final int MAGIC = 0x53534231;
+    static final int FRAME_HEADER_SIZE = 12;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final int FOOTER_SIZE = 24;
+    private static final int HEADER_PREFIX_SIZE = 5;
+    private static final byte LINE_SEPARATOR = '\n';
+
+    static boolean isBlockSegment(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_PREFIX_SIZE + FOOTER_SIZE) {
+            return false;
+        }
+        return read(channel, 0, Integer.BYTES).getInt() == MAGIC;
+    }
+
+    static String readCodecName(FileChannel channel) throws IOException {
+        final ByteBuffer prefix = read(channel, 0, HEADER_PREFIX_SIZE);
+        if (prefix.getInt() != MAGIC) {
+            throw new IOException("Not a block-compressed batch segment");
+        }
+        final int nameLength = prefix.get() & 0xFF;
+        return StandardCharsets.US_ASCII.decode(read(channel, HEADER_PREFIX_SIZE, nameLength)).toString();
+    }
+
+    static ByteBuffer header(String codecName) {
+        final byte[] name = codecName.getBytes(StandardCharsets.US_ASCII);
+        return ByteBuffer.allocate(HEADER_PREFIX_SIZE + name.length).putInt(MAGIC).put((byte) name.length).put(name).flip();
+    }
+
+    static BlockIndex read(FileChannel channel) throws IOException {
+        final String codecName = readCodecName(channel);
+        final ByteBuffer footer = read(channel, channel.size() - FOOTER_SIZE, FOOTER_SIZE);
+        final long indexOffset = footer.getLong();
+        final int blockCount = footer.getInt();
+        final long records = footer.getLong();
+        if (footer.getInt() != MAGIC) {
+            throw new IOException("Block-compressed batch segment has no footer");
+        }
+        final ByteBuffer index = read(channel, indexOffset, blockCount * INDEX_ENTRY_SIZE);
+        final List<Block> blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            blocks.add(new Block(index.getLong(), index.getInt(), index.getInt()));
+        }
+        return new BlockIndex(codecName, blocks, indexOffset, records);
+    }
+
+    ByteBuffer toBytes() {
+        final ByteBuffer buffer = ByteBuffer.allocate(blocks.size() * INDEX_ENTRY_SIZE + FOOTER_SIZE);
+        blocks.forEach(block -> buffer.putLong(block.offset()).putInt(block.rawLength()).putInt(block.records()));
+        return buffer.putLong(indexOffset).putInt(blocks.size()).putLong(records).putInt(MAGIC).flip();
+    }
+
+    static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of block-compressed batch segment");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * @return the uncompressed content of the block framed at the given offset
+     */
+    static byte[] readBlock(FileChannel channel, long offset, BlockCodec codec) throws IOException {
+        final ByteBuffer frame = read(channel, offset, FRAME_HEADER_SIZE);
+        final int compressedLength = frame.getInt();
+        final byte[] raw = new byte[frame.getInt()];
+        codec.decompress(read(channel, offset + FRAME_HEADER_SIZE, compressedLength).array(), 0, compressedLength, raw, raw.length);
+        return raw;
+    }
+
+    /**
+     * @return the dictionary held by the first record of the segment, or null when the segment is not
+     * dictionary-encoded
+     */
+    static SegmentDictionary readDictionary(FileChannel channel, BlockIndex index, BlockCodec codec) throws IOException {
+        if (index.blocks().isEmpty()) {
+            return null;
+        }
+        final byte[] raw = readBlock(channel, index.blocks().get(0).offset(), codec);
+        int lineEnd = 0;
+        while (lineEnd < raw.length && raw[lineEnd] != LINE_SEPARATOR) {
+            lineEnd++;
+        }
+        return SegmentDictionary.isDictionaryLine(raw, 0, lineEnd) ? SegmentDictionary.parse(raw, 0, lineEnd) : null;
+    }
+
+    record Block(long offset, int rawLength, int records) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.SegmentDictionary;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.BlockCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRange;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads the blocks of a block-compressed batch segment whose frames start inside the given range, decompressing one
+ * block at a time. The offset of the current block and the number of records already read from it are saved in the
+ * step execution context, so a restarted partition resumes at its last committed record. The dictionary of a
+ * dictionary-encoded segment is read from its first block on open and its line skipped like an empty record.
+ */
+public class BlockSegmentItemReader implements ItemStreamReader<LogEvent> {
+    private static final String BLOCK_OFFSET_KEY = "logEventBlockSegmentItemReader.blockOffset";
+    private static final String RECORD_KEY = "logEventBlockSegmentItemReader.record";
+    private static final byte LINE_SEPARATOR = '\n';
+    private final Resource resource;
+    private final SegmentRange range;
+    private final Map<String, BlockCodec> codecs;
+    private FileChannel channel;
+    private BlockCodec codec;
+    private SegmentDictionary dictionary;
+    private long dictionaryBlockOffset = -1;
+    private byte[] compressed = new byte[0];
+    private byte[] raw = new byte[0];
+    private int rawLength;
+    private int rawPosition;
+    private long blockOffset;
+    private long nextBlockOffset;
+    private int record;
+
+    public BlockSegmentItemReader(Resource resource, SegmentRange range, Map<String, BlockCodec> codecs) {
+        this.resource = resource;
+        this.range = range;
+        this.codecs = codecs;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+            final String codecName = BlockIndex.readCodecName(channel);
+            codec = codecs.get(codecName);
+            if (Objects.isNull(codec)) {
+                throw new ItemStreamException("No block codec named " + codecName + " for " + resource.getDescription());
+            }
+            final BlockIndex index = BlockIndex.read(channel);
+            dictionary = BlockIndex.readDictionary(channel, index, codec);
+            if (Objects.nonNull(dictionary)) {
+                dictionaryBlockOffset = index.blocks().get(0).offset();
+            }
+            nextBlockOffset = executionContext.containsKey(BLOCK_OFFSET_KEY)
+                    ? executionContext.getLong(BLOCK_OFFSET_KEY)
+                    : range.start();
+            blockOffset = nextBlockOffset;
+            final int skipped = executionContext.getInt(RECORD_KEY, 0);
+            if (skipped > 0) {
+                loadBlock();
+                while (record < skipped && nextLine() >= 0) {
+                    record++;
+                }
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not open batch segment " + resource.getDescription(), e);
+        }
+    }
+
+    @Override
+    public LogEvent read() throws IOException {
+        while (true) {
+            if (rawPosition >= rawLength) {
+                if (nextBlockOffset >= range.end()) {
+                    return null;
+                }
+                loadBlock();
+                continue;
+            }
+            final int lineStart = rawPosition;
+            final int lineEnd = nextLine();
+            final boolean dictionaryLine = record == 0 && blockOffset == dictionaryBlockOffset;
+            record++;
+            if (lineEnd > lineStart && !dictionaryLine) {
+                return LogEventCodec.decode(raw, lineStart, lineEnd - lineStart, dictionary);
+            }
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(BLOCK_OFFSET_KEY, blockOffset);
+        executionContext.putInt(RECORD_KEY, record);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (Objects.nonNull(channel)) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Could not close batch segment " + resource.getDescription(), e);
+            }
+        }
+    }
+
+    private void loadBlock() throws IOException {
+        final ByteBuffer frame = BlockIndex.read(channel, nextBlockOffset, BlockIndex.FRAME_HEADER_SIZE);
+        final int compressedLength = frame.getInt();
+        rawLength = frame.getInt();
+        if (compressed.length < compressedLength) {
+            compressed = new byte[compressedLength];
+        }
+        if (raw.length < rawLength) {
+            raw = new byte[rawLength];
+        }
+        final ByteBuffer target = ByteBuffer.wrap(compressed, 0, compressedLength);
+        final long dataOffset = nextBlockOffset + BlockIndex.FRAME_HEADER_SIZE;
+        while (target.hasRemaining()) {
+            if (channel.read(target, dataOffset + target.position()) < 0) {
+                throw new IOException("Unexpected end of block-compressed batch segment");
+            }
+        }
+        codec.decompress(compressed, 0, compressedLength, raw, rawLength);
+        blockOffset = nextBlockOffset;
+        nextBlockOffset = dataOffset + compressedLength;
+        rawPosition = 0;
+        record = 0;
+    }
+
+    /**
+     * Advances past the next record of the current block and returns the end of its content, or -1 when the block
+     * is exhausted.
+     */
+    private int nextLine() {
+        if (rawPosition >= rawLength) {
+            return -1;
+        }
+        int lineEnd = rawPosition;
+        while (lineEnd < rawLength && raw[lineEnd] != LINE_SEPARATOR) {
+            lineEnd++;
+        }
+        rawPosition = Math.min(lineEnd + 1, rawLength);
+        return lineEnd;
+    }
+}
@@ -0,0 +1,111 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.BlockCodec;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams newline-delimited records into a block-compressed batch segment. Bytes are buffered until a block is full,
+ * then everything up to the last complete record is compressed and framed; a record longer than the block size
+ * grows the buffer instead of being split. Closing the writer flushes the last block and appends the block index.
+ */
+public class BlockSegmentWriter implements WritableByteChannel {
+    private static final byte LINE_SEPARATOR = '\n';
+    private final FileChannel channel;
+    private final BlockCodec codec;
+    private final boolean sync;
+    private final List<BlockIndex.Block> blocks = new ArrayList<>();
+    private byte[] block;
+    private int blockLength;
+    private long position;
+    private long records;
+    private boolean open = true;
+
+    BlockSegmentWriter(File target, BlockCodec codec, int blockBytes, boolean sync) throws IOException {
+        this.channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.codec = codec;
+        this.sync = sync;
+        this.block = new byte[blockBytes];
+        writeFully(BlockIndex.header(codec.getName()));
+    }
+
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+        final int written = source.remaining();
+        while (source.hasRemaining()) {
+            if (blockLength == block.length) {
+                flushCompleteRecords();
+            }
+            final int length = Math.min(source.remaining(), block.length - blockLength);
+            source.get(block, blockLength, length);
+            blockLength += length;
+        }
+        return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        try {
+            if (blockLength > 0) {
+                writeBlock(blockLength);
+            }
+            writeFully(new BlockIndex(codec.getName(), blocks, position, records).toBytes());
+            if (sync) {
+                channel.force(false);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushCompleteRecords() throws IOException {
+        int end = blockLength;
+        while (end > 0 && block[end - 1] != LINE_SEPARATOR) {
+            end--;
+        }
+        if (end == 0) {
+            block = Arrays.copyOf(block, block.length * 2);
+            return;
+        }
+        writeBlock(end);
+        System.arraycopy(block, end, block, 0, blockLength - end);
+        blockLength -= end;
+    }
+
+    private void writeBlock(int length) throws IOException {
+        int blockRecords = block[length - 1] == LINE_SEPARATOR ? 0 : 1;
+        for (int i = 0; i < length; i++) {
+            if (block[i] == LINE_SEPARATOR) {
+                blockRecords++;
+            }
+        }
+        final byte[] compressed = codec.compress(block, 0, length);
+        blocks.add(new BlockIndex.Block(position, length, blockRecords));
+        records += blockRecords;
+        writeFully(ByteBuffer.allocate(BlockIndex.FRAME_HEADER_SIZE).putInt(compressed.length).putInt(length).putInt(blockRecords).flip());
+        writeFully(ByteBuffer.wrap(compressed));
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.BlockCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+@Component
+public class DeflateBlockCodec implements BlockCodec {
+    private static final String NAME = "deflate";
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] source, int offset, int length) {
+        final Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(source, offset, length);
+            deflater.finish();
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(CHUNK_SIZE, length / 4));
+            final byte[] chunk = new byte[CHUNK_SIZE];
+            while (!deflater.finished()) {
+                output.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void decompress(byte[] source, int offset, int length, byte[] target, int targetLength) throws IOException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(source, offset, length);
+            int inflated = 0;
+            while (inflated < targetLength && !inflater.finished() && !inflater.needsInput()) {
+                inflated += inflater.inflate(target, inflated, targetLength - inflated);
+            }
+            if (inflated != targetLength) {
+                throw new IOException("Deflate block inflated to " + inflated + " bytes, expected " + targetLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt deflate block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.BlockCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class GzipBlockCodec implements BlockCodec {
+    private static final String NAME = "gzip";
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] source, int offset, int length) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(BUFFER_SIZE, length / 4));
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(output, BUFFER_SIZE)) {
+            gzip.write(source, offset, length);
+        }
+        return output.toByteArray();
+    }
+
+    @Override
+    public void decompress(byte[] source, int offset, int length, byte[] target, int targetLength) throws IOException {
+        try (final GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(source, offset, length), BUFFER_SIZE)) {
+            final int inflated = gzip.readNBytes(target, 0, targetLength);
+            if (inflated != targetLength) {
+                throw new IOException("Gzip block inflated to " + inflated + " bytes, expected " + targetLength);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.LineRecords;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRange;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRecordVisitor;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.json.JacksonJsonObjectReader;
+import org.springframework.batch.item.json.builder.JsonItemReaderBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@Component
+public class JsonStorageFormat implements StorageFormat {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String JSON_FILE_TYPE = ".json";
+    private static final long EMPTY_FILE_LENGTH = 2L;
+    private static final byte[] EMPTY_ARRAY = "[]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FIRST_ENTRY_PREFIX = "\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ENTRY_PREFIX = ",\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ARRAY_SUFFIX = "\n]".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EMPTY_ARRAY_SUFFIX = "]".getBytes(StandardCharsets.UTF_8);
+    private static final byte ARRAY_START = '[';
+    private static final byte ARRAY_END = ']';
+    private static final byte ENTRY_SEPARATOR = ',';
+    private static final byte LINE_SEPARATOR = '\n';
+
+    @Override
+    public String getFileExtension() {
+        return JSON_FILE_TYPE;
+    }
+
+    @Override
+    public byte[] getEmptyContent() {
+        return EMPTY_ARRAY.clone();
+    }
+
+    @Override
+    public boolean isLineDelimited() {
+        return false;
+    }
+
+    @Override
+    public void append(FileChannel channel, List<byte[]> records) throws IOException {
+        final long fileLength = channel.size();
+        int capacity = ARRAY_SUFFIX.length;
+        for (byte[] record : records) {
+            capacity += ENTRY_PREFIX.length + record.length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        boolean first = fileLength == EMPTY_FILE_LENGTH;
+        for (byte[] record : records) {
+            buffer.put(first ? FIRST_ENTRY_PREFIX : ENTRY_PREFIX).put(record);
+            first = false;
+        }
+        buffer.put(ARRAY_SUFFIX).flip();
+        writeFully(channel, buffer, fileLength - 1);
+    }
+
+    @Override
+    public int count(FileChannel channel) throws IOException {
+        return OBJECT_MAPPER.readTree(readFileContent(channel)).size();
+    }
+
+    /**
+     * Keeps every complete record up to the first torn one and closes the array again, so a file left without its
+     * closing bracket parses and can be appended to.
+     */
+    @Override
+    public long repair(FileChannel channel) throws IOException {
+        final ByteBuffer content = ByteBuffer.wrap(readFileContent(channel));
+        final int length = content.limit();
+        int validEnd = -1;
+        int position = 1;
+        if (length > 0 && content.get(0) == ARRAY_START) {
+            while (position < length) {
+                if (content.get(position) == LINE_SEPARATOR || content.get(position) == ENTRY_SEPARATOR) {
+                    position++;
+                    continue;
+                }
+                if (content.get(position) == ARRAY_END && position == length - 1) {
+                    return 0L;
+                }
+                int lineEnd = position;
+                while (lineEnd < length && content.get(lineEnd) != LINE_SEPARATOR) {
+                    lineEnd++;
+                }
+                final int recordEnd = content.get(lineEnd - 1) == ENTRY_SEPARATOR ? lineEnd - 1 : lineEnd;
+                if (lineEnd == length || !LineRecords.isRecord(content, position, recordEnd)) {
+                    break;
+                }
+                validEnd = recordEnd;
+                position = lineEnd;
+            }
+        }
+        final int kept = validEnd < 0 ? 1 : validEnd;
+        final byte[] suffix = validEnd < 0 ? EMPTY_ARRAY_SUFFIX : ARRAY_SUFFIX;
+        channel.truncate(kept);
+        writeFully(channel, ByteBuffer.wrap(suffix), kept);
+        if (kept == 1) {
+            writeFully(channel, ByteBuffer.wrap(EMPTY_ARRAY, 0, 1), 0);
+        }
+        return Math.max(0, length - kept - suffix.length);
+    }
+
+    /**
+     * The segment is sealed into a temporary file the caller just deleted, so the target never exists.
+     */
+    @Override
+    public void export(FileChannel source, File target, boolean sync) throws IOException {
+        final byte[] content = readFileContent(source);
+        try (final FileChannel batchChannel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writeFully(batchChannel, ByteBuffer.wrap(content), 0);
+            forceIfRequired(batchChannel, sync);
+        }
+    }
+
+    /**
+     * A JSON array cannot be entered mid-file, so the whole segment is always a single range.
+     */
+    @Override
+    public List<SegmentRange> split(File segment, int partitions) {
+        return List.of(new SegmentRange(0, segment.length()));
+    }
+
+    @Override
+    public ItemStreamReader<LogEvent> createItemReader(Resource resource, SegmentRange range) {
+        return new JsonItemReaderBuilder<LogEvent>()
+                .jsonObjectReader(new JacksonJsonObjectReader<>(LogEvent.class))
+                .resource(resource)
+                .name("logEventJsonItemReader")
+                .build();
+    }
+
+    /**
+     * Records are located by their position in the array, since a JSON array is only ever read from its start.
+     */
+    @Override
+    public void scan(File segment, SegmentRecordVisitor visitor) throws IOException {
+        try (final JsonParser parser = OBJECT_MAPPER.createParser(segment)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Batch segment " + segment.getAbsolutePath() + " is not a JSON array");
+            }
+            int record = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                visitor.visit(parser.readValueAs(LogEvent.class), 0L, record++);
+            }
+        }
+    }
+
+    private byte[] readFileContent(FileChannel channel) throws IOException {
+        final ByteBuffer fileContent = ByteBuffer.allocate((int) channel.size());
+        while (fileContent.hasRemaining()) {
+            if (channel.read(fileContent, fileContent.position()) < 0) {
+                break;
+            }
+        }
+        return fileContent.array();
+    }
+
+    private void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void forceIfRequired(FileChannel channel, boolean sync) throws IOException {
+        if (sync) {
+            channel.force(false);
+        }
+    }
+}
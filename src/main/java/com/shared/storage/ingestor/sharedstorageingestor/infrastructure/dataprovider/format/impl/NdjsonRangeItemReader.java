@@ -0,0 +1,128 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.SegmentDictionary;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.LineRecords;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRange;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Reads the newline-delimited records between two line-aligned byte offsets of a segment. The byte offset of
+ * the next unread record is saved in the step execution context, so a restarted partition resumes where its
+ * last committed chunk ended.
+ * <p>
+ * A segment that starts with a {@link SegmentDictionary} line has it read on open, whatever the range, and its
+ * records decoded against it.
+ */
+public class NdjsonRangeItemReader implements ItemStreamReader<LogEvent> {
+    private static final String OFFSET_KEY = "logEventNdjsonRangeItemReader.offset";
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private final Resource resource;
+    private final SegmentRange range;
+    private FileChannel channel;
+    private SegmentDictionary dictionary;
+    private ByteBuffer buffer;
+    private long position;
+    private long readPosition;
+
+    public NdjsonRangeItemReader(Resource resource, SegmentRange range) {
+        this.resource = resource;
+        this.range = range;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+            final byte[] firstLine = LineRecords.readFirstLine(channel);
+            if (SegmentDictionary.isDictionaryLine(firstLine, 0, firstLine.length)) {
+                dictionary = SegmentDictionary.parse(firstLine, 0, firstLine.length);
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not open batch segment " + resource.getDescription(), e);
+        }
+        position = executionContext.containsKey(OFFSET_KEY)
+                ? executionContext.getLong(OFFSET_KEY)
+                : range.start();
+        readPosition = position;
+        buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        buffer.limit(0);
+    }
+
+    @Override
+    public LogEvent read() throws IOException {
+        while (position < range.end()) {
+            final int lineLength = nextLineLength();
+            if (lineLength < 0) {
+                return null;
+            }
+            final int lineStart = buffer.position();
+            final boolean dictionaryLine = position == 0 && Objects.nonNull(dictionary);
+            buffer.position(lineStart + Math.min(lineLength + 1, buffer.remaining()));
+            position += lineLength + 1;
+            if (lineLength > 0 && !dictionaryLine) {
+                return LogEventCodec.decode(buffer.array(), lineStart, lineLength, dictionary);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(OFFSET_KEY, position);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (Objects.nonNull(channel)) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Could not close batch segment " + resource.getDescription(), e);
+            }
+        }
+    }
+
+    private int nextLineLength() throws IOException {
+        int scanned = 0;
+        while (true) {
+            for (int i = buffer.position() + scanned; i < buffer.limit(); i++) {
+                if (buffer.get(i) == LINE_SEPARATOR) {
+                    return i - buffer.position();
+                }
+            }
+            scanned = buffer.remaining();
+            if (!fill()) {
+                return buffer.hasRemaining() ? buffer.remaining() : -1;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        final int read = channel.read(buffer, readPosition);
+        buffer.flip();
+        if (read <= 0) {
+            return false;
+        }
+        readPosition += read;
+        return true;
+    }
+}
@@ -0,0 +1,260 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.SegmentDictionary;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.LineRecords;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentLocation;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRange;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRecordVisitor;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Component
+public class NdjsonStorageFormat implements StorageFormat {
+    private static final ObjectReader LOG_EVENT_READER = new ObjectMapper().readerFor(LogEvent.class);
+    private static final String NDJSON_FILE_TYPE = ".ndjson";
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String getFileExtension() {
+        return NDJSON_FILE_TYPE;
+    }
+
+    @Override
+    public byte[] getEmptyContent() {
+        return new byte[0];
+    }
+
+    @Override
+    public boolean isLineDelimited() {
+        return true;
+    }
+
+    @Override
+    public void append(FileChannel channel, List<byte[]> records) throws IOException {
+        int capacity = 0;
+        for (byte[] record : records) {
+            capacity += record.length + 1;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        for (byte[] record : records) {
+            buffer.put(record).put(LINE_SEPARATOR);
+        }
+        buffer.flip();
+        long position = channel.size();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    @Override
+    public int count(FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long position = 0;
+        int lines = 0;
+        int read;
+        while ((read = channel.read(buffer, position)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LINE_SEPARATOR) {
+                    lines++;
+                }
+            }
+            position += read;
+            buffer.clear();
+        }
+        return lines > 0 && hasDictionary(channel) ? lines - 1 : lines;
+    }
+
+    /**
+     * Truncates the file after the last complete record, dropping a torn or zero-filled tail.
+     */
+    @Override
+    public long repair(FileChannel channel) throws IOException {
+        final long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long bufferStart = 0;
+        long validEnd = 0;
+        long readPosition = 0;
+        scan:
+        while (true) {
+            final int read = channel.read(buffer, readPosition);
+            readPosition += Math.max(read, 0);
+            buffer.flip();
+            int lineStart = (int) (validEnd - bufferStart);
+            for (int i = lineStart; i < buffer.limit(); i++) {
+                if (buffer.get(i) == LINE_SEPARATOR) {
+                    if (i > lineStart && !LineRecords.isRecord(buffer, lineStart, i)) {
+                        break scan;
+                    }
+                    validEnd = bufferStart + i + 1;
+                    lineStart = i + 1;
+                }
+            }
+            if (read <= 0) {
+                break;
+            }
+            buffer.position(lineStart);
+            buffer.compact();
+            bufferStart += lineStart;
+            if (!buffer.hasRemaining()) {
+                final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                buffer = larger.put(buffer);
+            }
+        }
+        if (validEnd < size) {
+            channel.truncate(validEnd);
+        }
+        return size - validEnd;
+    }
+
+    @Override
+    public void export(FileChannel source, File target, boolean sync) throws IOException {
+        try (final FileChannel targetChannel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            final long size = source.size();
+            long transferred = 0;
+            while (transferred < size) {
+                transferred += source.transferTo(transferred, size - transferred, targetChannel);
+            }
+            if (sync) {
+                targetChannel.force(false);
+            }
+        }
+    }
+
+    @Override
+    public List<SegmentRange> split(File segment, int partitions) throws IOException {
+        try (final FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long step = Math.max(1L, size / Math.max(1, partitions));
+            final List<SegmentRange> ranges = new ArrayList<>(partitions);
+            long start = 0;
+            while (start < size) {
+                final long end = ranges.size() == partitions - 1 ? size : nextLineStart(channel, start + step, size);
+                ranges.add(new SegmentRange(start, end));
+                start = end;
+            }
+            return ranges;
+        }
+    }
+
+    @Override
+    public ItemStreamReader<LogEvent> createItemReader(Resource resource, SegmentRange range) {
+        if (Objects.nonNull(range)) {
+            return new NdjsonRangeItemReader(resource, range);
+        }
+        try (final FileChannel channel = resource.isFile() ? FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ) : null) {
+            if (Objects.nonNull(channel) && hasDictionary(channel)) {
+                return new NdjsonRangeItemReader(resource, new SegmentRange(0, channel.size()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open batch segment " + resource.getDescription(), e);
+        }
+        return new FlatFileItemReaderBuilder<LogEvent>()
+                .name("logEventNdjsonItemReader")
+                .resource(resource)
+                .encoding(StandardCharsets.UTF_8.name())
+                .lineMapper((line, lineNumber) -> LOG_EVENT_READER.readValue(line))
+                .build();
+    }
+
+    /**
+     * Records are located by the byte offset of their line.
+     */
+    @Override
+    public void scan(File segment, SegmentRecordVisitor visitor) throws IOException {
+        try (final FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            final byte[] firstLine = LineRecords.readFirstLine(channel);
+            final SegmentDictionary dictionary = SegmentDictionary.isDictionaryLine(firstLine, 0, firstLine.length)
+                    ? SegmentDictionary.parse(firstLine, 0, firstLine.length)
+                    : null;
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            long readPosition = Objects.nonNull(dictionary) ? firstLine.length + 1 : 0;
+            long bufferStart = readPosition;
+            int read;
+            while ((read = channel.read(buffer, readPosition)) > 0) {
+                readPosition += read;
+                buffer.flip();
+                int lineStart = 0;
+                for (int i = 0; i < buffer.limit(); i++) {
+                    if (buffer.get(i) == LINE_SEPARATOR) {
+                        if (i > lineStart) {
+                            visitor.visit(LogEventCodec.decode(buffer.array(), lineStart, i - lineStart, dictionary), bufferStart + lineStart, 0);
+                        }
+                        lineStart = i + 1;
+                    }
+                }
+                buffer.position(lineStart);
+                buffer.compact();
+                bufferStart += lineStart;
+                if (!buffer.hasRemaining()) {
+                    final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffer.flip();
+                    buffer = larger.put(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads each located line straight from its offset, through one channel.
+     */
+    @Override
+    public List<LogEvent> read(File segment, List<SegmentLocation> locations) throws IOException {
+        try (final FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            final byte[] firstLine = LineRecords.readFirstLine(channel);
+            final SegmentDictionary dictionary = SegmentDictionary.isDictionaryLine(firstLine, 0, firstLine.length)
+                    ? SegmentDictionary.parse(firstLine, 0, firstLine.length)
+                    : null;
+            final List<LogEvent> events = new ArrayList<>(locations.size());
+            for (SegmentLocation location : locations.stream().sorted(SegmentLocation.SEGMENT_ORDER).toList()) {
+                final byte[] line = LineRecords.readLine(channel, location.offset());
+                if (line.length > 0) {
+                    events.add(LogEventCodec.decode(line, 0, line.length, dictionary));
+                }
+            }
+            return events;
+        }
+    }
+
+    private boolean hasDictionary(FileChannel channel) throws IOException {
+        final byte[] firstLine = LineRecords.readFirstLine(channel);
+        return SegmentDictionary.isDictionaryLine(firstLine, 0, firstLine.length);
+    }
+
+    private long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        while (position < size) {
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LINE_SEPARATOR) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+            buffer.clear();
+        }
+        return size;
+    }
+}
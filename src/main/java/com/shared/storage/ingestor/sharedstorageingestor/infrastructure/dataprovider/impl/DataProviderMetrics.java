@@ -0,0 +1,132 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters of {@link SharedStorageDataProvider}. Latencies are published with percentile histograms so that
+ * Prometheus can aggregate quantiles across instances; stripe gauges are registered while the stripe is owned.
+ */
+final class DataProviderMetrics {
+    private static final String PREFIX = "telemetry.storage.";
+    private final MeterRegistry meterRegistry;
+    private final Timer persistTimer;
+    private final Timer bulkPersistTimer;
+    private final Counter persistFailures;
+    private final DistributionSummary groupCommitRecords;
+    private final Timer lockAcquired;
+    private final Timer lockBusy;
+    private final Timer sealTimer;
+    private final DistributionSummary sealedRecords;
+    private final DistributionSummary sealedBytes;
+    private final Map<LogStripe, List<Meter.Id>> stripeGauges = new ConcurrentHashMap<>();
+    private final AtomicLong debugSample = new AtomicLong();
+    private final long debugSampleRate;
+
+    DataProviderMetrics(MeterRegistry meterRegistry, long debugSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.debugSampleRate = Math.max(1L, debugSampleRate);
+        this.persistTimer = latency("persist", "Time until persisted records are durably appended", Tags.of("kind", "single"));
+        this.bulkPersistTimer = latency("persist", "Time until persisted records are durably appended", Tags.of("kind", "bulk"));
+        this.persistFailures = Counter.builder(PREFIX + "persist.failures")
+                .description("Records that could not be serialized or appended")
+                .register(meterRegistry);
+        this.groupCommitRecords = DistributionSummary.builder(PREFIX + "group.commit.records")
+                .description("Records appended per group commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.lockAcquired = latency("lock.acquisition", "Time spent acquiring a log file lock", Tags.of("outcome", "acquired"));
+        this.lockBusy = latency("lock.acquisition", "Time spent acquiring a log file lock", Tags.of("outcome", "busy"));
+        this.sealTimer = latency("seal", "Time spent sealing a log file into a batch segment", Tags.empty());
+        this.sealedRecords = DistributionSummary.builder(PREFIX + "seal.records")
+                .description("Records per sealed batch segment")
+                .register(meterRegistry);
+        this.sealedBytes = DistributionSummary.builder(PREFIX + "seal.bytes")
+                .description("Bytes per sealed batch segment")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    void persisted(Timer.Sample sample, boolean bulk) {
+        sample.stop(bulk ? bulkPersistTimer : persistTimer);
+    }
+
+    void persistFailed(int records) {
+        persistFailures.increment(records);
+    }
+
+    void groupCommitted(int records) {
+        groupCommitRecords.record(records);
+    }
+
+    void lockAttempted(Timer.Sample sample, boolean acquired) {
+        sample.stop(acquired ? lockAcquired : lockBusy);
+    }
+
+    void sealed(Timer.Sample sample, int records, long bytes) {
+        sample.stop(sealTimer);
+        sealedRecords.record(records);
+        sealedBytes.record(bytes);
+    }
+
+    /**
+     * @return whether the current event should be logged at debug level
+     */
+    boolean sampleDebug() {
+        return debugSample.getAndIncrement() % debugSampleRate == 0;
+    }
+
+    void registerStripe(LogStripe stripe, String role) {
+        final Tags tags = Tags.of("stripe", stripe.getUuid().toString(), "role", role);
+        stripeGauges.put(stripe, List.of(
+                Gauge.builder(PREFIX + "stripe.records", stripe, LogStripe::getEntryCount)
+                        .description("Records appended to the log file since it was last sealed")
+                        .tags(tags)
+                        .register(meterRegistry).getId(),
+                Gauge.builder(PREFIX + "stripe.bytes", stripe, LogStripe::getEntryBytes)
+                        .description("Record bytes appended to the log file since it was last sealed")
+                        .baseUnit("bytes")
+                        .tags(tags)
+                        .register(meterRegistry).getId(),
+                Gauge.builder(PREFIX + "stripe.file.size", stripe, owned -> owned.getFile().length())
+                        .description("Size of the log file on the shared storage")
+                        .baseUnit("bytes")
+                        .tags(tags)
+                        .register(meterRegistry).getId(),
+                Gauge.builder(PREFIX + "stripe.age", stripe, owned -> owned.getEntryCount() == 0 ? 0 : owned.getAgeMillis())
+                        .description("Age of the oldest unsealed record in the log file")
+                        .baseUnit("milliseconds")
+                        .tags(tags)
+                        .register(meterRegistry).getId()));
+    }
+
+    void unregisterStripe(LogStripe stripe) {
+        final List<Meter.Id> ids = stripeGauges.remove(stripe);
+        if (Objects.nonNull(ids)) {
+            ids.forEach(meterRegistry::remove);
+        }
+    }
+
+    private Timer latency(String name, String description, Tags tags) {
+        return Timer.builder(PREFIX + name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
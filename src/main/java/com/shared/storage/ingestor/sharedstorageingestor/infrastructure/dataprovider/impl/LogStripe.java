@@ -0,0 +1,173 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.SegmentDictionary;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.commit.GroupCommitWriter;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.commit.WriterTask;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.LineRecordChannel;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl.BlockCompressedSegmentFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl.BlockSegmentWriter;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorage;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public final class LogStripe implements Closeable {
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    @Getter
+    private final File file;
+    @Getter
+    private final UUID uuid;
+    private final RandomAccessFile randomAccessFile;
+    private final LogStorage logStorage;
+    private GroupCommitWriter groupCommitWriter;
+    @Getter
+    private volatile int entryCount;
+    @Getter
+    private volatile long entryBytes;
+    private volatile long firstEntryNanos;
+
+    LogStripe(File file, UUID uuid, RandomAccessFile randomAccessFile, LogStorage logStorage) throws IOException {
+        this.file = file;
+        this.uuid = uuid;
+        this.randomAccessFile = randomAccessFile;
+        this.logStorage = logStorage;
+        final long discarded = logStorage.recover();
+        if (discarded > 0) {
+            log.warn("Discarded {} bytes of torn records at the tail of {}", discarded, file.getAbsolutePath());
+        }
+        this.entryCount = logStorage.count();
+        this.entryBytes = entryCount > 0 ? logStorage.size() : 0L;
+        this.firstEntryNanos = System.nanoTime();
+    }
+
+    void start(TelemetryConfiguration.GroupCommit groupCommit, StripeListener listener) {
+        this.groupCommitWriter = new GroupCommitWriter("group-commit-".concat(uuid.toString()), logStorage,
+                groupCommit.getFsyncPolicy(), groupCommit.getFsyncIntervalMillis(), groupCommit.getMaxRecords(),
+                (records, bytes) -> listener.onAppend(this, records, bytes));
+    }
+
+    CompletableFuture<Void> submit(byte[] record) {
+        return groupCommitWriter.submit(record);
+    }
+
+    CompletableFuture<Void> execute(WriterTask task) {
+        return groupCommitWriter.execute(task);
+    }
+
+    long getAgeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstEntryNanos);
+    }
+
+    void addEntries(int records, long bytes) {
+        if (entryCount == 0) {
+            firstEntryNanos = System.nanoTime();
+        }
+        entryCount += records;
+        entryBytes += bytes;
+        log.debug("Appended {} records on file {}", records, file.getAbsolutePath());
+    }
+
+    void exportTo(File target) throws IOException {
+        logStorage.export(target, groupCommitWriter.isSyncRequired());
+    }
+
+    void exportTo(File target, BlockCompressedSegmentFormat segmentFormat) throws IOException {
+        try (final BlockSegmentWriter writer = segmentFormat.openWriter(target, groupCommitWriter.isSyncRequired())) {
+            logStorage.transferTo(writer);
+        }
+    }
+
+    void exportTo(File target, SegmentDictionary.Builder dictionaryBuilder) throws IOException {
+        try (final FileChannel channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            exportEncoded(channel, dictionaryBuilder);
+            if (groupCommitWriter.isSyncRequired()) {
+                channel.force(false);
+            }
+        }
+    }
+
+    void exportTo(File target, BlockCompressedSegmentFormat segmentFormat, SegmentDictionary.Builder dictionaryBuilder) throws IOException {
+        try (final BlockSegmentWriter writer = segmentFormat.openWriter(target, groupCommitWriter.isSyncRequired())) {
+            exportEncoded(writer, dictionaryBuilder);
+        }
+    }
+
+    /**
+     * Makes two passes over the log file: the first collects the dictionary, the second writes its line followed by
+     * every record re-encoded against it.
+     */
+    private void exportEncoded(WritableByteChannel target, SegmentDictionary.Builder dictionaryBuilder) throws IOException {
+        try (final LineRecordChannel records = new LineRecordChannel((bytes, offset, length) -> dictionaryBuilder.add(LogEventCodec.decode(bytes, offset, length)))) {
+            logStorage.transferTo(records);
+        }
+        final SegmentDictionary dictionary = dictionaryBuilder.build();
+        final ByteBuffer output = ByteBuffer.allocate(EXPORT_BUFFER_SIZE);
+        writeLine(target, output, ByteBuffer.wrap(dictionary.toLine()));
+        try (final LineRecordChannel records = new LineRecordChannel((bytes, offset, length) ->
+                writeLine(target, output, LogEventCodec.encode(LogEventCodec.decode(bytes, offset, length), dictionary)))) {
+            logStorage.transferTo(records);
+        }
+        flush(target, output);
+    }
+
+    private static void writeLine(WritableByteChannel target, ByteBuffer output, ByteBuffer line) throws IOException {
+        if (output.remaining() <= line.remaining()) {
+            flush(target, output);
+        }
+        if (output.remaining() <= line.remaining()) {
+            writeFully(target, line);
+            writeFully(target, ByteBuffer.wrap(new byte[]{LINE_SEPARATOR}));
+            return;
+        }
+        output.put(line).put(LINE_SEPARATOR);
+    }
+
+    private static void flush(WritableByteChannel target, ByteBuffer output) throws IOException {
+        writeFully(target, output.flip());
+        output.clear();
+    }
+
+    private static void writeFully(WritableByteChannel target, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            target.write(source);
+        }
+    }
+
+    void clear(boolean sync) throws IOException {
+        logStorage.clear();
+        if (sync) {
+            logStorage.force();
+        }
+        entryCount = 0;
+        entryBytes = 0L;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(groupCommitWriter)) {
+            groupCommitWriter.close();
+        }
+        randomAccessFile.close();
+    }
+
+    @FunctionalInterface
+    interface StripeListener {
+        void onAppend(LogStripe stripe, int records, long bytes) throws IOException;
+    }
+}
@@ -1,181 +1,510 @@
 package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.event.BatchExportedEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.event.BatchSealedEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
 import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.DataProvider;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.SegmentDictionary;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.commit.FsyncPolicy;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.BlockCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl.BlockCompressedSegmentFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.index.SegmentIndexStore;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.seal.SealingPolicy;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.segment.SegmentEntry;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.segment.SegmentManifest;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorageFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Repository;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-
-import static com.shared.storage.ingestor.sharedstorageingestor.service.AbstractBatchTelemetryDataPipeline.BATCH_LIMIT;
+import java.util.stream.Stream;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public final class SharedStorageDataProvider implements DataProvider {
 
-    private static final String LOG_DIR = "C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\log";
-    private static final String BATCH_DIR = "C:\\Users\\Natan\\dev\\projects\\shared-storage-ingestor\\batch";
     private static final String READ_WRITE_MODE = "rw";
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    private static final long EMPTY_FILE_LENGTH = 2L;
     private static final String LOG_FILE_PREFIX = "log-events-";
     private static final String BATCH_FILE_PREFIX = "batch-";
-    private static final String JSON_FILE_TYPE = ".json";
-    private static final byte[] EMPTY_ARRAY = "[]".getBytes();
-    private RandomAccessFile randomAccessFile;
-    private File lockedFile;
+    private static final String MANIFEST_FILE_PREFIX = "manifest-";
+    private static final String MANIFEST_FILE_TYPE = ".ndjson";
+    private static final String TEMP_FILE_TYPE = ".tmp";
+    private static final String SEQUENCE_FORMAT = "%012d";
+    private static final String OWNED_STRIPE_ROLE = "owned";
+    private static final String ORPHAN_STRIPE_ROLE = "orphan";
+    private static final String FALLBACK_STORAGE_ENGINE = "channel";
+    private static final String NO_COMPRESSION = "none";
+    private final ApplicationContext applicationContext;
+    private final TelemetryConfiguration telemetryConfiguration;
+    private final MeterRegistry meterRegistry;
+    @Getter
+    private StorageFormat storageFormat;
+    @Getter
+    private SegmentFormat segmentFormat;
+    private LogStorageFactory logStorageFactory;
+    private boolean dictionaryEncoding;
+    private SegmentIndexStore segmentIndexStore;
+    private final List<LogStripe> stripes = new ArrayList<>();
+    private final AtomicInteger nextStripe = new AtomicInteger();
+    private final ThreadLocal<Integer> stripeIndex = ThreadLocal.withInitial(() -> Math.floorMod(nextStripe.getAndIncrement(), stripes.size()));
+    private final Map<UUID, SegmentManifest> manifests = new ConcurrentHashMap<>();
+    private final Map<UUID, LogStripe> orphanStripes = new ConcurrentHashMap<>();
+    private SealingPolicy sealingPolicy;
+    private DataProviderMetrics metrics;
+    private String logDir;
+    private String batchDir;
     @Getter
     private UUID uuid;
 
     @PostConstruct
     public final void initialize() {
-        this.lockedFile = findOrCreateLockFile();
+        this.storageFormat = resolveStorageFormat();
+        this.sealingPolicy = new SealingPolicy(telemetryConfiguration.getSealing());
+        this.metrics = new DataProviderMetrics(meterRegistry, telemetryConfiguration.getLogging().getDebugSampleRate());
+        this.logDir = telemetryConfiguration.getStorage().getLogDir();
+        this.batchDir = telemetryConfiguration.getStorage().getBatchDir();
+        this.logStorageFactory = resolveLogStorageFactory();
+        this.segmentFormat = resolveSegmentFormat();
+        this.dictionaryEncoding = resolveDictionaryEncoding();
+        if (resolveIndexing()) {
+            this.segmentIndexStore = new SegmentIndexStore(telemetryConfiguration.getIndex(), segmentFormat, batchDir, isSyncRequired(), meterRegistry);
+        }
+        lockStripes(Math.max(1, telemetryConfiguration.getStripes()));
+        this.uuid = stripes.get(0).getUuid();
+        stripes.forEach(stripe -> manifests.put(stripe.getUuid(), openManifest(stripe)));
+        stripes.forEach(stripe -> stripe.start(telemetryConfiguration.getGroupCommit(), this::sealIfPolicyReached));
+        stripes.forEach(stripe -> metrics.registerStripe(stripe, OWNED_STRIPE_ROLE));
+    }
+
+    @PreDestroy
+    public final void shutdown() {
+        stripes.forEach(this::closeStripe);
+        orphanStripes.values().forEach(this::closeStripe);
     }
 
     @Override
     public final void persist(Serializable data) {
+        validateLockedFile();
+        final LogStripe stripe = route();
+        final Timer.Sample sample = metrics.start();
         try {
-            validateLockedFile();
-            appendData(data);
-            exportIfBatchSizeReached();
-        } catch (IOException e) {
-            log.error("Error while appending {} on {}", data, lockedFile.getAbsolutePath(), e);
+            appendData(stripe, data);
+            metrics.persisted(sample, false);
+            if (log.isDebugEnabled() && metrics.sampleDebug()) {
+                log.debug("Persisted {} on {}", data, stripe.getFile().getAbsolutePath());
+            }
+        } catch (IOException | CompletionException e) {
+            metrics.persistFailed(1);
+            log.error("Error while appending {} on {}", data, stripe.getFile().getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public final BitSet persist(Collection<? extends Serializable> data) {
+        validateLockedFile();
+        final LogStripe stripe = route();
+        final Timer.Sample sample = metrics.start();
+        final List<CompletableFuture<Void>> acknowledgements = new ArrayList<>(data.size());
+        for (Serializable item : data) {
+            try {
+                acknowledgements.add(stripe.submit(serialize(item)));
+            } catch (IOException e) {
+                acknowledgements.add(CompletableFuture.failedFuture(e));
+                log.error("Error while serializing {} for {}", item, stripe.getFile().getAbsolutePath(), e);
+            }
+        }
+        final BitSet persisted = new BitSet(data.size());
+        for (int i = 0; i < acknowledgements.size(); i++) {
+            try {
+                acknowledgements.get(i).join();
+                persisted.set(i);
+            } catch (CompletionException e) {
+                log.error("Error while appending a bulk record on {}", stripe.getFile().getAbsolutePath(), e);
+            }
+        }
+        metrics.persisted(sample, true);
+        if (persisted.cardinality() < data.size()) {
+            metrics.persistFailed(data.size() - persisted.cardinality());
+        }
+        if (log.isDebugEnabled() && metrics.sampleDebug()) {
+            log.debug("Persisted {} of {} records on {}", persisted.cardinality(), data.size(), stripe.getFile().getAbsolutePath());
         }
+        return persisted;
+    }
+
+    /**
+     * Submits records serialized by {@link #serialize(Serializable)} without waiting for them, for callers that bound
+     * how long they wait on the shared storage.
+     */
+    List<CompletableFuture<Void>> submit(List<byte[]> records) {
+        validateLockedFile();
+        final LogStripe stripe = route();
+        final List<CompletableFuture<Void>> acknowledgements = new ArrayList<>(records.size());
+        records.forEach(record -> acknowledgements.add(stripe.submit(record)));
+        return acknowledgements;
+    }
+
+    boolean isSyncRequired() {
+        return telemetryConfiguration.getGroupCommit().getFsyncPolicy() != FsyncPolicy.NONE;
     }
 
     @Override
     public Integer count() {
+        return stripes.stream().mapToInt(LogStripe::getEntryCount).sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void exportPendingSegments() {
+        stripes.forEach(stripe -> exportPendingSegments(stripe.getUuid()));
+    }
+
+    public void recoverOrphans() {
+        retireDrainedOrphans();
+        final List<File> candidates = getExistingLogFiles()
+                .stream()
+                .filter(file -> !isOwned(getUniqueIdentifier(file)))
+                .collect(Collectors.toList());
+        Collections.shuffle(candidates);
+        int claims = 0;
+        for (File file : candidates) {
+            if (claims >= telemetryConfiguration.getCoordination().getMaxClaimsPerScan()) {
+                break;
+            }
+            final Optional<LogStripe> orphan = tryLockFile(file);
+            if (orphan.isPresent()) {
+                adoptOrphan(orphan.get());
+                claims++;
+            }
+        }
+    }
+
+    public void acknowledgeExport(UUID writerId, long sequence) throws IOException {
+        final SegmentManifest manifest = manifests.get(writerId);
+        if (Objects.nonNull(manifest)) {
+            manifest.exported(sequence);
+        }
+        for (String extension : getSegmentFileExtensions()) {
+            retireSegment(getSegmentFile(writerId, sequence, extension));
+        }
+    }
+
+    /**
+     * Looks up sealed events by the value of an indexed field, see {@link SegmentIndexStore}.
+     */
+    public List<LogEvent> findEvents(String field, String value) throws IOException {
+        if (Objects.isNull(segmentIndexStore)) {
+            throw new IllegalStateException("Segment indexing is disabled");
+        }
+        return segmentIndexStore.find(field, value);
+    }
+
+    @EventListener
+    public void onBatchExported(BatchExportedEvent event) {
         try {
-            randomAccessFile.seek(0);
-            final byte[] fileContent = readFileContent();
-            return OBJECT_MAPPER.readTree(fileContent).size();
+            acknowledgeExport(event.batchId(), event.sequence());
         } catch (IOException e) {
-            throw new RuntimeException("Error counting entries in file", e);
+            log.error("Error while acknowledging the export of batch segment {} {}", event.batchId(), event.sequence(), e);
         }
     }
 
-    private void exportIfBatchSizeReached() throws IOException {
-        if (count() >= BATCH_LIMIT) {
-            if (batchFileExists()) {
-                appendBatchFile();
-            } else {
-                createBatchFile();
+    /**
+     * Also publishes again the segments still pending export, so that the ones the export scheduler left behind while
+     * it was saturated are picked up by the next pass.
+     */
+    public void sealExpiredBatches() {
+        stripes.forEach(stripe -> stripe.execute(() -> sealIfPolicyReached(stripe)));
+        manifests.keySet().forEach(this::exportPendingSegments);
+    }
+
+    private void adoptOrphan(LogStripe stripe) {
+        log.info("Claimed orphaned log file {}", stripe.getFile().getAbsolutePath());
+        manifests.put(stripe.getUuid(), openManifest(stripe));
+        orphanStripes.put(stripe.getUuid(), stripe);
+        exportPendingSegments(stripe.getUuid());
+        stripe.start(telemetryConfiguration.getGroupCommit(), this::sealIfPolicyReached);
+        metrics.registerStripe(stripe, ORPHAN_STRIPE_ROLE);
+        stripe.execute(() -> {
+            if (stripe.getEntryCount() > 0) {
+                sealBatch(stripe);
+            }
+        });
+    }
+
+    private void retireDrainedOrphans() {
+        orphanStripes.values().removeIf(stripe -> {
+            final SegmentManifest manifest = manifests.get(stripe.getUuid());
+            if (stripe.getEntryCount() > 0 || !manifest.getPendingSegments().isEmpty()) {
+                return false;
             }
-            clearLogEvents();
+            try {
+                manifest.delete();
+                manifests.remove(stripe.getUuid());
+                metrics.unregisterStripe(stripe);
+                final boolean deletedWhileLocked = deleteLockedFile(stripe.getFile());
+                closeStripe(stripe);
+                if (!deletedWhileLocked) {
+                    Files.deleteIfExists(stripe.getFile().toPath());
+                }
+                log.info("Retired orphaned log file {}", stripe.getFile().getAbsolutePath());
+            } catch (IOException e) {
+                log.error("Error while retiring {}", stripe.getFile().getAbsolutePath(), e);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Deletes a log file while its lock is still held, so no other instance can claim it between the release and the
+     * delete. Platforms that refuse to delete an open file leave it to be deleted once closed.
+     */
+    private boolean deleteLockedFile(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+            return true;
+        } catch (IOException e) {
+            log.debug("Could not delete {} while it is open, deleting it once closed", file.getAbsolutePath(), e);
+            return false;
         }
     }
 
-    private void appendBatchFile() throws IOException {
-        final File file = new File(BATCH_DIR, BATCH_FILE_PREFIX.concat(uuid.toString()).concat(JSON_FILE_TYPE));
-        try (final RandomAccessFile batchAccessFile = new RandomAccessFile(file, READ_WRITE_MODE)) {
-            batchAccessFile.seek(batchAccessFile.length() - 1);
-            randomAccessFile.seek(0);
-            final String content = ",\n".concat(new String(readFileContent()).replace("[", ""));
-            batchAccessFile.writeBytes(content);
+    private boolean isOwned(UUID writerId) {
+        return orphanStripes.containsKey(writerId) || stripes.stream().anyMatch(stripe -> stripe.getUuid().equals(writerId));
+    }
+
+    private void exportPendingSegments(UUID writerId) {
+        manifests.get(writerId).getPendingSegments().forEach(entry -> publishSealedSegment(writerId, entry));
+    }
+
+    private void closeStripe(LogStripe stripe) {
+        try {
+            stripe.close();
+        } catch (IOException e) {
+            log.error("Error while closing {}", stripe.getFile().getAbsolutePath(), e);
         }
     }
 
-    private boolean batchFileExists() {
-        return Files.exists(Path.of(BATCH_DIR.concat("\\".concat(BATCH_FILE_PREFIX.concat(uuid.toString()).concat(JSON_FILE_TYPE)))));
+    /**
+     * Assigns stripes to calling threads round-robin on their first call, so a thread keeps appending to one file.
+     */
+    private LogStripe route() {
+        return stripes.get(stripeIndex.get());
+    }
+
+    private void sealIfPolicyReached(LogStripe stripe, int appendedRecords, long appendedBytes) throws IOException {
+        stripe.addEntries(appendedRecords, appendedBytes);
+        metrics.groupCommitted(appendedRecords);
+        sealIfPolicyReached(stripe);
+    }
+
+    private void sealIfPolicyReached(LogStripe stripe) throws IOException {
+        if (sealingPolicy.shouldSeal(stripe.getEntryCount(), stripe.getEntryBytes(), stripe.getAgeMillis())) {
+            sealBatch(stripe);
+        }
     }
 
     private void validateLockedFile() {
-        if (Objects.isNull(lockedFile)) {
+        if (stripes.isEmpty()) {
             throw new IllegalStateException("No locked files available.");
         }
     }
 
-    private <T extends Serializable> void appendData(T logData) throws IOException {
-        final String json = OBJECT_MAPPER.writeValueAsString(logData);
-        final long fileLength = randomAccessFile.length();
-        randomAccessFile.seek(fileLength - 1);
-        String dataToAppend = prepareDataForAppend(json, fileLength);
-        randomAccessFile.writeBytes(dataToAppend);
-        log.info("Data {} appended on file {}", logData, lockedFile.getAbsolutePath());
+    private <T extends Serializable> void appendData(LogStripe stripe, T logData) throws IOException {
+        stripe.submit(serialize(logData)).join();
     }
 
-    private String prepareDataForAppend(String logData, long fileLength) {
-        if (fileLength == EMPTY_FILE_LENGTH) {
-            return "\n" + logData + "\n]";
-        } else {
-            return ",\n" + logData + "\n]";
+    static byte[] serialize(Serializable data) throws IOException {
+        if (data instanceof LogEvent logEvent) {
+            return LogEventCodec.encodeToBytes(logEvent);
+        }
+        return OBJECT_MAPPER.writeValueAsBytes(data);
+    }
+
+    private void lockStripes(int stripeCount) {
+        for (File file : getExistingLogFiles()) {
+            if (stripes.size() >= stripeCount) {
+                break;
+            }
+            tryLockFile(file).ifPresent(stripes::add);
         }
+        while (stripes.size() < stripeCount) {
+            stripes.add(lockFile(createLogFile()));
+        }
+    }
+
+    private StorageFormat resolveStorageFormat() {
+        final String format = telemetryConfiguration.getStorageFormat();
+        final String suffix = StorageFormat.class.getSimpleName();
+        if (!applicationContext.containsBean(format.concat(suffix))) {
+            final List<String> formats = Stream.of(applicationContext.getBeanNamesForType(StorageFormat.class))
+                    .filter(name -> name.endsWith(suffix))
+                    .map(name -> name.substring(0, name.length() - suffix.length()))
+                    .sorted()
+                    .toList();
+            throw new IllegalStateException("Unknown storage format " + format + ", expected one of " + formats
+                    + "; block-compressed batch segments are enabled through arsenal.nat.telemetry.compression.codec");
+        }
+        return applicationContext.getBean(format.concat(suffix), StorageFormat.class);
     }
 
-    private byte[] readFileContent() throws IOException {
-        final byte[] fileContent = new byte[(int) randomAccessFile.length()];
-        randomAccessFile.readFully(fileContent);
-        return fileContent;
+    private LogStorageFactory resolveLogStorageFactory() {
+        final String storageEngine = telemetryConfiguration.getStorageEngine();
+        final LogStorageFactory factory = getLogStorageFactory(storageEngine);
+        if (factory.isSupported(Path.of(logDir), storageFormat)) {
+            return factory;
+        }
+        log.warn("Storage engine {} is not supported on {}, falling back to {}", storageEngine, logDir, FALLBACK_STORAGE_ENGINE);
+        return getLogStorageFactory(FALLBACK_STORAGE_ENGINE);
+    }
+
+    private LogStorageFactory getLogStorageFactory(String storageEngine) {
+        return applicationContext.getBean(storageEngine.concat(LogStorageFactory.class.getSimpleName()), LogStorageFactory.class);
     }
 
-    private File findOrCreateLockFile() {
-        final File unlockedFile = getExistingLogFiles()
+    private SegmentFormat resolveSegmentFormat() {
+        final TelemetryConfiguration.Compression compression = telemetryConfiguration.getCompression();
+        if (NO_COMPRESSION.equals(compression.getCodec())) {
+            return storageFormat;
+        }
+        if (!storageFormat.isLineDelimited()) {
+            log.warn("Batch segment compression needs a line-delimited storage format, {} segments stay uncompressed", storageFormat.getFileExtension());
+            return storageFormat;
+        }
+        final Map<String, BlockCodec> codecs = applicationContext.getBeansOfType(BlockCodec.class).values()
                 .stream()
-                .filter(this::isFileUnlocked)
-                .findFirst()
-                .orElseGet(this::createLogFile);
-        return lockFile(unlockedFile);
+                .collect(Collectors.toMap(BlockCodec::getName, codec -> codec));
+        final BlockCodec codec = applicationContext.getBean(compression.getCodec().concat(BlockCodec.class.getSimpleName()), BlockCodec.class);
+        return new BlockCompressedSegmentFormat(storageFormat, codec, codecs, compression.getBlockBytes());
+    }
+
+    private boolean resolveDictionaryEncoding() {
+        final TelemetryConfiguration.Dictionary dictionary = telemetryConfiguration.getDictionary();
+        if (!dictionary.isEnabled()) {
+            return false;
+        }
+        if (!storageFormat.isLineDelimited()) {
+            log.warn("Dictionary encoding needs a line-delimited storage format, {} segments stay plain", storageFormat.getFileExtension());
+            return false;
+        }
+        // Fails startup on a field LogEvent does not have rather than at the first seal
+        SegmentDictionary.builder(dictionary.getFields(), dictionary.getMaxEntries());
+        return true;
+    }
+
+    private boolean resolveIndexing() {
+        if (!telemetryConfiguration.getIndex().isEnabled()) {
+            return false;
+        }
+        if (!storageFormat.isLineDelimited()) {
+            log.warn("Segment indexing needs a line-delimited storage format, {} segments are not indexed", storageFormat.getFileExtension());
+            return false;
+        }
+        return true;
+    }
+
+    private List<String> getSegmentFileExtensions() {
+        return Stream.of(segmentFormat.getFileExtension(), storageFormat.getFileExtension()).distinct().collect(Collectors.toList());
+    }
+
+    private String getLogFileExtension() {
+        return storageFormat.getFileExtension().concat(logStorageFactory.getFileSuffix());
     }
 
-    private void setUniqueIdentifier(File file) {
+    private UUID getUniqueIdentifier(File file) {
         final int UUID_START = 11;
         final int UUID_END = 47;
-        uuid = UUID.fromString(file.getName().substring(UUID_START, UUID_END));
+        return UUID.fromString(file.getName().substring(UUID_START, UUID_END));
     }
 
     private List<File> getExistingLogFiles() {
-        final File dir = new File(LOG_DIR);
+        final File dir = new File(logDir);
         if (!dir.exists() || !dir.isDirectory()) {
             try {
-                Files.createDirectories(Path.of(LOG_DIR));
+                Files.createDirectories(Path.of(logDir));
             } catch (IOException e) {
                 throw new RuntimeException("Logs directory could not be created: ", e);
             }
         }
-        return Arrays.stream(Objects.requireNonNull(dir.listFiles((d, name) -> name.startsWith(LOG_FILE_PREFIX) && name.endsWith(JSON_FILE_TYPE))))
+        return Arrays.stream(Objects.requireNonNull(dir.listFiles((d, name) -> name.startsWith(LOG_FILE_PREFIX) && name.endsWith(getLogFileExtension()))))
                 .collect(Collectors.toList());
     }
 
-    private boolean isFileUnlocked(File file) {
-        try (
-                final FileOutputStream fileOutputStream = new FileOutputStream(file, true);
-                final FileChannel channel = fileOutputStream.getChannel()
-        ) {
-            final FileLock lock = channel.tryLock();
-            if (Objects.nonNull(lock)) {
-                lock.release();
-                return true;
+    private Optional<LogStripe> tryLockFile(File file) {
+        RandomAccessFile randomAccessFile = null;
+        final Timer.Sample sample = metrics.start();
+        try {
+            randomAccessFile = new RandomAccessFile(file, READ_WRITE_MODE);
+            final FileLock lock = randomAccessFile.getChannel().tryLock();
+            if (Objects.nonNull(lock) && !file.exists()) {
+                log.debug("Log file {} was retired before it could be locked", file.getAbsolutePath());
+            } else if (Objects.nonNull(lock)) {
+                metrics.lockAttempted(sample, true);
+                log.info("Locked file {}", file.getAbsolutePath());
+                return Optional.of(new LogStripe(file, getUniqueIdentifier(file), randomAccessFile, logStorageFactory.open(randomAccessFile.getChannel(), storageFormat)));
+            }
+        } catch (IOException | OverlappingFileLockException ignored) {
+        }
+        metrics.lockAttempted(sample, false);
+        closeQuietly(randomAccessFile);
+        return Optional.empty();
+    }
+
+    private void closeQuietly(RandomAccessFile randomAccessFile) {
+        if (Objects.nonNull(randomAccessFile)) {
+            try {
+                randomAccessFile.close();
+            } catch (IOException ignored) {
             }
-        } catch (IOException ignored) {
         }
-        return false;
     }
 
     private File createLogFile() {
-        final File file = new File(LOG_DIR, LOG_FILE_PREFIX.concat(UUID.randomUUID().toString()).concat(JSON_FILE_TYPE));
+        final File file = new File(logDir, LOG_FILE_PREFIX.concat(UUID.randomUUID().toString()).concat(getLogFileExtension()));
         try {
-            Files.createDirectories(Path.of(LOG_DIR));
+            Files.createDirectories(Path.of(logDir));
             if (file.createNewFile()) {
-                addContent(file, EMPTY_ARRAY);
+                addContent(file, storageFormat.getEmptyContent());
                 return file;
             } else {
                 throw new IOException("Could not create log file: " + file.getAbsolutePath());
@@ -185,21 +514,112 @@ public final class SharedStorageDataProvider implements DataProvider {
         }
     }
 
-    private void createBatchFile() throws IOException {
-        final File file = new File(BATCH_DIR, BATCH_FILE_PREFIX.concat(uuid.toString()).concat(JSON_FILE_TYPE));
-        randomAccessFile.seek(0);
-        final byte[] content = readFileContent();
-        Files.createDirectories(Path.of(BATCH_DIR));
-        if (file.createNewFile()) {
-            addContent(file, content);
+    private void sealBatch(LogStripe stripe) throws IOException {
+        final Timer.Sample sample = metrics.start();
+        final SegmentManifest manifest = manifests.get(stripe.getUuid());
+        final long sequence = manifest.nextSequence();
+        final Path segmentFile = getSegmentFile(stripe.getUuid(), sequence).toPath();
+        final Path tempFile = segmentFile.resolveSibling(segmentFile.getFileName().toString().concat(TEMP_FILE_TYPE));
+        Files.createDirectories(segmentFile.getParent());
+        Files.deleteIfExists(tempFile);
+        final TelemetryConfiguration.Dictionary dictionary = telemetryConfiguration.getDictionary();
+        if (segmentFormat instanceof BlockCompressedSegmentFormat blockCompressedFormat && dictionaryEncoding) {
+            stripe.exportTo(tempFile.toFile(), blockCompressedFormat, SegmentDictionary.builder(dictionary.getFields(), dictionary.getMaxEntries()));
+        } else if (segmentFormat instanceof BlockCompressedSegmentFormat blockCompressedFormat) {
+            stripe.exportTo(tempFile.toFile(), blockCompressedFormat);
+        } else if (dictionaryEncoding) {
+            stripe.exportTo(tempFile.toFile(), SegmentDictionary.builder(dictionary.getFields(), dictionary.getMaxEntries()));
         } else {
-            throw new IOException("Could not create batch file: " + file.getAbsolutePath());
+            stripe.exportTo(tempFile.toFile());
         }
+        if (Objects.nonNull(segmentIndexStore)) {
+            segmentIndexStore.index(tempFile.toFile(), segmentFile.toFile());
+        }
+        Files.move(tempFile, segmentFile, StandardCopyOption.ATOMIC_MOVE);
+        final SegmentEntry entry = new SegmentEntry(sequence, segmentFile.toAbsolutePath().toString(),
+                stripe.getEntryCount(), stripe.getEntryBytes(), SegmentEntry.Status.SEALED);
+        manifest.sealed(entry);
+        stripe.clear(isSyncRequired());
+        manifest.cleared(sequence);
+        metrics.sealed(sample, entry.records(), entry.bytes());
+        publishSealedSegment(stripe.getUuid(), entry);
+    }
+
+    private void publishSealedSegment(UUID writerId, SegmentEntry entry) {
+        applicationContext.publishEvent(new BatchSealedEvent(writerId, entry.sequence(), entry.file(), entry.records()));
+    }
+
+    private File getSegmentFile(UUID writerId, long sequence) {
+        return getSegmentFile(writerId, sequence, segmentFormat.getFileExtension());
+    }
+
+    private File getSegmentFile(UUID writerId, long sequence, String extension) {
+        final String segmentName = BATCH_FILE_PREFIX.concat(writerId.toString()).concat("-").concat(String.format(SEQUENCE_FORMAT, sequence));
+        return new File(batchDir, segmentName.concat(extension));
     }
 
-    private void clearLogEvents() throws IOException {
-        randomAccessFile.setLength(0);
-        randomAccessFile.write(EMPTY_ARRAY);
+    private SegmentManifest openManifest(LogStripe stripe) {
+        final UUID writerId = stripe.getUuid();
+        try {
+            Files.createDirectories(Path.of(batchDir));
+            final File file = new File(batchDir, MANIFEST_FILE_PREFIX.concat(writerId.toString()).concat(MANIFEST_FILE_TYPE));
+            final SegmentManifest manifest = SegmentManifest.open(file, isSyncRequired());
+            adoptStraySegments(writerId, manifest);
+            completeInterruptedSeal(stripe, manifest);
+            return manifest;
+        } catch (IOException e) {
+            throw new RuntimeException("Segment manifest could not be opened: ", e);
+        }
+    }
+
+    /**
+     * A segment only becomes visible through an atomic rename once it holds every record of the log file, and the log
+     * file is only appended to again after the clear is recorded. A segment sealed after the last cleared sequence
+     * therefore means the process stopped in between, and clearing the log file again completes that seal without
+     * exporting its records twice.
+     */
+    private void completeInterruptedSeal(LogStripe stripe, SegmentManifest manifest) throws IOException {
+        final long lastSequence = manifest.getLastSequence();
+        if (lastSequence > manifest.getClearedSequence()) {
+            log.warn("Completing the interrupted seal of {} into segment {}", stripe.getFile().getAbsolutePath(), lastSequence);
+            stripe.clear(isSyncRequired());
+            manifest.cleared(lastSequence);
+        }
+    }
+
+    private void retireSegment(File segment) throws IOException {
+        if (Objects.nonNull(segmentIndexStore)) {
+            segmentIndexStore.archive(segment);
+        } else {
+            Files.deleteIfExists(segment.toPath());
+            Files.deleteIfExists(SegmentIndexStore.getIndexFile(segment).toPath());
+        }
+    }
+
+    private void adoptStraySegments(UUID writerId, SegmentManifest manifest) throws IOException {
+        final String segmentPrefix = BATCH_FILE_PREFIX.concat(writerId.toString()).concat("-");
+        final File[] files = new File(batchDir).listFiles((d, name) -> name.startsWith(segmentPrefix));
+        final long lastSequence = manifest.getLastSequence();
+        for (File file : Objects.requireNonNull(files)) {
+            final String name = file.getName();
+            if (name.endsWith(TEMP_FILE_TYPE)) {
+                Files.deleteIfExists(file.toPath());
+                continue;
+            }
+            final Optional<String> extension = getSegmentFileExtensions().stream().filter(name::endsWith).findFirst();
+            if (extension.isEmpty()) {
+                continue;
+            }
+            final long sequence = Long.parseLong(name.substring(segmentPrefix.length(), name.length() - extension.get().length()));
+            if (sequence > lastSequence) {
+                try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    manifest.sealed(new SegmentEntry(sequence, file.getAbsolutePath(), segmentFormat.count(channel), channel.size(), SegmentEntry.Status.SEALED));
+                }
+                log.info("Adopted stray batch segment {}", file.getAbsolutePath());
+            } else if (!manifest.isPending(sequence)) {
+                retireSegment(file);
+            }
+        }
     }
 
     private void addContent(File file, byte[] content) throws IOException {
@@ -208,15 +628,16 @@ public final class SharedStorageDataProvider implements DataProvider {
         }
     }
 
-    private File lockFile(File file) {
+    private LogStripe lockFile(File file) {
         try {
-            setUniqueIdentifier(file);
-            randomAccessFile = new RandomAccessFile(file, READ_WRITE_MODE);
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, READ_WRITE_MODE);
             final FileChannel fileChannel = randomAccessFile.getChannel();
+            final Timer.Sample sample = metrics.start();
             final FileLock lock = fileChannel.lock();
+            metrics.lockAttempted(sample, Objects.nonNull(lock));
             if (Objects.nonNull(lock)) {
                 log.info("Locked file {}", file.getAbsolutePath());
-                return file;
+                return new LogStripe(file, getUniqueIdentifier(file), randomAccessFile, logStorageFactory.open(fileChannel, storageFormat));
             } else {
                 throw new IOException("Could not lock file: " + file.getAbsolutePath());
             }
@@ -0,0 +1,359 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.DataProvider;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.tier.OffHeapRingBuffer;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.tier.SpillLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link DataProvider} that keeps request threads off the shared storage. Persisted records are serialized into an
+ * {@link OffHeapRingBuffer} and acknowledged at once; a flusher thread drains the ring through
+ * {@link SharedStorageDataProvider}, waiting at most {@code latency-threshold-millis} for each group. A group that
+ * takes longer, or fails, switches the flusher to the local {@link SpillLog}: from then on the ring is drained to local
+ * disk, and the late group is left to settle, its failed records being spilled after the others. Every probe interval
+ * the flusher replays the oldest spilled records to the shared storage under the same threshold, and goes back to
+ * flushing directly once the spill is empty, so records reach the shared storage in the order they were spilled.
+ * <p>
+ * An acknowledged record stays in memory until the flusher writes it to either tier, so a crash loses what the ring
+ * holds. Spilled records survive restarts and are replayed first; a replayed group that fails is replayed again, which
+ * may store some of its records twice.
+ */
+@Component
+@Primary
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "arsenal.nat.telemetry", name = "tiering.enabled", havingValue = "true")
+public final class TieredDataProvider implements DataProvider {
+    private static final String TIER_METRIC = "telemetry.tier";
+    private static final long IDLE_DRAIN_MILLIS = 100L;
+    private final SharedStorageDataProvider sharedStorageDataProvider;
+    private final TelemetryConfiguration telemetryConfiguration;
+    private final MeterRegistry meterRegistry;
+    private TelemetryConfiguration.Tiering tiering;
+    private OffHeapRingBuffer hotTier;
+    private SpillLog spillLog;
+    private Thread flusherThread;
+    private volatile boolean running;
+    private volatile boolean spilling;
+    private boolean replaying;
+    private Flush inFlight;
+    private long lastProbeNanos;
+    private Timer flushTimer;
+    private Counter flushedRecords;
+    private Counter spilledRecords;
+    private Counter replayedRecords;
+    private Counter rejectedRecords;
+    private Counter lostRecords;
+
+    @PostConstruct
+    public final void initialize() {
+        this.tiering = telemetryConfiguration.getTiering();
+        this.hotTier = new OffHeapRingBuffer(tiering.getHotTierBytes());
+        try {
+            this.spillLog = SpillLog.open(Path.of(tiering.getSpillDir()), tiering.getSpillSegmentBytes(), sharedStorageDataProvider.isSyncRequired());
+        } catch (IOException e) {
+            throw new RuntimeException("Spill directory could not be opened: ", e);
+        }
+        registerMetrics();
+        if (!spillLog.isEmpty()) {
+            log.info("Replaying {} bytes spilled to {} before the restart", spillLog.getPendingBytes(), tiering.getSpillDir());
+            this.spilling = true;
+            this.replaying = true;
+        }
+        this.running = true;
+        this.flusherThread = new Thread(this::run, "tier-flusher");
+        this.flusherThread.setDaemon(true);
+        this.flusherThread.start();
+    }
+
+    @PreDestroy
+    public final void shutdown() {
+        running = false;
+        try {
+            flusherThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            spillLog.close();
+        } catch (IOException e) {
+            log.error("Error while closing the spill log on {}", tiering.getSpillDir(), e);
+        }
+    }
+
+    @Override
+    public void persist(Serializable data) {
+        try {
+            if (!offer(SharedStorageDataProvider.serialize(data), deadline())) {
+                rejectedRecords.increment();
+                log.error("Hot tier is full, could not buffer {}", data);
+            }
+        } catch (IOException e) {
+            rejectedRecords.increment();
+            log.error("Error while serializing {}", data, e);
+        }
+    }
+
+    @Override
+    public BitSet persist(Collection<? extends Serializable> data) {
+        final long deadline = deadline();
+        final BitSet persisted = new BitSet(data.size());
+        int index = 0;
+        for (Serializable item : data) {
+            try {
+                if (offer(SharedStorageDataProvider.serialize(item), deadline)) {
+                    persisted.set(index);
+                }
+            } catch (IOException e) {
+                log.error("Error while serializing {}", item, e);
+            }
+            index++;
+        }
+        if (persisted.cardinality() < data.size()) {
+            rejectedRecords.increment(data.size() - persisted.cardinality());
+            log.error("Buffered only {} of {} records in the hot tier", persisted.cardinality(), data.size());
+        }
+        return persisted;
+    }
+
+    @Override
+    public Integer count() {
+        return sharedStorageDataProvider.count();
+    }
+
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(tiering.getOfferTimeoutMillis());
+    }
+
+    private boolean offer(byte[] record, long deadline) {
+        if (!running) {
+            return false;
+        }
+        try {
+            return hotTier.offer(record, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void run() {
+        final List<byte[]> drained = new ArrayList<>(tiering.getFlushMaxRecords());
+        while (running || hotTier.size() > 0) {
+            try {
+                settle(false);
+                hotTier.drainTo(drained, tiering.getFlushMaxRecords(), replaying ? 0L : IDLE_DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+                if (!drained.isEmpty()) {
+                    if (spilling) {
+                        spill(drained);
+                    } else {
+                        flush(List.copyOf(drained));
+                    }
+                    drained.clear();
+                }
+                if (running && spilling && Objects.isNull(inFlight) && (replaying || isProbeDue())) {
+                    replay();
+                }
+            } catch (InterruptedException e) {
+                log.debug("Tier flusher interrupted while idle");
+            }
+        }
+        settle(true);
+    }
+
+    private void flush(List<byte[]> records) {
+        final Flush flush = new Flush(records, sharedStorageDataProvider.submit(records), null, System.nanoTime());
+        if (await(flush)) {
+            complete(flush);
+        } else {
+            inFlight = flush;
+            startSpilling("shared storage took longer than " + tiering.getLatencyThresholdMillis() + " ms to take " + records.size() + " records");
+        }
+    }
+
+    /**
+     * Replays the oldest spilled records, one group per call so that the ring keeps being drained in between.
+     */
+    private void replay() {
+        lastProbeNanos = System.nanoTime();
+        final SpillLog.Chunk chunk;
+        try {
+            chunk = spillLog.read(tiering.getFlushMaxRecords());
+        } catch (IOException e) {
+            replaying = false;
+            log.error("Error while reading spilled records from {}", tiering.getSpillDir(), e);
+            return;
+        }
+        if (chunk.records().isEmpty()) {
+            recovered();
+            return;
+        }
+        final Flush flush = new Flush(chunk.records(), sharedStorageDataProvider.submit(chunk.records()), chunk, System.nanoTime());
+        if (await(flush)) {
+            complete(flush);
+        } else {
+            inFlight = flush;
+            replaying = false;
+            log.warn("Shared storage is still slow, pausing the replay of {}", chunk.file());
+        }
+    }
+
+    private boolean await(Flush flush) {
+        try {
+            CompletableFuture.allOf(flush.acknowledgements().toArray(CompletableFuture[]::new))
+                    .get(tiering.getLatencyThresholdMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ignored) {
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            return flush.isDone();
+        }
+        return true;
+    }
+
+    /**
+     * Completes the in-flight group once it settled, or waits for it when the flusher is stopping.
+     */
+    private void settle(boolean wait) {
+        if (Objects.isNull(inFlight) || (!wait && !inFlight.isDone())) {
+            return;
+        }
+        inFlight.acknowledgements().forEach(acknowledgement -> acknowledgement.handle((result, failure) -> null).join());
+        final Flush flush = inFlight;
+        inFlight = null;
+        complete(flush);
+    }
+
+    private void complete(Flush flush) {
+        flushTimer.record(System.nanoTime() - flush.startNanos(), TimeUnit.NANOSECONDS);
+        final List<byte[]> failed = flush.failedRecords();
+        if (Objects.isNull(flush.chunk())) {
+            flushedRecords.increment(flush.records().size() - failed.size());
+            if (!failed.isEmpty()) {
+                startSpilling(failed.size() + " records failed to reach the shared storage");
+                spill(failed);
+            }
+            return;
+        }
+        if (!failed.isEmpty()) {
+            replaying = false;
+            log.warn("{} replayed records failed to reach the shared storage, the replay of {} will be retried", failed.size(), flush.chunk().file());
+            return;
+        }
+        try {
+            spillLog.acknowledge(flush.chunk());
+            replayedRecords.increment(flush.records().size());
+        } catch (IOException e) {
+            log.error("Error while recording the replay of {}", flush.chunk().file(), e);
+        }
+        replaying = true;
+        if (spillLog.isEmpty()) {
+            recovered();
+        }
+    }
+
+    private void spill(List<byte[]> records) {
+        try {
+            spillLog.append(records);
+            spilledRecords.increment(records.size());
+        } catch (IOException e) {
+            lostRecords.increment(records.size());
+            log.error("Error while spilling {} records to {}", records.size(), tiering.getSpillDir(), e);
+        }
+    }
+
+    private void startSpilling(String reason) {
+        if (!spilling) {
+            log.warn("Spilling to {}: {}", tiering.getSpillDir(), reason);
+            spilling = true;
+        }
+        replaying = false;
+        lastProbeNanos = System.nanoTime();
+    }
+
+    private void recovered() {
+        log.info("Shared storage recovered, every spilled record was replayed");
+        spilling = false;
+        replaying = false;
+    }
+
+    private boolean isProbeDue() {
+        return System.nanoTime() - lastProbeNanos >= TimeUnit.MILLISECONDS.toNanos(tiering.getProbeIntervalMillis());
+    }
+
+    private void registerMetrics() {
+        Gauge.builder(TIER_METRIC + ".hot.bytes", hotTier, OffHeapRingBuffer::getUsedBytes)
+                .description("Bytes buffered in the off-heap hot tier")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(TIER_METRIC + ".hot.records", hotTier, OffHeapRingBuffer::size)
+                .description("Records buffered in the off-heap hot tier")
+                .register(meterRegistry);
+        Gauge.builder(TIER_METRIC + ".spill.bytes", spillLog, SpillLog::getPendingBytes)
+                .description("Spilled bytes waiting to be replayed to the shared storage")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(TIER_METRIC + ".spilling", this, provider -> provider.spilling ? 1 : 0)
+                .description("Whether records are being spilled to local disk")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(TIER_METRIC + ".flush")
+                .description("Time until a group drained from the hot tier settled on the shared storage")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushedRecords = recordCounter("flushed");
+        this.spilledRecords = recordCounter("spilled");
+        this.replayedRecords = recordCounter("replayed");
+        this.rejectedRecords = recordCounter("rejected");
+        this.lostRecords = recordCounter("lost");
+    }
+
+    private Counter recordCounter(String outcome) {
+        return Counter.builder(TIER_METRIC + ".records")
+                .description("Records handled by the tiered data provider")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Group submitted to the shared storage; {@code chunk} is set when the records are replayed from the spill.
+     */
+    private record Flush(List<byte[]> records, List<CompletableFuture<Void>> acknowledgements, SpillLog.Chunk chunk, long startNanos) {
+        private boolean isDone() {
+            return acknowledgements.stream().allMatch(CompletableFuture::isDone);
+        }
+
+        private List<byte[]> failedRecords() {
+            final List<byte[]> failed = new ArrayList<>();
+            for (int i = 0; i < records.size(); i++) {
+                if (acknowledgements.get(i).isCompletedExceptionally()) {
+                    failed.add(records.get(i));
+                }
+            }
+            return failed;
+        }
+    }
+}
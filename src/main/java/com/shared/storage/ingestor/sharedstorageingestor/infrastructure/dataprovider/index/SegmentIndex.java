@@ -0,0 +1,197 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.index;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentLocation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lookup index of one sealed segment, mapping the values of the indexed fields to the locations of their records.
+ * Keys are the field name and value joined by {@code '='}. The file holds a Bloom filter over the keys, the entries
+ * sorted by key and a footer with the first key and position of every block of {@value #BLOCK_ENTRIES} entries:
+ * <pre>
+ * magic (int) | filter length (int) | Bloom filter (Guava serial form) | entry count (int)
+ * entries     : key (modified UTF-8) | offset (long) | record (int)
+ * footer      : block count (int) | blocks : first key (modified UTF-8) | position (long)
+ * trailer     : footer position (long)
+ * </pre>
+ * An opened index keeps the filter and the footer in memory. When the filter reports a possible match, the footer is
+ * binary-searched for the block that may hold the first entry of the key, and the entries are read from there,
+ * stopping at the first key past the one searched.
+ */
+public final class SegmentIndex {
+    private static final int MAGIC = 0x53494458;
+    private static final int HEADER_SIZE = 8;
+    private static final int TRAILER_SIZE = Long.BYTES;
+    private static final int MAX_KEY_BYTES = 1024;
+    private static final int BLOCK_ENTRIES = 64;
+    private final Path file;
+    private final BloomFilter<CharSequence> filter;
+    private final int entries;
+    private final String[] blockKeys;
+    private final long[] blockPositions;
+
+    private SegmentIndex(Path file, BloomFilter<CharSequence> filter, int entries, String[] blockKeys, long[] blockPositions) {
+        this.file = file;
+        this.filter = filter;
+        this.entries = entries;
+        this.blockKeys = blockKeys;
+        this.blockPositions = blockPositions;
+    }
+
+    public static Builder builder(double falsePositiveRate) {
+        return new Builder(falsePositiveRate);
+    }
+
+    /**
+     * Reads the header, Bloom filter and footer of an index file.
+     */
+    public static SegmentIndex open(Path file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if (channel.size() < HEADER_SIZE + TRAILER_SIZE || input.readInt() != MAGIC) {
+                throw new IOException("Not a segment index " + file);
+            }
+            final byte[] filter = new byte[input.readInt()];
+            input.readFully(filter);
+            final int entries = input.readInt();
+            final ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+            channel.read(trailer, channel.size() - TRAILER_SIZE);
+            channel.position(trailer.flip().getLong());
+            final DataInputStream footer = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            final int blocks = footer.readInt();
+            final String[] blockKeys = new String[blocks];
+            final long[] blockPositions = new long[blocks];
+            for (int i = 0; i < blocks; i++) {
+                blockKeys[i] = footer.readUTF();
+                blockPositions[i] = footer.readLong();
+            }
+            return new SegmentIndex(file, BloomFilter.readFrom(new ByteArrayInputStream(filter), Funnels.stringFunnel(StandardCharsets.UTF_8)),
+                    entries, blockKeys, blockPositions);
+        }
+    }
+
+    public static String key(String field, String value) {
+        return field + '=' + value;
+    }
+
+    public List<SegmentLocation> find(String key) throws IOException {
+        final List<SegmentLocation> locations = new ArrayList<>();
+        if (!filter.mightContain(key) || blockKeys.length == 0) {
+            return locations;
+        }
+        final int block = findBlock(key);
+        try (final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            input.skipNBytes(blockPositions[block]);
+            for (int i = block * BLOCK_ENTRIES; i < entries; i++) {
+                final int comparison = input.readUTF().compareTo(key);
+                final long offset = input.readLong();
+                final int record = input.readInt();
+                if (comparison > 0) {
+                    break;
+                }
+                if (comparison == 0) {
+                    locations.add(new SegmentLocation(offset, record));
+                }
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * @return the last block whose first key sorts before the key, where the first entry of the key is, or the first
+     * block when there is none. A block starting with the key itself may follow entries of the key in the block before.
+     */
+    private int findBlock(String key) {
+        int low = 0;
+        int high = blockKeys.length - 1;
+        int block = 0;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (blockKeys[middle].compareTo(key) < 0) {
+                block = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return block;
+    }
+
+    private record Entry(String key, SegmentLocation location) {
+    }
+
+    public static final class Builder {
+        private final double falsePositiveRate;
+        private final List<Entry> entries = new ArrayList<>();
+
+        private Builder(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        /**
+         * Adds a key unless it is too long to be stored, in which case its record is left out of the index.
+         */
+        public void add(String key, long offset, int record) {
+            if (key.getBytes(StandardCharsets.UTF_8).length <= MAX_KEY_BYTES) {
+                entries.add(new Entry(key, new SegmentLocation(offset, record)));
+            }
+        }
+
+        public void writeTo(Path file, boolean sync) throws IOException {
+            entries.sort(Comparator.comparing(Entry::key));
+            final BloomFilter<CharSequence> filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                    Math.max(1, entries.size()), falsePositiveRate);
+            entries.forEach(entry -> filter.put(entry.key()));
+            final ByteArrayOutputStream serializedFilter = new ByteArrayOutputStream();
+            filter.writeTo(serializedFilter);
+            final List<String> blockKeys = new ArrayList<>(entries.size() / BLOCK_ENTRIES + 1);
+            final List<Long> blockPositions = new ArrayList<>(entries.size() / BLOCK_ENTRIES + 1);
+            try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(serializedFilter.size());
+                serializedFilter.writeTo(output);
+                output.writeInt(entries.size());
+                for (int i = 0; i < entries.size(); i++) {
+                    final Entry entry = entries.get(i);
+                    if (i % BLOCK_ENTRIES == 0) {
+                        blockKeys.add(entry.key());
+                        blockPositions.add((long) output.size());
+                    }
+                    output.writeUTF(entry.key());
+                    output.writeLong(entry.location().offset());
+                    output.writeInt(entry.location().record());
+                }
+                final long footerPosition = output.size();
+                output.writeInt(blockKeys.size());
+                for (int i = 0; i < blockKeys.size(); i++) {
+                    output.writeUTF(blockKeys.get(i));
+                    output.writeLong(blockPositions.get(i));
+                }
+                output.writeLong(footerPosition);
+            }
+            if (sync) {
+                try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.force(false);
+                }
+            }
+        }
+    }
+}
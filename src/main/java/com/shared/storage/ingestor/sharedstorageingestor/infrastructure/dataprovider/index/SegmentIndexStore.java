@@ -0,0 +1,244 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.index;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentLocation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Writes, keeps and searches the {@link SegmentIndex} of every sealed segment. An index is written next to its
+ * segment before the segment is published, so a visible segment always has one. Once exported, a segment moves to
+ * the archive directory together with its index instead of being deleted, and stays searchable until the retention
+ * period ends.
+ * <p>
+ * A search asks the Bloom filter of each index file, kept in memory after the first read, whether the key may be
+ * present; only the segments that pass have their entries read, and all their matching records are then fetched
+ * through one read of the segment. The listing of index files is reused between searches. It is refreshed when this
+ * store adds, archives or deletes a segment, and otherwise every {@value #LISTING_REFRESH_MILLIS} ms, which is how
+ * soon the segments sealed by other instances become searchable.
+ * <p>
+ * Only line-delimited segments locate their records by offset; the records of a JSON array segment are located
+ * from the start of the array, so the data provider does not index that format.
+ */
+@Slf4j
+public final class SegmentIndexStore {
+    public static final String INDEX_FILE_TYPE = ".idx";
+    private static final String TEMP_FILE_TYPE = ".tmp";
+    private static final String INDEX_METRIC = "telemetry.index";
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000L;
+    private static final long LISTING_REFRESH_MILLIS = 5_000L;
+    private final TelemetryConfiguration.Index indexing;
+    private final SegmentFormat segmentFormat;
+    private final Path batchDir;
+    private final Path archiveDir;
+    private final boolean sync;
+    private final Map<String, Integer> fieldIndexes = new LinkedHashMap<>();
+    private final Map<Path, SegmentIndex> openIndexes = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepMillis = new AtomicLong();
+    private volatile List<Path> indexFiles = List.of();
+    private volatile long listedMillis;
+    private volatile boolean listingStale = true;
+    private final Timer lookups;
+    private final Counter filteredSegments;
+    private final Counter searchedSegments;
+
+    public SegmentIndexStore(TelemetryConfiguration.Index index, SegmentFormat segmentFormat, String batchDir, boolean sync, MeterRegistry meterRegistry) {
+        this.indexing = index;
+        this.segmentFormat = segmentFormat;
+        this.batchDir = Path.of(batchDir);
+        this.archiveDir = Path.of(index.getArchiveDir());
+        this.sync = sync;
+        for (String field : index.getFields()) {
+            final int fieldIndex = LogEventCodec.fieldIndex(field);
+            if (fieldIndex < 0) {
+                throw new IllegalArgumentException("Log events have no field named " + field);
+            }
+            fieldIndexes.put(field, fieldIndex);
+        }
+        this.lookups = Timer.builder(INDEX_METRIC + ".lookup")
+                .description("Duration of indexed event lookups")
+                .register(meterRegistry);
+        this.filteredSegments = Counter.builder(INDEX_METRIC + ".segments")
+                .description("Segments considered by indexed lookups")
+                .tag("result", "filtered")
+                .register(meterRegistry);
+        this.searchedSegments = Counter.builder(INDEX_METRIC + ".segments")
+                .description("Segments considered by indexed lookups")
+                .tag("result", "searched")
+                .register(meterRegistry);
+    }
+
+    public static File getIndexFile(File segment) {
+        return new File(segment.getParentFile(), segment.getName().concat(INDEX_FILE_TYPE));
+    }
+
+    /**
+     * Indexes the records of {@code source}, a sealed segment not yet renamed to {@code segment}.
+     */
+    public void index(File source, File segment) throws IOException {
+        final SegmentIndex.Builder builder = SegmentIndex.builder(indexing.getFalsePositiveRate());
+        segmentFormat.scan(source, (logEvent, offset, record) -> fieldIndexes.forEach((field, fieldIndex) -> {
+            final String value = LogEventCodec.fieldValue(logEvent, fieldIndex);
+            if (Objects.nonNull(value)) {
+                builder.add(SegmentIndex.key(field, value), offset, record);
+            }
+        }));
+        final Path indexFile = getIndexFile(segment).toPath();
+        final Path tempFile = indexFile.resolveSibling(indexFile.getFileName().toString().concat(TEMP_FILE_TYPE));
+        builder.writeTo(tempFile, sync);
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        listingStale = true;
+    }
+
+    /**
+     * Moves an exported segment and its index to the archive directory, or deletes a segment that has no index.
+     */
+    public void archive(File segment) throws IOException {
+        final Path indexFile = getIndexFile(segment).toPath();
+        openIndexes.remove(indexFile);
+        listingStale = true;
+        if (!Files.exists(indexFile) || !segment.exists()) {
+            Files.deleteIfExists(segment.toPath());
+            Files.deleteIfExists(indexFile);
+            return;
+        }
+        Files.createDirectories(archiveDir);
+        Files.move(segment.toPath(), archiveDir.resolve(segment.getName()), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(indexFile, archiveDir.resolve(indexFile.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        sweepIfDue();
+    }
+
+    public boolean isIndexed(String field) {
+        return fieldIndexes.containsKey(field);
+    }
+
+    /**
+     * @return up to {@code max-results} events whose field holds the value, in segment order
+     */
+    public List<LogEvent> find(String field, String value) throws IOException {
+        final Integer fieldIndex = fieldIndexes.get(field);
+        if (Objects.isNull(fieldIndex)) {
+            throw new IllegalArgumentException("Field " + field + " is not indexed");
+        }
+        final Timer.Sample sample = Timer.start();
+        final String key = SegmentIndex.key(field, value);
+        final List<LogEvent> events = new ArrayList<>();
+        try {
+            for (Path indexFile : listIndexFiles()) {
+                if (events.size() >= indexing.getMaxResults()) {
+                    break;
+                }
+                try {
+                    search(indexFile, key, fieldIndex, value, events);
+                } catch (NoSuchFileException e) {
+                    listingStale = true;
+                    log.debug("Segment of {} was archived or deleted during the lookup", indexFile);
+                }
+            }
+            return events;
+        } finally {
+            sample.stop(lookups);
+        }
+    }
+
+    private void search(Path indexFile, String key, int fieldIndex, String value, List<LogEvent> events) throws IOException {
+        final SegmentIndex segmentIndex = openIndex(indexFile);
+        final List<SegmentLocation> locations = segmentIndex.find(key);
+        if (locations.isEmpty()) {
+            filteredSegments.increment();
+            return;
+        }
+        searchedSegments.increment();
+        final File segment = getSegmentFile(indexFile);
+        if (!segment.exists()) {
+            throw new NoSuchFileException(segment.getAbsolutePath());
+        }
+        final int wanted = Math.min(locations.size(), indexing.getMaxResults() - events.size());
+        for (LogEvent logEvent : segmentFormat.read(segment, locations.subList(0, wanted))) {
+            if (value.equals(LogEventCodec.fieldValue(logEvent, fieldIndex))) {
+                events.add(logEvent);
+            }
+        }
+    }
+
+    private SegmentIndex openIndex(Path indexFile) throws IOException {
+        SegmentIndex segmentIndex = openIndexes.get(indexFile);
+        if (Objects.isNull(segmentIndex)) {
+            segmentIndex = SegmentIndex.open(indexFile);
+            openIndexes.put(indexFile, segmentIndex);
+        }
+        return segmentIndex;
+    }
+
+    private List<Path> listIndexFiles() throws IOException {
+        final long now = System.currentTimeMillis();
+        if (!listingStale && now - listedMillis < LISTING_REFRESH_MILLIS) {
+            return indexFiles;
+        }
+        listingStale = false;
+        final List<Path> listing = new ArrayList<>();
+        for (Path dir : List.of(batchDir, archiveDir)) {
+            if (Files.isDirectory(dir)) {
+                try (final Stream<Path> files = Files.list(dir)) {
+                    files.filter(file -> file.getFileName().toString().endsWith(INDEX_FILE_TYPE)).forEach(listing::add);
+                }
+            }
+        }
+        listing.sort(Comparator.comparing(Path::getFileName));
+        final Set<Path> listed = new HashSet<>(listing);
+        openIndexes.keySet().removeIf(indexFile -> !listed.contains(indexFile));
+        indexFiles = List.copyOf(listing);
+        listedMillis = now;
+        return indexFiles;
+    }
+
+    private File getSegmentFile(Path indexFile) {
+        final String name = indexFile.getFileName().toString();
+        return indexFile.resolveSibling(name.substring(0, name.length() - INDEX_FILE_TYPE.length())).toFile();
+    }
+
+    /**
+     * Deletes archived segments past their retention, at most once per sweep interval.
+     */
+    private void sweepIfDue() {
+        final long now = System.currentTimeMillis();
+        final long last = lastSweepMillis.get();
+        if (now - last < SWEEP_INTERVAL_MILLIS || !lastSweepMillis.compareAndSet(last, now)) {
+            return;
+        }
+        final File[] files = archiveDir.toFile().listFiles();
+        Arrays.stream(Objects.requireNonNullElse(files, new File[0]))
+                .filter(file -> now - file.lastModified() > indexing.getRetentionMillis())
+                .forEach(file -> {
+                    openIndexes.remove(file.toPath());
+                    listingStale = true;
+                    if (!file.delete()) {
+                        log.warn("Could not delete expired archived segment file {}", file.getAbsolutePath());
+                    }
+                });
+    }
+}
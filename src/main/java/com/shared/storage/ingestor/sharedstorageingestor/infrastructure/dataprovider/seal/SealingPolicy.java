@@ -0,0 +1,19 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.seal;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+
+public final class SealingPolicy {
+    private final int maxRecords;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+
+    public SealingPolicy(TelemetryConfiguration.Sealing sealing) {
+        this.maxRecords = sealing.getMaxRecords();
+        this.maxBytes = sealing.getMaxBytes();
+        this.maxAgeMillis = sealing.getMaxAgeMillis();
+    }
+
+    public boolean shouldSeal(int records, long bytes, long ageMillis) {
+        return records > 0 && (records >= maxRecords || bytes >= maxBytes || ageMillis >= maxAgeMillis);
+    }
+}
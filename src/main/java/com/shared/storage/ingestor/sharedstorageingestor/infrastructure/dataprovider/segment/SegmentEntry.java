@@ -0,0 +1,14 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.segment;
+
+public record SegmentEntry(long sequence, String file, int records, long bytes, Status status) {
+
+    public SegmentEntry withStatus(Status status) {
+        return new SegmentEntry(sequence, file, records, bytes, status);
+    }
+
+    public enum Status {
+        SEALED,
+        CLEARED,
+        EXPORTED
+    }
+}
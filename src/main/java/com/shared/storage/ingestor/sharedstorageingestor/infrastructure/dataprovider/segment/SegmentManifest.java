@@ -0,0 +1,207 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.segment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only record of the segments sealed by one log stripe. Each line is a {@link SegmentEntry}; a segment
+ * is pending until an {@link SegmentEntry.Status#EXPORTED} line for its sequence follows the sealed one.
+ * A {@link SegmentEntry.Status#CLEARED} line records that the log file no longer holds the records of that
+ * sequence, which makes sealing restartable: a segment sealed after the last cleared sequence means the log file
+ * still holds exactly its records, or nothing, and only needs to be cleared again.
+ * Opening the manifest compacts it down to the pending segments through a temp file and an atomic rename; a line
+ * torn by a crash is dropped on the way.
+ */
+@Slf4j
+public final class SegmentManifest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String TEMP_FILE_TYPE = ".tmp";
+    private static final byte LINE_SEPARATOR = '\n';
+    private final Path path;
+    private final boolean sync;
+    private final Map<Long, SegmentEntry> pendingSegments = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long lastSequence;
+    private long clearedSequence;
+
+    private SegmentManifest(Path path, boolean sync) {
+        this.path = path;
+        this.sync = sync;
+    }
+
+    public static SegmentManifest open(File file, boolean sync) throws IOException {
+        final SegmentManifest manifest = new SegmentManifest(file.toPath(), sync);
+        manifest.load();
+        manifest.compact();
+        return manifest;
+    }
+
+    public long nextSequence() {
+        lock.lock();
+        try {
+            return ++lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getClearedSequence() {
+        lock.lock();
+        try {
+            return clearedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isPending(long sequence) {
+        lock.lock();
+        try {
+            return pendingSegments.containsKey(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<SegmentEntry> getPendingSegments() {
+        lock.lock();
+        try {
+            return new ArrayList<>(pendingSegments.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void sealed(SegmentEntry entry) throws IOException {
+        lock.lock();
+        try {
+            append(entry);
+            pendingSegments.put(entry.sequence(), entry);
+            lastSequence = Math.max(lastSequence, entry.sequence());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cleared(long sequence) throws IOException {
+        lock.lock();
+        try {
+            append(new SegmentEntry(sequence, null, 0, 0L, SegmentEntry.Status.CLEARED));
+            clearedSequence = Math.max(clearedSequence, sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void exported(long sequence) throws IOException {
+        lock.lock();
+        try {
+            final SegmentEntry entry = pendingSegments.remove(sequence);
+            if (Objects.nonNull(entry)) {
+                append(entry.withStatus(SegmentEntry.Status.EXPORTED));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void delete() throws IOException {
+        lock.lock();
+        try {
+            Files.deleteIfExists(path);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        boolean clearTracked = false;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            final SegmentEntry entry;
+            try {
+                entry = OBJECT_MAPPER.readValue(line, SegmentEntry.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Dropping torn entry from segment manifest {}", path);
+                continue;
+            }
+            lastSequence = Math.max(lastSequence, entry.sequence());
+            switch (entry.status()) {
+                case SEALED -> pendingSegments.put(entry.sequence(), entry);
+                case CLEARED -> {
+                    clearedSequence = Math.max(clearedSequence, entry.sequence());
+                    clearTracked = true;
+                }
+                case EXPORTED -> pendingSegments.remove(entry.sequence());
+            }
+        }
+        if (!clearTracked) {
+            clearedSequence = lastSequence;
+        }
+    }
+
+    private void compact() throws IOException {
+        final Path temp = path.resolveSibling(path.getFileName().toString().concat(TEMP_FILE_TYPE));
+        final List<SegmentEntry> entries = new ArrayList<>();
+        entries.add(new SegmentEntry(clearedSequence, null, 0, 0L, SegmentEntry.Status.CLEARED));
+        entries.addAll(pendingSegments.values());
+        if (!pendingSegments.containsKey(lastSequence) && lastSequence > clearedSequence) {
+            entries.add(new SegmentEntry(lastSequence, null, 0, 0L, SegmentEntry.Status.EXPORTED));
+        }
+        try (final FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (SegmentEntry entry : entries) {
+                write(channel, entry);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void append(SegmentEntry entry) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            write(channel, entry);
+            if (sync) {
+                channel.force(false);
+            }
+        }
+    }
+
+    private void write(FileChannel channel, SegmentEntry entry) throws IOException {
+        final byte[] json = OBJECT_MAPPER.writeValueAsBytes(entry);
+        final ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put(LINE_SEPARATOR).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Backing store of a locked log file. Apart from the counters read while the stripe is opened, every call runs on
+ * the stripe's group commit writer thread.
+ */
+public interface LogStorage {
+    long recover() throws IOException;
+    void append(List<byte[]> records) throws IOException;
+    void force() throws IOException;
+    int count() throws IOException;
+    long size() throws IOException;
+    void export(File target, boolean sync) throws IOException;
+    void transferTo(WritableByteChannel target) throws IOException;
+    void clear() throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+public interface LogStorageFactory {
+    String getFileSuffix();
+    boolean isSupported(Path directory, StorageFormat storageFormat);
+    LogStorage open(FileChannel channel, StorageFormat storageFormat) throws IOException;
+}
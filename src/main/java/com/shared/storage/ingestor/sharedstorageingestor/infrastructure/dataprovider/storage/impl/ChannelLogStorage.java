@@ -0,0 +1,69 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+final class ChannelLogStorage implements LogStorage {
+    private final FileChannel channel;
+    private final StorageFormat storageFormat;
+
+    ChannelLogStorage(FileChannel channel, StorageFormat storageFormat) {
+        this.channel = channel;
+        this.storageFormat = storageFormat;
+    }
+
+    @Override
+    public long recover() throws IOException {
+        return storageFormat.repair(channel);
+    }
+
+    @Override
+    public void append(List<byte[]> records) throws IOException {
+        storageFormat.append(channel, records);
+    }
+
+    @Override
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public int count() throws IOException {
+        return storageFormat.count(channel);
+    }
+
+    @Override
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void export(File target, boolean sync) throws IOException {
+        storageFormat.export(channel, target, sync);
+    }
+
+    /**
+     * Streams the file content as is, which is the sequence of records only for line-delimited formats.
+     */
+    @Override
+    public void transferTo(WritableByteChannel target) throws IOException {
+        final long size = channel.size();
+        long transferred = 0;
+        while (transferred < size) {
+            transferred += channel.transferTo(transferred, size - transferred, target);
+        }
+    }
+
+    @Override
+    public void clear() throws IOException {
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(storageFormat.getEmptyContent()), 0);
+    }
+}
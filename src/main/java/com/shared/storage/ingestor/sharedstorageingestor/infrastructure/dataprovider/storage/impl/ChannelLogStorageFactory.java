@@ -0,0 +1,33 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorage;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorageFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Writes through the {@link StorageFormat} on the locked file channel. Works on every filesystem and is the
+ * fallback when another engine is not supported.
+ */
+@Component
+public class ChannelLogStorageFactory implements LogStorageFactory {
+    private static final String FILE_SUFFIX = "";
+
+    @Override
+    public String getFileSuffix() {
+        return FILE_SUFFIX;
+    }
+
+    @Override
+    public boolean isSupported(Path directory, StorageFormat storageFormat) {
+        return true;
+    }
+
+    @Override
+    public LogStorage open(FileChannel channel, StorageFormat storageFormat) {
+        return new ChannelLogStorage(channel, storageFormat);
+    }
+}
@@ -0,0 +1,174 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.LineRecords;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Keeps newline-delimited records in a pre-allocated log file mapped into memory. A small header in front of the
+ * records holds the write position and record count, so both survive a restart without rescanning the file. When
+ * a group does not fit, a larger region is mapped; the previous mapping is released by the garbage collector.
+ * <p>
+ * The header is only trusted as an upper bound: after a crash the pages holding the last records may not have
+ * reached the disk even though the header did, so recovery walks the records up to the stored position and moves
+ * the position back to the end of the last complete one.
+ */
+final class MmapLogStorage implements LogStorage {
+    private static final int MAGIC = 0x4C4F4731;
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int POSITION_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    private static final int HEADER_SIZE = 64;
+    private static final byte LINE_SEPARATOR = '\n';
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private int count;
+    private int dirtyFrom = -1;
+
+    MmapLogStorage(FileChannel channel, long segmentBytes) throws IOException {
+        this.channel = channel;
+        final long fileSize = channel.size();
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Mapped log file exceeds " + Integer.MAX_VALUE + " bytes");
+        }
+        map((int) Math.min(Integer.MAX_VALUE, Math.max(Math.max(segmentBytes, fileSize), HEADER_SIZE)));
+        if (fileSize == 0) {
+            buffer.putInt(MAGIC_OFFSET, MAGIC).putInt(VERSION_OFFSET, VERSION);
+            position = HEADER_SIZE;
+            writeHeader();
+            buffer.force(0, HEADER_SIZE);
+        } else if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("Not a mapped log file");
+        } else {
+            position = (int) buffer.getLong(POSITION_OFFSET);
+            count = buffer.getInt(COUNT_OFFSET);
+            if (position < HEADER_SIZE || position > buffer.capacity() || count < 0) {
+                throw new IOException("Corrupt mapped log file header");
+            }
+        }
+    }
+
+    @Override
+    public long recover() {
+        int validEnd = HEADER_SIZE;
+        int records = 0;
+        int lineStart = HEADER_SIZE;
+        for (int i = HEADER_SIZE; i < position; i++) {
+            if (buffer.get(i) != LINE_SEPARATOR) {
+                continue;
+            }
+            if (i > lineStart) {
+                if (!LineRecords.isRecord(buffer, lineStart, i)) {
+                    break;
+                }
+                records++;
+            }
+            validEnd = i + 1;
+            lineStart = i + 1;
+        }
+        final long discarded = position - validEnd;
+        if (discarded > 0 || records != count) {
+            position = validEnd;
+            count = records;
+            writeHeader();
+            buffer.force(0, HEADER_SIZE);
+        }
+        return discarded;
+    }
+
+    @Override
+    public void append(List<byte[]> records) throws IOException {
+        long required = position;
+        for (byte[] record : records) {
+            required += record.length + 1;
+        }
+        ensureCapacity(required);
+        if (dirtyFrom < 0) {
+            dirtyFrom = position;
+        }
+        for (byte[] record : records) {
+            buffer.put(position, record);
+            position += record.length;
+            buffer.put(position++, LINE_SEPARATOR);
+        }
+        count += records.size();
+        writeHeader();
+    }
+
+    @Override
+    public void force() {
+        if (dirtyFrom >= 0 && position > dirtyFrom) {
+            buffer.force(dirtyFrom, position - dirtyFrom);
+        }
+        dirtyFrom = -1;
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public long size() {
+        return position - HEADER_SIZE;
+    }
+
+    @Override
+    public void export(File target, boolean sync) throws IOException {
+        try (final FileChannel targetChannel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            transferTo(targetChannel);
+            if (sync) {
+                targetChannel.force(false);
+            }
+        }
+    }
+
+    @Override
+    public void transferTo(WritableByteChannel target) throws IOException {
+        final ByteBuffer records = buffer.slice(HEADER_SIZE, position - HEADER_SIZE);
+        while (records.hasRemaining()) {
+            target.write(records);
+        }
+    }
+
+    @Override
+    public void clear() {
+        position = HEADER_SIZE;
+        count = 0;
+        dirtyFrom = -1;
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        buffer.putLong(POSITION_OFFSET, position).putInt(COUNT_OFFSET, count);
+    }
+
+    private void ensureCapacity(long required) throws IOException {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException("Mapped log file cannot grow past " + Integer.MAX_VALUE + " bytes");
+        }
+        if (dirtyFrom >= 0) {
+            force();
+        }
+        map((int) Math.min(Integer.MAX_VALUE, Math.max(required, 2L * buffer.capacity())));
+    }
+
+    private void map(int capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+}
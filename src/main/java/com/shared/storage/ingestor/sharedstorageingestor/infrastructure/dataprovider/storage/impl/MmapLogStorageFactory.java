@@ -0,0 +1,77 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorage;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorageFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Maps pre-allocated log files of {@code storage.mapped-segment-bytes} into memory. Mapped log files carry their
+ * own suffix, so switching engines never reads one engine's layout with the other.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class MmapLogStorageFactory implements LogStorageFactory {
+    private static final String FILE_SUFFIX = ".mmap";
+    private static final String PROBE_FILE_PREFIX = "mmap-probe-";
+    private static final String PROBE_FILE_TYPE = ".tmp";
+    private static final int PROBE_SIZE = 4096;
+    private final TelemetryConfiguration telemetryConfiguration;
+
+    @Override
+    public String getFileSuffix() {
+        return FILE_SUFFIX;
+    }
+
+    @Override
+    public boolean isSupported(Path directory, StorageFormat storageFormat) {
+        if (!storageFormat.isLineDelimited()) {
+            log.warn("Memory-mapped log files need a line-delimited storage format, {} is not", storageFormat.getFileExtension());
+            return false;
+        }
+        Path probe = null;
+        try {
+            Files.createDirectories(directory);
+            probe = Files.createTempFile(directory, PROBE_FILE_PREFIX, PROBE_FILE_TYPE);
+            try (final FileChannel channel = FileChannel.open(probe, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, PROBE_SIZE);
+                buffer.put(0, (byte) 1);
+                buffer.force();
+            }
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Memory mapping is not available on {}", directory, e);
+            return false;
+        } finally {
+            deleteProbe(probe);
+        }
+    }
+
+    @Override
+    public LogStorage open(FileChannel channel, StorageFormat storageFormat) throws IOException {
+        return new MmapLogStorage(channel, telemetryConfiguration.getStorage().getMappedSegmentBytes());
+    }
+
+    private void deleteProbe(Path probe) {
+        if (Objects.isNull(probe)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(probe);
+        } catch (IOException e) {
+            probe.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.tier;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring of variable-length records kept in a direct buffer, so buffered records add no heap or GC pressure.
+ * Each record is stored as its length followed by its bytes and may wrap around the end of the buffer. Producers and
+ * the consumer share one lock, held only while the bytes are copied in or out.
+ */
+public final class OffHeapRingBuffer {
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final byte[] lengthBytes = new byte[LENGTH_BYTES];
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private long head;
+    private long tail;
+    private volatile int records;
+    private volatile long usedBytes;
+
+    public OffHeapRingBuffer(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Stores a record, waiting up to the timeout for room. A record larger than the whole buffer is never stored.
+     *
+     * @return whether the record was stored
+     */
+    public boolean offer(byte[] record, long timeout, TimeUnit unit) throws InterruptedException {
+        final long required = LENGTH_BYTES + (long) record.length;
+        if (required > capacity) {
+            return false;
+        }
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (capacity - (tail - head) < required) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            ByteBuffer.wrap(lengthBytes).putInt(0, record.length);
+            write(tail, lengthBytes);
+            write(tail + LENGTH_BYTES, record);
+            tail += required;
+            records++;
+            usedBytes = tail - head;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves up to {@code maxRecords} records to {@code drained}, waiting up to the timeout for the first one.
+     *
+     * @return the number of records moved
+     */
+    public int drainTo(List<byte[]> drained, int maxRecords, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (records == 0) {
+                if (nanos <= 0) {
+                    return 0;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            int moved = 0;
+            while (records > 0 && moved < maxRecords) {
+                read(head, lengthBytes);
+                final byte[] record = new byte[ByteBuffer.wrap(lengthBytes).getInt(0)];
+                read(head + LENGTH_BYTES, record);
+                head += LENGTH_BYTES + record.length;
+                records--;
+                drained.add(record);
+                moved++;
+            }
+            usedBytes = tail - head;
+            notFull.signalAll();
+            return moved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return records;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void write(long position, byte[] bytes) {
+        final int index = (int) (position % capacity);
+        final int first = Math.min(bytes.length, capacity - index);
+        buffer.put(index, bytes, 0, first);
+        if (first < bytes.length) {
+            buffer.put(0, bytes, first, bytes.length - first);
+        }
+    }
+
+    private void read(long position, byte[] bytes) {
+        final int index = (int) (position % capacity);
+        final int first = Math.min(bytes.length, capacity - index);
+        buffer.get(index, bytes, 0, first);
+        if (first < bytes.length) {
+            buffer.get(0, bytes, first, bytes.length - first);
+        }
+    }
+}
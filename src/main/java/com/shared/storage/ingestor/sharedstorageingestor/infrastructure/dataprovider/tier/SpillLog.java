@@ -0,0 +1,280 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.tier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Local-disk tier holding the records the shared storage could not take in time. Records are appended, each prefixed
+ * by its length, to numbered files that roll at {@code segment-bytes}, and are read back oldest first. The position
+ * the replay reached is saved after every acknowledged chunk, so a restart resumes the replay instead of repeating
+ * it, and a record torn by a crash at the tail of the newest file is dropped on open.
+ * <p>
+ * The directory is locked for the lifetime of the log. It is not thread-safe: a single thread appends and replays.
+ */
+@Slf4j
+public final class SpillLog implements Closeable {
+    private static final String FILE_PREFIX = "spill-";
+    private static final String FILE_TYPE = ".bin";
+    private static final String POSITION_FILE = "replay.position";
+    private static final String LOCK_FILE = "spill.lock";
+    private static final String TEMP_FILE_TYPE = ".tmp";
+    private static final String SEQUENCE_FORMAT = "%012d";
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private final Path dir;
+    private final long segmentBytes;
+    private final boolean sync;
+    private final FileChannel lockChannel;
+    private final Deque<Path> files = new ArrayDeque<>();
+    private FileChannel writer;
+    private long nextSequence;
+    private long replayPosition;
+    private volatile long pendingBytes;
+
+    private SpillLog(Path dir, long segmentBytes, boolean sync, FileChannel lockChannel) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.sync = sync;
+        this.lockChannel = lockChannel;
+    }
+
+    public static SpillLog open(Path dir, long segmentBytes, boolean sync) throws IOException {
+        Files.createDirectories(dir);
+        final FileChannel lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (Objects.isNull(lock)) {
+            lockChannel.close();
+            throw new IOException("Spill directory " + dir + " is used by another process");
+        }
+        final SpillLog spillLog = new SpillLog(dir, segmentBytes, sync, lockChannel);
+        spillLog.load();
+        return spillLog;
+    }
+
+    public void append(List<byte[]> records) throws IOException {
+        if (Objects.isNull(writer) || writer.size() >= segmentBytes) {
+            roll();
+        }
+        long bytes = 0;
+        for (byte[] record : records) {
+            bytes += LENGTH_BYTES + record.length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(bytes));
+        records.forEach(record -> buffer.putInt(record.length).put(record));
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            writer.write(buffer);
+        }
+        if (sync) {
+            writer.force(false);
+        }
+        pendingBytes += bytes;
+    }
+
+    /**
+     * Reads up to {@code maxRecords} records from where the replay stands, without moving it.
+     */
+    public Chunk read(int maxRecords) throws IOException {
+        while (!files.isEmpty()) {
+            final Path file = files.peekFirst();
+            try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                final List<byte[]> records = new ArrayList<>();
+                final long end = readRecords(channel, replayPosition, maxRecords, records);
+                if (!records.isEmpty() || isActive(file)) {
+                    return new Chunk(file, replayPosition, end, records);
+                }
+            }
+            removeOldest();
+        }
+        return new Chunk(null, 0L, 0L, List.of());
+    }
+
+    /**
+     * Moves the replay past a chunk read before, deleting its file once every record of it is replayed.
+     */
+    public void acknowledge(Chunk chunk) throws IOException {
+        if (Objects.isNull(chunk.file()) || !chunk.file().equals(files.peekFirst()) || chunk.start() != replayPosition) {
+            throw new IllegalStateException("Spill chunk acknowledged out of order");
+        }
+        replayPosition = chunk.end();
+        pendingBytes -= chunk.end() - chunk.start();
+        if (replayPosition >= Files.size(chunk.file())) {
+            removeOldest();
+        } else {
+            writeReplayPosition();
+        }
+    }
+
+    public boolean isEmpty() {
+        return pendingBytes == 0;
+    }
+
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (Objects.nonNull(writer)) {
+                writer.close();
+            }
+        } finally {
+            lockChannel.close();
+        }
+    }
+
+    private void load() throws IOException {
+        try (final Stream<Path> listed = Files.list(dir)) {
+            listed.filter(file -> file.getFileName().toString().startsWith(FILE_PREFIX) && file.getFileName().toString().endsWith(FILE_TYPE))
+                    .sorted()
+                    .forEach(files::add);
+        }
+        if (files.isEmpty()) {
+            return;
+        }
+        final String newest = files.peekLast().getFileName().toString();
+        nextSequence = Long.parseLong(newest.substring(FILE_PREFIX.length(), newest.length() - FILE_TYPE.length())) + 1;
+        truncateTornTail(files.peekLast());
+        replayPosition = readReplayPosition();
+        long bytes = -replayPosition;
+        for (Path file : files) {
+            bytes += Files.size(file);
+        }
+        pendingBytes = Math.max(0L, bytes);
+    }
+
+    private void roll() throws IOException {
+        if (Objects.nonNull(writer)) {
+            writer.close();
+        }
+        final Path file = dir.resolve(FILE_PREFIX.concat(String.format(SEQUENCE_FORMAT, nextSequence++)).concat(FILE_TYPE));
+        writer = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        files.addLast(file);
+    }
+
+    private boolean isActive(Path file) {
+        return Objects.nonNull(writer) && file.equals(files.peekLast());
+    }
+
+    private void removeOldest() throws IOException {
+        final Path file = files.removeFirst();
+        if (Objects.nonNull(writer) && files.isEmpty()) {
+            writer.close();
+            writer = null;
+        }
+        Files.deleteIfExists(file);
+        replayPosition = 0L;
+        writeReplayPosition();
+    }
+
+    private void truncateTornTail(Path file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long end = readRecords(channel, 0L, Integer.MAX_VALUE, null);
+            if (end < channel.size()) {
+                log.warn("Discarded {} bytes of torn records at the tail of {}", channel.size() - end, file);
+                channel.truncate(end);
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Reads whole records from {@code position} onward, into {@code records} unless it is null.
+     *
+     * @return the position after the last whole record read
+     */
+    private static long readRecords(FileChannel channel, long position, int maxRecords, List<byte[]> records) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES);
+        int read = 0;
+        while (read < maxRecords && position + LENGTH_BYTES <= size) {
+            length.clear();
+            readFully(channel, length, position);
+            final int recordLength = length.getInt(0);
+            if (recordLength < 0 || position + LENGTH_BYTES + recordLength > size) {
+                break;
+            }
+            if (Objects.nonNull(records)) {
+                final ByteBuffer record = ByteBuffer.allocate(recordLength);
+                readFully(channel, record, position + LENGTH_BYTES);
+                records.add(record.array());
+            }
+            position += LENGTH_BYTES + recordLength;
+            read++;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private long readReplayPosition() throws IOException {
+        final Path positionFile = dir.resolve(POSITION_FILE);
+        if (!Files.exists(positionFile)) {
+            return 0L;
+        }
+        try (final DataInputStream input = new DataInputStream(Files.newInputStream(positionFile))) {
+            final String file = input.readUTF();
+            final long position = input.readLong();
+            final Path oldest = files.peekFirst();
+            return oldest.getFileName().toString().equals(file) ? Math.min(position, Files.size(oldest)) : 0L;
+        } catch (EOFException e) {
+            log.warn("Ignoring the torn replay position of {}", dir);
+            return 0L;
+        }
+    }
+
+    private void writeReplayPosition() throws IOException {
+        final Path positionFile = dir.resolve(POSITION_FILE);
+        if (files.isEmpty()) {
+            Files.deleteIfExists(positionFile);
+            return;
+        }
+        final Path tempFile = dir.resolve(POSITION_FILE.concat(TEMP_FILE_TYPE));
+        try (final DataOutputStream output = new DataOutputStream(Files.newOutputStream(tempFile))) {
+            output.writeUTF(files.peekFirst().getFileName().toString());
+            output.writeLong(replayPosition);
+        }
+        if (sync) {
+            try (final FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                channel.force(false);
+            }
+        }
+        Files.move(tempFile, positionFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Records read from {@code file} between two positions; {@code file} is null when nothing is spilled.
+     */
+    public record Chunk(Path file, long start, long end, List<byte[]> records) {
+    }
+}
@@ -1,7 +1,19 @@
 package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.consumer;
 
 import java.io.Serializable;
+import java.util.List;
 
 public interface MessageConsumer {
     Serializable consume();
+
+    /**
+     * @return up to {@code maxMessages} messages following the last consumed one, or an empty list when none is
+     * available
+     */
+    List<Serializable> consume(int maxMessages);
+
+    /**
+     * Records everything consumed so far as processed, so it is not delivered again after a restart.
+     */
+    void commit();
 }
@@ -0,0 +1,133 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.consumer.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.consumer.MessageConsumer;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal.JournalCursor;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal.JournalPayloads;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal.MessageJournal;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consumes the {@link MessageJournal} on behalf of one consumer group. Consumption starts at the group's committed
+ * offset and moves an in-memory cursor; {@link #commit()} stores the cursor, so messages consumed but not committed
+ * are delivered again after a restart. The bean consumes for the configured group; other groups get their own
+ * instance, and each group is independent of the others.
+ */
+@Slf4j
+@Lazy
+@Component
+public class JournalMessageConsumer implements MessageConsumer {
+    private final MessageJournal messageJournal;
+    private final String group;
+    private final int maxPollMessages;
+    private final JournalCursor cursor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long committedOffset;
+
+    @Autowired
+    public JournalMessageConsumer(MessageJournal messageJournal, TelemetryConfiguration telemetryConfiguration) throws IOException {
+        this(messageJournal, telemetryConfiguration.getMessaging().getConsumerGroup(), telemetryConfiguration.getMessaging().getMaxPollMessages());
+    }
+
+    public JournalMessageConsumer(MessageJournal messageJournal, String group, int maxPollMessages) throws IOException {
+        this.messageJournal = messageJournal;
+        this.group = group;
+        this.maxPollMessages = maxPollMessages;
+        this.committedOffset = messageJournal.acquireGroup(group);
+        this.cursor = messageJournal.seek(committedOffset);
+    }
+
+    @Override
+    public Serializable consume() {
+        final List<Serializable> messages = consume(1);
+        return messages.isEmpty() ? null : messages.get(0);
+    }
+
+    @Override
+    public List<Serializable> consume(int maxMessages) {
+        lock.lock();
+        try {
+            final List<byte[]> payloads = new ArrayList<>(Math.min(maxMessages, maxPollMessages));
+            final long firstOffset = cursor.getOffset();
+            messageJournal.read(cursor, Math.min(maxMessages, maxPollMessages), payloads);
+            final List<Serializable> messages = new ArrayList<>(payloads.size());
+            for (int i = 0; i < payloads.size(); i++) {
+                try {
+                    messages.add(JournalPayloads.decode(payloads.get(i)));
+                } catch (IOException e) {
+                    log.error("Skipping undecodable message {} of consumer group {}", firstOffset + i, group, e);
+                }
+            }
+            return messages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for a message when none is available yet.
+     */
+    public List<Serializable> consume(int maxMessages, long timeoutMillis) throws InterruptedException {
+        if (messageJournal.await(getOffset(), timeoutMillis)) {
+            return consume(maxMessages);
+        }
+        return List.of();
+    }
+
+    @Override
+    public void commit() {
+        lock.lock();
+        try {
+            if (cursor.getOffset() != committedOffset) {
+                messageJournal.commit(group, cursor.getOffset());
+                committedOffset = cursor.getOffset();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not commit offset " + cursor.getOffset() + " of consumer group " + group, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public long getOffset() {
+        lock.lock();
+        try {
+            return cursor.getOffset();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCommittedOffset() {
+        lock.lock();
+        try {
+            return committedOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLag() {
+        return messageJournal.getEndOffset() - getOffset();
+    }
+
+    @PreDestroy
+    public void close() {
+        messageJournal.releaseGroup(group);
+    }
+}
@@ -0,0 +1,21 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal;
+
+/**
+ * Read position of one consumer in the {@link MessageJournal}: the offset of the next message and where its frame
+ * starts. Not thread-safe; each consumer owns its cursor.
+ */
+public final class JournalCursor {
+    JournalSegment segment;
+    int frame;
+    long offset;
+
+    JournalCursor(JournalSegment segment, int frame, long offset) {
+        this.segment = segment;
+        this.frame = frame;
+        this.offset = offset;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,42 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Converts messages to journal payloads and back. A leading tag byte selects the encoding; the journal only carries
+ * {@link LogEvent}s, the only messages the pipeline produces, through {@link LogEventCodec}. Payloads are never
+ * decoded with Java serialization, so bytes planted in the journal directory cannot instantiate arbitrary classes.
+ */
+public final class JournalPayloads {
+    private static final byte LOG_EVENT = 1;
+
+    private JournalPayloads() {
+    }
+
+    public static byte[] encode(Serializable message) throws IOException {
+        if (!(message instanceof LogEvent logEvent)) {
+            throw new IOException("The message journal only carries log events, got " + (Objects.isNull(message) ? "null" : message.getClass().getName()));
+        }
+        final ByteBuffer encoded = LogEventCodec.encode(logEvent);
+        final byte[] payload = new byte[encoded.remaining() + 1];
+        payload[0] = LOG_EVENT;
+        encoded.get(payload, 1, encoded.remaining());
+        return payload;
+    }
+
+    public static Serializable decode(byte[] payload) throws IOException {
+        if (payload.length == 0) {
+            throw new IOException("Empty journal payload");
+        }
+        if (payload[0] != LOG_EVENT) {
+            throw new IOException("Unknown journal payload type " + payload[0]);
+        }
+        return LogEventCodec.decode(payload, 1, payload.length - 1);
+    }
+}
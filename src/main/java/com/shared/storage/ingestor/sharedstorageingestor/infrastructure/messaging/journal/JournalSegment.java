@@ -0,0 +1,190 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One pre-allocated, memory-mapped file of the journal. Messages are framed as a length, a CRC32C of the payload
+ * and the payload itself; a zero length marks the end of the written region, so a segment is recovered by walking
+ * the frames and stopping at the first one that is empty, does not fit or fails its checksum.
+ * <p>
+ * Only the journal's writer appends. Readers use absolute reads up to the published {@link #getLimit() limit},
+ * whose volatile write happens after the frames are in place, and move on to the next segment once this one is
+ * {@link #isSealed() sealed}.
+ */
+final class JournalSegment implements Closeable {
+    static final int FRAME_HEADER_SIZE = 8;
+    private static final int MAGIC = 0x4A524E31;
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int BASE_OFFSET_OFFSET = 8;
+    private static final int HEADER_SIZE = 64;
+    private final File file;
+    private final long baseOffset;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32C checksum = new CRC32C();
+    private int position = HEADER_SIZE;
+    private int dirtyFrom = -1;
+    private int messages;
+    private volatile int limit = HEADER_SIZE;
+    private volatile boolean sealed;
+
+    private JournalSegment(File file, long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+        this.file = file;
+        this.baseOffset = baseOffset;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment create(File file, long baseOffset, long segmentBytes) throws IOException {
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final JournalSegment segment = new JournalSegment(file, baseOffset, channel,
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(segmentBytes, HEADER_SIZE + FRAME_HEADER_SIZE))));
+        segment.buffer.putInt(MAGIC_OFFSET, MAGIC).putInt(VERSION_OFFSET, VERSION).putLong(BASE_OFFSET_OFFSET, baseOffset);
+        segment.buffer.force(0, HEADER_SIZE);
+        return segment;
+    }
+
+    /**
+     * Maps an existing segment and walks its frames.
+     *
+     * @return the segment positioned after its last complete message
+     */
+    static JournalSegment open(File file) throws IOException {
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a journal segment " + file.getAbsolutePath());
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Not a journal segment " + file.getAbsolutePath());
+            }
+            final JournalSegment segment = new JournalSegment(file, buffer.getLong(BASE_OFFSET_OFFSET), channel, buffer);
+            segment.recover();
+            return segment;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    long getEndOffset() {
+        return baseOffset + messages;
+    }
+
+    int getFirstFrame() {
+        return HEADER_SIZE;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    boolean fits(byte[] payload) {
+        return (long) position + FRAME_HEADER_SIZE + payload.length <= buffer.capacity();
+    }
+
+    boolean isEmpty() {
+        return messages == 0;
+    }
+
+    int getCapacity() {
+        return buffer.capacity() - HEADER_SIZE - FRAME_HEADER_SIZE;
+    }
+
+    void append(byte[] payload) {
+        if (dirtyFrom < 0) {
+            dirtyFrom = position;
+        }
+        checksum.reset();
+        checksum.update(payload);
+        buffer.putInt(position + 4, (int) checksum.getValue());
+        buffer.put(position + FRAME_HEADER_SIZE, payload);
+        buffer.putInt(position, payload.length);
+        position += FRAME_HEADER_SIZE + payload.length;
+        messages++;
+    }
+
+    /**
+     * Makes the messages appended since the last call visible to readers.
+     */
+    void publish() {
+        limit = position;
+    }
+
+    void seal() {
+        sealed = true;
+    }
+
+    void force() {
+        if (dirtyFrom >= 0 && position > dirtyFrom) {
+            buffer.force(dirtyFrom, position - dirtyFrom);
+        }
+        dirtyFrom = -1;
+    }
+
+    int frameLength(int frame) {
+        return buffer.getInt(frame);
+    }
+
+    byte[] payload(int frame) {
+        final byte[] payload = new byte[buffer.getInt(frame)];
+        buffer.get(frame + FRAME_HEADER_SIZE, payload);
+        return payload;
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void recover() {
+        final int capacity = buffer.capacity();
+        while (position + FRAME_HEADER_SIZE <= capacity) {
+            final int length = buffer.getInt(position);
+            if (length <= 0 || length > capacity - position - FRAME_HEADER_SIZE) {
+                break;
+            }
+            final byte[] payload = new byte[length];
+            buffer.get(position + FRAME_HEADER_SIZE, payload);
+            checksum.reset();
+            checksum.update(payload);
+            if ((int) checksum.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += FRAME_HEADER_SIZE + length;
+            messages++;
+        }
+        if (position + FRAME_HEADER_SIZE <= capacity) {
+            buffer.putInt(position, 0);
+        }
+        limit = position;
+    }
+}
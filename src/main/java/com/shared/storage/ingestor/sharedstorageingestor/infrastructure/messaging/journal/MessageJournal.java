@@ -0,0 +1,316 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Append-only message journal kept in memory-mapped segment files. Every message gets the next offset; producers
+ * append whole batches under one lock acquisition and one flush, and consumers read from any offset without locking.
+ * <p>
+ * Consumer groups track their position independently through a committed offset, stored one file per group and
+ * replaced atomically. A segment is deleted once every known group has committed past its last message; without
+ * any group the journal keeps everything.
+ */
+@Slf4j
+@Lazy
+@Component
+public class MessageJournal {
+    private static final String SEGMENT_FILE_PREFIX = "journal-";
+    private static final String SEGMENT_FILE_TYPE = ".seg";
+    private static final String OFFSET_FILE_PREFIX = "group-";
+    private static final String OFFSET_FILE_TYPE = ".offset";
+    private static final String TEMP_FILE_TYPE = ".tmp";
+    private static final String JOURNAL_METRIC = "telemetry.journal";
+    private static final Pattern GROUP_NAME = Pattern.compile("[A-Za-z0-9._-]+");
+    private final TelemetryConfiguration.Messaging messaging;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentSkipListMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> committedOffsets = new ConcurrentHashMap<>();
+    private final Set<String> activeGroups = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition appended = writeLock.newCondition();
+    private final ReentrantLock retentionLock = new ReentrantLock();
+    private File dir;
+    private JournalSegment active;
+    private Counter messages;
+    private long lastForceNanos;
+    private volatile long endOffset;
+
+    public MessageJournal(TelemetryConfiguration telemetryConfiguration, MeterRegistry meterRegistry) {
+        this.messaging = telemetryConfiguration.getMessaging();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        dir = new File(messaging.getJournalDir());
+        Files.createDirectories(dir.toPath());
+        for (File file : listFiles(OFFSET_FILE_PREFIX, OFFSET_FILE_TYPE)) {
+            committedOffsets.put(groupName(file), Long.parseLong(Files.readString(file.toPath(), StandardCharsets.UTF_8).trim()));
+        }
+        final List<File> segmentFiles = listFiles(SEGMENT_FILE_PREFIX, SEGMENT_FILE_TYPE);
+        for (File file : segmentFiles) {
+            final JournalSegment segment = JournalSegment.open(file);
+            segments.values().forEach(JournalSegment::seal);
+            segments.put(segment.getBaseOffset(), segment);
+        }
+        if (segments.isEmpty()) {
+            final long baseOffset = committedOffsets.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+            active = JournalSegment.create(getSegmentFile(baseOffset), baseOffset, messaging.getSegmentBytes());
+            segments.put(baseOffset, active);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        endOffset = active.getEndOffset();
+        lastForceNanos = System.nanoTime();
+        messages = Counter.builder(JOURNAL_METRIC + ".messages")
+                .description("Messages appended to the journal")
+                .register(meterRegistry);
+        Gauge.builder(JOURNAL_METRIC + ".segments", segments, Map::size)
+                .description("Segment files held by the journal")
+                .register(meterRegistry);
+        log.info("Opened message journal {} at offsets {} to {}", dir.getAbsolutePath(), getStartOffset(), endOffset);
+    }
+
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            active.force();
+            for (JournalSegment segment : segments.values()) {
+                segment.close();
+            }
+        } catch (IOException e) {
+            log.error("Error while closing message journal {}", dir.getAbsolutePath(), e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the payloads in order and makes them visible to consumers together.
+     *
+     * @return the offset following the last appended message
+     */
+    public long append(List<byte[]> payloads) throws IOException {
+        writeLock.lock();
+        try {
+            for (byte[] payload : payloads) {
+                if (!active.fits(payload)) {
+                    roll(payload);
+                }
+                active.append(payload);
+            }
+            active.publish();
+            if (isForceDue()) {
+                active.force();
+                lastForceNanos = System.nanoTime();
+            }
+            endOffset = active.getEndOffset();
+            appended.signalAll();
+        } finally {
+            writeLock.unlock();
+        }
+        messages.increment(payloads.size());
+        return endOffset;
+    }
+
+    public long getStartOffset() {
+        return segments.firstEntry().getValue().getBaseOffset();
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * @return a cursor at the given offset, moved to the oldest retained message when that one was already deleted
+     */
+    public JournalCursor seek(long offset) {
+        final long startOffset = getStartOffset();
+        if (offset < startOffset) {
+            log.warn("Offset {} is no longer retained by the message journal, resuming from {}", offset, startOffset);
+        }
+        long target = Math.min(Math.max(offset, startOffset), endOffset);
+        JournalSegment segment = segments.floorEntry(target).getValue();
+        if (target > segment.getEndOffset()) {
+            segment = segments.higherEntry(segment.getBaseOffset()).getValue();
+            target = segment.getBaseOffset();
+        }
+        int frame = segment.getFirstFrame();
+        for (long current = segment.getBaseOffset(); current < target; current++) {
+            frame += JournalSegment.FRAME_HEADER_SIZE + segment.frameLength(frame);
+        }
+        return new JournalCursor(segment, frame, target);
+    }
+
+    /**
+     * Reads up to {@code maxMessages} payloads from the cursor and moves it past them.
+     *
+     * @return the number of payloads added to {@code target}
+     */
+    public int read(JournalCursor cursor, int maxMessages, List<byte[]> target) {
+        int read = 0;
+        while (read < maxMessages) {
+            final JournalSegment segment = cursor.segment;
+            if (cursor.frame < segment.getLimit()) {
+                final byte[] payload = segment.payload(cursor.frame);
+                cursor.frame += JournalSegment.FRAME_HEADER_SIZE + payload.length;
+                cursor.offset++;
+                target.add(payload);
+                read++;
+            } else if (segment.isSealed() && segments.higherEntry(segment.getBaseOffset()) != null) {
+                final JournalSegment next = segments.higherEntry(segment.getBaseOffset()).getValue();
+                cursor.segment = next;
+                cursor.frame = next.getFirstFrame();
+                cursor.offset = next.getBaseOffset();
+            } else {
+                break;
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Waits until a message past {@code offset} is appended.
+     *
+     * @return whether such a message exists
+     */
+    public boolean await(long offset, long timeoutMillis) throws InterruptedException {
+        if (endOffset > offset) {
+            return true;
+        }
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        writeLock.lock();
+        try {
+            while (endOffset <= offset && nanos > 0) {
+                nanos = appended.awaitNanos(nanos);
+            }
+            return endOffset > offset;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Reserves a consumer group for one consumer of this process. A group seen for the first time starts at the
+     * oldest retained message.
+     *
+     * @return the group's committed offset
+     */
+    public long acquireGroup(String group) throws IOException {
+        if (!GROUP_NAME.matcher(group).matches()) {
+            throw new IllegalArgumentException("Invalid consumer group name " + group);
+        }
+        if (!activeGroups.add(group)) {
+            throw new IllegalStateException("Consumer group " + group + " already has a consumer");
+        }
+        if (!committedOffsets.containsKey(group)) {
+            commit(group, getStartOffset());
+        }
+        Gauge.builder(JOURNAL_METRIC + ".lag", () -> endOffset - committedOffsets.getOrDefault(group, endOffset))
+                .description("Messages appended to the journal but not yet committed by the consumer group")
+                .tag("group", group)
+                .register(meterRegistry);
+        return committedOffsets.get(group);
+    }
+
+    public void releaseGroup(String group) {
+        activeGroups.remove(group);
+    }
+
+    /**
+     * Stores the group's offset and deletes the segments every group has moved past.
+     */
+    public void commit(String group, long offset) throws IOException {
+        final Path path = new File(dir, OFFSET_FILE_PREFIX.concat(group).concat(OFFSET_FILE_TYPE)).toPath();
+        final Path temp = path.resolveSibling(path.getFileName().toString().concat(TEMP_FILE_TYPE));
+        Files.writeString(temp, Long.toString(offset), StandardCharsets.UTF_8);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committedOffsets.put(group, offset);
+        deleteConsumedSegments();
+    }
+
+    private void roll(byte[] payload) throws IOException {
+        if (payload.length > active.getCapacity()) {
+            throw new IOException("Message of " + payload.length + " bytes exceeds the journal segment size");
+        }
+        active.publish();
+        active.force();
+        final JournalSegment next = JournalSegment.create(getSegmentFile(active.getEndOffset()), active.getEndOffset(), messaging.getSegmentBytes());
+        segments.put(next.getBaseOffset(), next);
+        active.seal();
+        active = next;
+    }
+
+    private boolean isForceDue() {
+        return switch (messaging.getFsyncPolicy()) {
+            case BATCH -> true;
+            case INTERVAL -> System.nanoTime() - lastForceNanos >= TimeUnit.MILLISECONDS.toNanos(messaging.getFsyncIntervalMillis());
+            case NONE -> false;
+        };
+    }
+
+    private void deleteConsumedSegments() {
+        retentionLock.lock();
+        try {
+            final long consumedOffset = committedOffsets.values().stream().mapToLong(Long::longValue).min().orElse(Long.MIN_VALUE);
+            for (JournalSegment segment : segments.values()) {
+                if (!segment.isSealed() || segment.getEndOffset() > consumedOffset) {
+                    break;
+                }
+                segments.remove(segment.getBaseOffset());
+                segment.delete();
+                log.debug("Deleted consumed journal segment {}", segment.getFile().getAbsolutePath());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete a consumed journal segment", e);
+        } finally {
+            retentionLock.unlock();
+        }
+    }
+
+    private File getSegmentFile(long baseOffset) {
+        return new File(dir, SEGMENT_FILE_PREFIX + String.format("%020d", baseOffset) + SEGMENT_FILE_TYPE);
+    }
+
+    private List<File> listFiles(String prefix, String suffix) {
+        final File[] files = dir.listFiles((directory, name) -> name.startsWith(prefix) && name.endsWith(suffix));
+        final List<File> sorted = new ArrayList<>(Arrays.asList(Objects.requireNonNullElse(files, new File[0])));
+        sorted.sort(Comparator.comparing(File::getName));
+        return sorted;
+    }
+
+    private String groupName(File offsetFile) {
+        final String name = offsetFile.getName();
+        return name.substring(OFFSET_FILE_PREFIX.length(), name.length() - OFFSET_FILE_TYPE.length());
+    }
+}
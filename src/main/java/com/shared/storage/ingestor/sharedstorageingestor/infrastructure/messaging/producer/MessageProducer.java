@@ -1,7 +1,12 @@
 package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.producer;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 public interface MessageProducer {
     void produce(Serializable data);
+
+    default void produce(Collection<? extends Serializable> data) {
+        data.forEach(this::produce);
+    }
 }
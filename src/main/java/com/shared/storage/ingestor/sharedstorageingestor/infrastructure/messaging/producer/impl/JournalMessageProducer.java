@@ -0,0 +1,44 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.producer.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal.JournalPayloads;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal.MessageJournal;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.producer.MessageProducer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Produces into the local {@link MessageJournal}. Selected with {@code arsenal.nat.telemetry.datasource=journal}; a
+ * collection is appended as one batch, so it is flushed once and becomes visible to consumers at once.
+ */
+@Lazy
+@Component
+@RequiredArgsConstructor
+public class JournalMessageProducer implements MessageProducer {
+    private final MessageJournal messageJournal;
+
+    @Override
+    public void produce(Serializable data) {
+        produce(List.of(data));
+    }
+
+    @Override
+    public void produce(Collection<? extends Serializable> data) {
+        final List<byte[]> payloads = new ArrayList<>(data.size());
+        try {
+            for (Serializable message : data) {
+                payloads.add(JournalPayloads.encode(message));
+            }
+            messageJournal.append(payloads);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append " + data.size() + " messages to the journal", e);
+        }
+    }
+}
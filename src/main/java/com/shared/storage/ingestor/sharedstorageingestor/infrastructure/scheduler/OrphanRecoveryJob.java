@@ -0,0 +1,18 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.scheduler;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl.SharedStorageDataProvider;
+import lombok.RequiredArgsConstructor;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+@DisallowConcurrentExecution
+@RequiredArgsConstructor
+public class OrphanRecoveryJob extends QuartzJobBean {
+    private final SharedStorageDataProvider sharedStorageDataProvider;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        sharedStorageDataProvider.recoverOrphans();
+    }
+}
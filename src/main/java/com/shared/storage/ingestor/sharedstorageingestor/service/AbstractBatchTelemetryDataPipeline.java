@@ -3,43 +3,111 @@ package com.shared.storage.ingestor.sharedstorageingestor.service;
 import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
 import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
 import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.DataProvider;
-import org.springframework.batch.core.Job;
-import org.springframework.batch.core.JobExecutionException;
-import org.springframework.batch.core.JobParameters;
-import org.springframework.batch.core.launch.JobLauncher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.context.ApplicationContext;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 
 public abstract class AbstractBatchTelemetryDataPipeline implements TelemetryDataPipeline<LogEvent, Serializable> {
-    public static final int BATCH_LIMIT = 50;
+    private static final String PIPELINE_METRIC = "telemetry.pipeline";
     private final DataProvider dataProvider;
-    private final JobLauncher jobLauncher;
-    private final Job job;
+    private final Timer singleTimer;
+    private final Timer bulkTimer;
+    private final Counter events;
+    private final EventFingerprintCache fingerprintCache;
 
-    protected AbstractBatchTelemetryDataPipeline(ApplicationContext applicationContext, TelemetryConfiguration telemetryConfiguration, JobLauncher jobLauncher, Job job) {
-        this.jobLauncher = jobLauncher;
-        this.job = job;
-        this.dataProvider = applicationContext.getBean(DataProvider.class, telemetryConfiguration.getDatasource().concat(DataProvider.class.getSimpleName()));
+    protected AbstractBatchTelemetryDataPipeline(ApplicationContext applicationContext, TelemetryConfiguration telemetryConfiguration) {
+        final String dataProviderName = telemetryConfiguration.getDatasource().concat(DataProvider.class.getSimpleName());
+        this.dataProvider = applicationContext.containsBean(dataProviderName)
+                ? applicationContext.getBean(dataProviderName, DataProvider.class)
+                : applicationContext.getBean(DataProvider.class);
+        final MeterRegistry meterRegistry = applicationContext.getBean(MeterRegistry.class);
+        this.singleTimer = pipelineTimer(meterRegistry, "single");
+        this.bulkTimer = pipelineTimer(meterRegistry, "bulk");
+        this.events = Counter.builder(PIPELINE_METRIC + ".events")
+                .description("Events that entered the batch pipeline")
+                .register(meterRegistry);
+        this.fingerprintCache = telemetryConfiguration.getDeduplication().isEnabled()
+                ? new EventFingerprintCache(telemetryConfiguration.getDeduplication(), meterRegistry)
+                : null;
     }
 
+    /**
+     * With deduplication enabled the event goes through the bulk path, whose outcome tells whether it was persisted and
+     * so whether its claim must be released.
+     */
     @Override
     public void pipeline(LogEvent data) {
-        persist(data);
-        deliver();
+        events.increment();
+        if (Objects.isNull(fingerprintCache)) {
+            singleTimer.record(() -> persist(data));
+        } else if (fingerprintCache.claim(data)) {
+            final BitSet persisted = singleTimer.record(() -> persist(List.of(data)));
+            if (persisted.isEmpty()) {
+                fingerprintCache.release(data);
+            }
+        }
+    }
+
+    /**
+     * Duplicates are dropped before persisting and reported apart, since an earlier delivery already stored them.
+     * The claims of the events that failed to persist are released, so that a retry stores them again while the events
+     * that were stored stay deduplicated.
+     */
+    @Override
+    public PipelineResult pipeline(Collection<LogEvent> data) {
+        events.increment(data.size());
+        if (Objects.isNull(fingerprintCache)) {
+            return PipelineResult.persisted(bulkTimer.record(() -> persist(data)));
+        }
+        final BitSet persisted = new BitSet(data.size());
+        final BitSet duplicates = new BitSet(data.size());
+        final List<LogEvent> claimed = new ArrayList<>(data.size());
+        final int[] positions = new int[data.size()];
+        int index = 0;
+        for (LogEvent logEvent : data) {
+            if (fingerprintCache.claim(logEvent)) {
+                positions[claimed.size()] = index;
+                claimed.add(logEvent);
+            } else {
+                duplicates.set(index);
+            }
+            index++;
+        }
+        if (claimed.isEmpty()) {
+            return new PipelineResult(persisted, duplicates);
+        }
+        final BitSet persistedClaims = bulkTimer.record(() -> persist(claimed));
+        for (int i = 0; i < claimed.size(); i++) {
+            if (persistedClaims.get(i)) {
+                persisted.set(positions[i]);
+            } else {
+                fingerprintCache.release(claimed.get(i));
+            }
+        }
+        return new PipelineResult(persisted, duplicates);
     }
 
     protected void persist(LogEvent data) {
         dataProvider.persist(data);
     }
 
-    protected void deliver() {
-        if (dataProvider.count() == 0) {
-            try {
-                jobLauncher.run(job, new JobParameters());
-            } catch (JobExecutionException e) {
-                throw new RuntimeException(e);
-            }
-        }
+    protected BitSet persist(Collection<LogEvent> data) {
+        return dataProvider.persist(data);
+    }
+
+    private static Timer pipelineTimer(MeterRegistry meterRegistry, String kind) {
+        return Timer.builder(PIPELINE_METRIC)
+                .description("Time spent delivering events through the batch pipeline")
+                .tag("kind", kind)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
@@ -6,12 +6,14 @@ import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messagin
 import org.springframework.context.ApplicationContext;
 
 import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
 
 public abstract class AbstractMessagingTelemetryDataPipeline implements TelemetryDataPipeline<LogEvent, Serializable> {
     private final MessageProducer producer;
 
     protected AbstractMessagingTelemetryDataPipeline(ApplicationContext applicationContext, TelemetryConfiguration telemetryConfiguration) {
-        this.producer = applicationContext.getBean(MessageProducer.class, telemetryConfiguration.getDatasource().concat(MessageProducer.class.getSimpleName()));
+        this.producer = applicationContext.getBean(telemetryConfiguration.getDatasource().concat(MessageProducer.class.getSimpleName()), MessageProducer.class);
     }
 
     @Override
@@ -19,7 +21,19 @@ public abstract class AbstractMessagingTelemetryDataPipeline implements Telemetr
         persist(logEvent);
     }
 
+    @Override
+    public PipelineResult pipeline(Collection<LogEvent> data) {
+        return PipelineResult.persisted(persist(data));
+    }
+
     protected void persist(LogEvent data) {
         producer.produce(data);
     }
+
+    protected BitSet persist(Collection<LogEvent> data) {
+        producer.produce(data);
+        final BitSet persisted = new BitSet(data.size());
+        persisted.set(0, data.size());
+        return persisted;
+    }
 }
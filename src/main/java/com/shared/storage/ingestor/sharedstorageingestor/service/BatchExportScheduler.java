@@ -0,0 +1,210 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.event.BatchExportedEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.event.BatchSealedEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TaskExecutors;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches one export job per sealed segment. The segment's writer ID and sequence identify the job instance, so
+ * launching a segment again restarts its last failed execution from the chunks its partitions already committed,
+ * and a segment whose export already completed is only acknowledged. A job that fails is launched again after a
+ * delay that doubles with every failed attempt, up to {@code max-retry-delay-millis}.
+ * Sealed events are published by the group-commit writer of a stripe, which is never blocked here: when
+ * {@code max-pending-batches} exports are already pending, the segment stays pending in its manifest and is published
+ * again by the next sealing pass.
+ */
+@Slf4j
+@Component
+public class BatchExportScheduler {
+    public static final String BATCH_ID_PARAMETER = "batchId";
+    public static final String SEQUENCE_PARAMETER = "sequence";
+    public static final String BATCH_FILE_PARAMETER = "batchFile";
+    private static final String EXPORT_METRIC = "telemetry.export";
+    private static final String ABANDONED_DESCRIPTION = "Abandoned by a stopped instance";
+    private final JobLauncher jobLauncher;
+    private final JobRepository jobRepository;
+    private final Job job;
+    private final Semaphore pendingBatches;
+    private final Set<String> launchedSegments = ConcurrentHashMap.newKeySet();
+    private final AsyncTaskExecutor executor;
+    private final ScheduledExecutorService retryExecutor;
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final TelemetryConfiguration.Export export;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    public BatchExportScheduler(JobLauncher jobLauncher, JobRepository jobRepository, Job job, TelemetryConfiguration telemetryConfiguration,
+                                ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        final TelemetryConfiguration.Export export = telemetryConfiguration.getExport();
+        this.jobLauncher = jobLauncher;
+        this.jobRepository = jobRepository;
+        this.job = job;
+        this.pendingBatches = new Semaphore(export.getMaxPendingBatches());
+        this.executor = TaskExecutors.create(telemetryConfiguration.getExecution().getMode(), "batch-export-",
+                export.getThreads(), export.getMaxPendingBatches());
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "batch-export-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.export = export;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(EXPORT_METRIC + ".pending", pendingBatches, semaphore -> export.getMaxPendingBatches() - semaphore.availablePermits())
+                .description("Sealed batches waiting for or running an export job")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onBatchSealed(BatchSealedEvent event) {
+        final String segment = toSegmentKey(event);
+        if (failedAttempts.containsKey(segment)) {
+            log.debug("Export of batch segment {} is waiting for its retry", segment);
+            return;
+        }
+        schedule(event, segment);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryExecutor.shutdownNow();
+        TaskExecutors.shutdown(executor);
+    }
+
+    /**
+     * @return whether the export of the segment is scheduled, false when too many batches are already pending
+     */
+    private boolean schedule(BatchSealedEvent event, String segment) {
+        if (!launchedSegments.add(segment)) {
+            log.debug("Export of batch segment {} is already scheduled", segment);
+            return true;
+        }
+        if (!pendingBatches.tryAcquire()) {
+            launchedSegments.remove(segment);
+            log.debug("{} batches are already pending export, leaving batch segment {} for the next pass", export.getMaxPendingBatches(), segment);
+            return false;
+        }
+        executor.execute(() -> launch(event, segment));
+        return true;
+    }
+
+    private void launch(BatchSealedEvent event, String segment) {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "ERROR";
+        try {
+            final JobParameters jobParameters = toJobParameters(event);
+            failAbandonedExecution(jobParameters);
+            status = jobLauncher.run(job, jobParameters).getStatus().name();
+        } catch (JobInstanceAlreadyCompleteException e) {
+            status = BatchStatus.COMPLETED.name();
+            log.info("Batch segment {} was already exported", segment);
+            eventPublisher.publishEvent(new BatchExportedEvent(event.batchId(), event.sequence()));
+        } catch (JobExecutionException e) {
+            log.error("Error while exporting batch {} from {}", event.batchId(), event.batchFile(), e);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error while exporting batch {} from {}", event.batchId(), event.batchFile(), e);
+        } finally {
+            sample.stop(Timer.builder(EXPORT_METRIC + ".job")
+                    .description("Duration of export jobs launched for sealed batches")
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            launchedSegments.remove(segment);
+            pendingBatches.release();
+        }
+        if (BatchStatus.COMPLETED.name().equals(status)) {
+            failedAttempts.remove(segment);
+        } else {
+            scheduleRetry(event, segment);
+        }
+    }
+
+    private void scheduleRetry(BatchSealedEvent event, String segment) {
+        final int attempts = failedAttempts.merge(segment, 1, Integer::sum);
+        final long delayMillis = Math.min(export.getMaxRetryDelayMillis(), export.getRetryDelayMillis() << Math.min(attempts - 1, 30));
+        log.warn("Export of batch segment {} failed {} times, retrying in {} ms", segment, attempts, delayMillis);
+        retryLater(event, segment, delayMillis);
+    }
+
+    private void retryLater(BatchSealedEvent event, String segment, long delayMillis) {
+        try {
+            retryExecutor.schedule(() -> {
+                if (!schedule(event, segment)) {
+                    retryLater(event, segment, delayMillis);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Not retrying batch segment {} while shutting down", segment);
+        }
+    }
+
+    /**
+     * Only the instance holding a segment's log stripe launches its export, and never twice at once, so an
+     * execution still marked as running belongs to an instance that stopped mid-export. Failing it lets the launch
+     * below restart it.
+     */
+    private void failAbandonedExecution(JobParameters jobParameters) {
+        final JobExecution lastExecution = jobRepository.getLastJobExecution(job.getName(), jobParameters);
+        if (Objects.isNull(lastExecution) || !lastExecution.getStatus().isRunning()) {
+            return;
+        }
+        final LocalDateTime now = LocalDateTime.now();
+        for (StepExecution stepExecution : lastExecution.getStepExecutions()) {
+            if (stepExecution.getStatus().isRunning()) {
+                stepExecution.setStatus(BatchStatus.FAILED);
+                stepExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(ABANDONED_DESCRIPTION));
+                stepExecution.setEndTime(now);
+                jobRepository.update(stepExecution);
+            }
+        }
+        lastExecution.setStatus(BatchStatus.FAILED);
+        lastExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(ABANDONED_DESCRIPTION));
+        lastExecution.setEndTime(now);
+        jobRepository.update(lastExecution);
+        log.warn("Restarting abandoned export execution {} of {}", lastExecution.getId(), jobParameters);
+    }
+
+    private String toSegmentKey(BatchSealedEvent event) {
+        return event.batchId() + "-" + event.sequence();
+    }
+
+    private JobParameters toJobParameters(BatchSealedEvent event) {
+        return new JobParametersBuilder()
+                .addString(BATCH_ID_PARAMETER, event.batchId().toString())
+                .addLong(SEQUENCE_PARAMETER, event.sequence())
+                .addString(BATCH_FILE_PARAMETER, event.batchFile(), false)
+                .toJobParameters();
+    }
+}
@@ -0,0 +1,106 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.dto.BulkIngestionResponseDTO;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Streams a bulk request body into the batch pipeline. The body is either a JSON array of events or newline-delimited
+ * events; both are read one value at a time with a {@link JsonParser}, so only the current group of events is held in
+ * memory. Events that do not bind to {@link LogEvent} are rejected individually, while a syntax error stops the
+ * request and reports what was accepted up to that point.
+ */
+@Slf4j
+@Service
+public class BulkIngestionService {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectReader LOG_EVENT_READER = OBJECT_MAPPER.readerFor(LogEvent.class);
+    private final TelemetryDataPipeline<LogEvent, Serializable> telemetryDataPipeline;
+    private final int groupSize;
+
+    public BulkIngestionService(TelemetryDataPipeline<LogEvent, Serializable> telemetryDataPipeline, TelemetryConfiguration telemetryConfiguration) {
+        this.telemetryDataPipeline = telemetryDataPipeline;
+        this.groupSize = telemetryConfiguration.getIngestion().getBulkGroupSize();
+    }
+
+    public BulkIngestionResponseDTO ingest(InputStream body) throws IOException {
+        final List<LogEvent> group = new ArrayList<>(groupSize);
+        int accepted = 0;
+        int rejected = 0;
+        try (final JsonParser parser = OBJECT_MAPPER.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            final boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (Objects.nonNull(token) && token != JsonToken.END_ARRAY) {
+                final LogEvent logEvent = bind(parser.readValueAsTree());
+                if (Objects.isNull(logEvent)) {
+                    rejected++;
+                } else {
+                    group.add(logEvent);
+                }
+                if (group.size() >= groupSize) {
+                    final int persisted = flush(group);
+                    accepted += persisted;
+                    rejected += groupSize - persisted;
+                }
+                token = parser.nextToken();
+            }
+            if (array && Objects.nonNull(token) && Objects.nonNull(parser.nextToken())) {
+                throw new JsonParseException(parser, "Unexpected content after the end of the array");
+            }
+        } catch (JsonProcessingException e) {
+            final int pending = group.size();
+            final int persisted = flush(group);
+            return BulkIngestionResponseDTO.builder()
+                    .accepted(accepted + persisted)
+                    .rejected(rejected + pending - persisted)
+                    .error(e.getOriginalMessage())
+                    .build();
+        }
+        final int pending = group.size();
+        final int persisted = flush(group);
+        return BulkIngestionResponseDTO.builder()
+                .accepted(accepted + persisted)
+                .rejected(rejected + pending - persisted)
+                .build();
+    }
+
+    private LogEvent bind(JsonNode node) {
+        if (Objects.isNull(node) || !node.isObject()) {
+            return null;
+        }
+        try {
+            return LOG_EVENT_READER.readValue(node);
+        } catch (IOException e) {
+            log.debug("Rejecting bulk record {}", node, e);
+            return null;
+        }
+    }
+
+    private int flush(List<LogEvent> group) {
+        if (group.isEmpty()) {
+            return 0;
+        }
+        final int persisted = telemetryDataPipeline.pipeline(group).storedCount();
+        group.clear();
+        return persisted;
+    }
+}
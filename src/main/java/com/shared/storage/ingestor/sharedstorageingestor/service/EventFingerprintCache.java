@@ -0,0 +1,189 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers the events accepted within a time window so that retried deliveries can be dropped. An event is
+ * identified by its correlation ID, span and timestamp. A 64-bit fingerprint of the three picks one of the lock
+ * stripes and keys the stripe's map, so the map lookup is a cheap probabilistic check; a hit is then confirmed by
+ * comparing the fields themselves, and two events whose fingerprints collide are never taken for each other.
+ * <p>
+ * Each stripe keeps its fingerprints in the order they were claimed and drops the oldest once they leave the window or
+ * the stripe holds its share of {@code max-entries}, which bounds memory whatever the traffic. A claim whose event is
+ * then not persisted must be released, otherwise the retry of that event would be dropped too.
+ */
+public final class EventFingerprintCache {
+    private static final String DEDUPLICATION_METRIC = "telemetry.deduplication";
+    private static final HashFunction FINGERPRINT = Hashing.murmur3_128();
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int stripeCapacity;
+    private final long windowNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter expired;
+    private final Counter evicted;
+
+    public EventFingerprintCache(TelemetryConfiguration.Deduplication deduplication, MeterRegistry meterRegistry) {
+        final int stripeCount = Integer.highestOneBit(Math.max(1, deduplication.getStripes()));
+        this.stripes = new Stripe[stripeCount];
+        Arrays.setAll(stripes, i -> new Stripe());
+        this.stripeMask = stripeCount - 1;
+        this.stripeCapacity = Math.max(1, deduplication.getMaxEntries() / stripeCount);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(deduplication.getWindowMillis());
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.expired = removalCounter(meterRegistry, "expired");
+        this.evicted = removalCounter(meterRegistry, "capacity");
+        Gauge.builder(DEDUPLICATION_METRIC + ".entries", this, EventFingerprintCache::size)
+                .description("Event fingerprints held by the deduplication cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the event unless it was already claimed within the window. Events without any identifying field are
+     * always accepted and never recorded.
+     *
+     * @return whether the event is new
+     */
+    public boolean claim(LogEvent logEvent) {
+        if (!isIdentifiable(logEvent)) {
+            return true;
+        }
+        final long fingerprint = fingerprint(logEvent);
+        final Stripe stripe = stripes[(int) fingerprint & stripeMask];
+        final long now = System.nanoTime();
+        final boolean duplicate;
+        int expiredEntries = 0;
+        int evictedEntries = 0;
+        stripe.lock.lock();
+        try {
+            expiredEntries = stripe.expire(now - windowNanos);
+            final Entry entry = stripe.entries.get(fingerprint);
+            duplicate = Objects.nonNull(entry) && entry.matches(logEvent);
+            if (!duplicate) {
+                stripe.entries.remove(fingerprint);
+                stripe.entries.put(fingerprint, new Entry(logEvent.getCorrelationId(), logEvent.getSpan(), logEvent.getTimestamp(), now));
+                evictedEntries = stripe.evict(stripeCapacity);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        (duplicate ? hits : misses).increment();
+        expired.increment(expiredEntries);
+        evicted.increment(evictedEntries);
+        return !duplicate;
+    }
+
+    /**
+     * Forgets a claimed event that could not be persisted, so that its retry is accepted.
+     */
+    public void release(LogEvent logEvent) {
+        if (!isIdentifiable(logEvent)) {
+            return;
+        }
+        final long fingerprint = fingerprint(logEvent);
+        final Stripe stripe = stripes[(int) fingerprint & stripeMask];
+        stripe.lock.lock();
+        try {
+            final Entry entry = stripe.entries.get(fingerprint);
+            if (Objects.nonNull(entry) && entry.matches(logEvent)) {
+                stripe.entries.remove(fingerprint);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.entries.size();
+        }
+        return size;
+    }
+
+    private static boolean isIdentifiable(LogEvent logEvent) {
+        return Objects.nonNull(logEvent.getCorrelationId()) || Objects.nonNull(logEvent.getSpan()) || Objects.nonNull(logEvent.getTimestamp());
+    }
+
+    private static long fingerprint(LogEvent logEvent) {
+        final Hasher hasher = FINGERPRINT.newHasher();
+        putField(hasher, logEvent.getCorrelationId());
+        putField(hasher, logEvent.getSpan());
+        putField(hasher, logEvent.getTimestamp());
+        return hasher.hash().asLong();
+    }
+
+    private static void putField(Hasher hasher, String value) {
+        if (Objects.isNull(value)) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(DEDUPLICATION_METRIC + ".lookups")
+                .description("Events checked against the deduplication cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter removalCounter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder(DEDUPLICATION_METRIC + ".removals")
+                .description("Event fingerprints dropped from the deduplication cache")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+
+        private int expire(long oldestNanos) {
+            int removed = 0;
+            final Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext() && iterator.next().getValue().claimedNanos() - oldestNanos < 0) {
+                iterator.remove();
+                removed++;
+            }
+            return removed;
+        }
+
+        private int evict(int capacity) {
+            int removed = 0;
+            final Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+            while (entries.size() > capacity && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                removed++;
+            }
+            return removed;
+        }
+    }
+
+    private record Entry(String correlationId, String span, String timestamp, long claimedNanos) {
+        private boolean matches(LogEvent logEvent) {
+            return Objects.equals(correlationId, logEvent.getCorrelationId())
+                    && Objects.equals(span, logEvent.getSpan())
+                    && Objects.equals(timestamp, logEvent.getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decouples request threads from the data provider. Requests are offered to a bounded ring buffer without blocking
+ * and are drained in groups by dedicated writer threads, which hand each group to the configured pipeline and complete
+ * the acknowledgement of each event once it is durable; only the events that were not persisted are failed, so a retry
+ * never stores the others twice. A full buffer is reported to the caller instead of stalling it.
+ * The buffer is drained before the data provider shuts down; anything offered after {@link #stop()} is refused, and
+ * an event that raced the stop past the last drain is failed rather than left waiting.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "arsenal.nat.telemetry.ingestion", name = "mode", havingValue = "queued", matchIfMissing = true)
+public class IngestQueue implements SmartLifecycle {
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+    private final TelemetryDataPipeline<LogEvent, Serializable> telemetryDataPipeline;
+    private final BlockingQueue<PendingEvent> queue;
+    private final int writerThreads;
+    private final int maxDrain;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    public IngestQueue(TelemetryDataPipeline<LogEvent, Serializable> telemetryDataPipeline, TelemetryConfiguration telemetryConfiguration) {
+        final TelemetryConfiguration.Ingestion ingestion = telemetryConfiguration.getIngestion();
+        this.telemetryDataPipeline = telemetryDataPipeline;
+        this.queue = new ArrayBlockingQueue<>(ingestion.getQueueCapacity());
+        this.writerThreads = ingestion.getWriterThreads();
+        this.maxDrain = ingestion.getBulkGroupSize();
+    }
+
+    /**
+     * @return the acknowledgement of the event, or empty when the buffer is full or the queue is stopped
+     */
+    public Optional<CompletableFuture<Void>> offer(LogEvent logEvent) {
+        if (!running) {
+            return Optional.empty();
+        }
+        final PendingEvent pendingEvent = new PendingEvent(logEvent, new CompletableFuture<>());
+        if (!queue.offer(pendingEvent)) {
+            return Optional.empty();
+        }
+        if (stopped) {
+            failQueued();
+        }
+        return Optional.of(pendingEvent.acknowledgement());
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            final Thread writer = new Thread(this::drain, "ingest-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread writer : writers) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        writers.clear();
+        stopped = true;
+        failQueued();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        final List<PendingEvent> group = new ArrayList<>(maxDrain);
+        while (running || !queue.isEmpty()) {
+            try {
+                final PendingEvent first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(first)) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, maxDrain - 1);
+                persist(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void persist(List<PendingEvent> group) {
+        try {
+            final PipelineResult result = telemetryDataPipeline.pipeline(group.stream().map(PendingEvent::logEvent).toList());
+            final IllegalStateException failure = new IllegalStateException("Only " + result.storedCount() + " of " + group.size() + " queued events were persisted");
+            for (int i = 0; i < group.size(); i++) {
+                if (result.isStored(i)) {
+                    group.get(i).acknowledgement().complete(null);
+                } else {
+                    group.get(i).acknowledgement().completeExceptionally(failure);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while persisting {} queued events", group.size(), e);
+            failAll(group, e);
+        }
+    }
+
+    private void failQueued() {
+        final List<PendingEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("Failing {} events queued after the writers stopped", remaining.size());
+            failAll(remaining, new IllegalStateException("Ingest queue is stopped"));
+        }
+    }
+
+    private void failAll(List<PendingEvent> group, Throwable cause) {
+        group.forEach(pendingEvent -> pendingEvent.acknowledgement().completeExceptionally(cause));
+    }
+
+    private record PendingEvent(LogEvent logEvent, CompletableFuture<Void> acknowledgement) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import java.util.BitSet;
+
+/**
+ * Outcome of delivering a collection of events, by position in iteration order. An event is either persisted by
+ * this delivery, dropped as a duplicate of one an earlier delivery already stored, or failed.
+ */
+public record PipelineResult(BitSet persisted, BitSet duplicates) {
+    public static PipelineResult persisted(BitSet persisted) {
+        return new PipelineResult(persisted, new BitSet());
+    }
+
+    /**
+     * @return whether the event is stored, by this delivery or an earlier one
+     */
+    public boolean isStored(int position) {
+        return persisted.get(position) || duplicates.get(position);
+    }
+
+    public int storedCount() {
+        return persisted.cardinality() + duplicates.cardinality();
+    }
+}
@@ -3,7 +3,11 @@ package com.shared.storage.ingestor.sharedstorageingestor.service;
 import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 public interface TelemetryDataPipeline<X extends LogEvent, Y extends Serializable> {
     void pipeline(X data);
+
+    PipelineResult pipeline(Collection<X> data);
+
 }
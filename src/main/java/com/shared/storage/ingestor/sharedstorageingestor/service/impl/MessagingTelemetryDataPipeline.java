@@ -0,0 +1,18 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.service.AbstractMessagingTelemetryDataPipeline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnExpression("'${arsenal.nat.telemetry.datasource:batch}' != 'batch'")
+public class MessagingTelemetryDataPipeline extends AbstractMessagingTelemetryDataPipeline {
+    @Autowired
+    protected MessagingTelemetryDataPipeline(ApplicationContext applicationContext, TelemetryConfiguration telemetryConfiguration) {
+        super(applicationContext, telemetryConfiguration);
+    }
+
+}
@@ -3,7 +3,14 @@ package com.shared.storage.ingestor.sharedstorageingestor;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "arsenal.nat.telemetry.storage.log-dir=target/context-test/log",
+        "arsenal.nat.telemetry.storage.batch-dir=target/context-test/batch",
+        "arsenal.nat.telemetry.job-repository.dir=target/context-test/job-repository",
+        "arsenal.nat.telemetry.index.archive-dir=target/context-test/archive",
+        "arsenal.nat.telemetry.tiering.spill-dir=target/context-test/spill",
+        "arsenal.nat.telemetry.messaging.journal-dir=target/context-test/journal"
+})
 class SharedStorageIngestorApplicationTests {
 
     @Test
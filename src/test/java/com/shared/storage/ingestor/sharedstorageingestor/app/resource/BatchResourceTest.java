@@ -0,0 +1,102 @@
+package com.shared.storage.ingestor.sharedstorageingestor.app.resource;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.service.IngestQueue;
+import com.shared.storage.ingestor.sharedstorageingestor.service.PipelineResult;
+import com.shared.storage.ingestor.sharedstorageingestor.service.TelemetryDataPipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchResourceTest {
+    private final TelemetryConfiguration telemetryConfiguration = new TelemetryConfiguration();
+    private IngestQueue ingestQueue;
+
+    @AfterEach
+    void stop() {
+        ingestQueue.stop();
+    }
+
+    @Test
+    void acknowledgesPersistedEvents() throws Exception {
+        final BatchResource batchResource = resource(16, 1);
+        ingestQueue.start();
+
+        final ResponseEntity<String> response = batchResource.save(event("ok")).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void answersTooManyRequestsWhenTheBufferIsFull() throws Exception {
+        final BatchResource batchResource = resource(1, 0);
+        ingestQueue.start();
+        batchResource.save(event("ok-1"));
+
+        final ResponseEntity<String> response = batchResource.save(event("ok-2")).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+    }
+
+    @Test
+    void answersServiceUnavailableWhenTheQueueIsStopped() throws Exception {
+        final BatchResource batchResource = resource(16, 1);
+
+        final ResponseEntity<String> response = batchResource.save(event("ok")).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+    }
+
+    @Test
+    void answersServiceUnavailableWhenTheEventWasNotPersisted() throws Exception {
+        final BatchResource batchResource = resource(16, 1);
+        ingestQueue.start();
+
+        final ResponseEntity<String> response = batchResource.save(event("fail")).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private BatchResource resource(int capacity, int writerThreads) {
+        telemetryConfiguration.getIngestion().setQueueCapacity(capacity);
+        telemetryConfiguration.getIngestion().setWriterThreads(writerThreads);
+        telemetryConfiguration.getIngestion().setRetryAfterSeconds(3L);
+        final TelemetryDataPipeline<LogEvent, Serializable> telemetryDataPipeline = new TelemetryDataPipeline<>() {
+            @Override
+            public void pipeline(LogEvent data) {
+            }
+
+            @Override
+            public PipelineResult pipeline(Collection<LogEvent> data) {
+                final List<LogEvent> events = List.copyOf(data);
+                final BitSet outcome = new BitSet(events.size());
+                for (int i = 0; i < events.size(); i++) {
+                    outcome.set(i, !"fail".equals(events.get(i).getMessage()));
+                }
+                return PipelineResult.persisted(outcome);
+            }
+        };
+        ingestQueue = new IngestQueue(telemetryDataPipeline, telemetryConfiguration);
+        final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("ingestQueue", ingestQueue));
+        return new BatchResource(telemetryDataPipeline, null, beanFactory.getBeanProvider(IngestQueue.class), telemetryConfiguration);
+    }
+
+    private static LogEvent event(String message) {
+        return LogEvent.builder().message(message).build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor.LogEventProcessor;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor.LogEventProcessorChain;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkMetricsListenerTest {
+
+    @Test
+    void filteredEventsAreCountedByTheChain() throws Exception {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final ChunkMetricsListener listener = new ChunkMetricsListener(meterRegistry);
+        final LogEventProcessor dropHealthChecks = event -> "health".equals(event.getType()) ? null : event;
+        final LogEventProcessorChain chain = new LogEventProcessorChain(List.of(dropHealthChecks), listener);
+
+        assertThat(chain.process(LogEvent.builder().type("request").build())).isNotNull();
+        assertThat(chain.process(LogEvent.builder().type("health").build())).isNull();
+        assertThat(chain.process(LogEvent.builder().type("health").build())).isNull();
+
+        assertThat(count(meterRegistry, "filtered")).isEqualTo(2.0);
+        assertThat(count(meterRegistry, "written")).isZero();
+    }
+
+    @Test
+    void onlySuccessfulWritesAreCounted() throws Exception {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final RecordingWriter delegate = new RecordingWriter();
+        final ItemStreamWriter<String> writer = new ChunkMetricsListener(meterRegistry).countWritten(delegate);
+
+        writer.write(new Chunk<>(List.of("a", "b", "c")));
+        delegate.fail = true;
+        assertThatThrownBy(() -> writer.write(new Chunk<>(List.of("d")))).isInstanceOf(IOException.class);
+
+        assertThat(delegate.written).containsExactly("a", "b", "c");
+        assertThat(count(meterRegistry, "written")).isEqualTo(3.0);
+    }
+
+    private static double count(SimpleMeterRegistry meterRegistry, String outcome) {
+        return meterRegistry.get("telemetry.export.items").tag("outcome", outcome).counter().count();
+    }
+
+    private static final class RecordingWriter implements ItemStreamWriter<String> {
+        private final List<String> written = new ArrayList<>();
+        private boolean fail;
+
+        @Override
+        public void write(Chunk<? extends String> chunk) throws IOException {
+            if (fail) {
+                throw new IOException("write failed");
+            }
+            written.addAll(chunk.getItems());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.processor;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.batch.ChunkMetricsListener;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogEventProcessorChainTest {
+    private final TelemetryConfiguration telemetryConfiguration = new TelemetryConfiguration();
+
+    @Test
+    void runsTheStagesInOrder() throws Exception {
+        final List<String> stages = new ArrayList<>();
+        final LogEventProcessorChain chain = chain(List.of(stage(stages, "first", true), stage(stages, "second", true)));
+
+        assertThat(chain.process(LogEvent.builder().message("m").build()).getMessage()).isEqualTo("m-first-second");
+        assertThat(stages).containsExactly("first", "second");
+    }
+
+    @Test
+    void stopsAtTheStageThatFiltersTheEvent() throws Exception {
+        final List<String> stages = new ArrayList<>();
+        final LogEventProcessorChain chain = chain(List.of(stage(stages, "filter", false), stage(stages, "after", true)));
+
+        assertThat(chain.process(LogEvent.builder().build())).isNull();
+        assertThat(stages).containsExactly("filter");
+    }
+
+    @Test
+    void builtInStagesFilterEnrichAndMask() throws Exception {
+        telemetryConfiguration.getProcessing().setExcludedTypes(List.of("health"));
+        telemetryConfiguration.getProcessing().setMaskIpAddress(true);
+        final LogEventProcessorChain chain = chain(List.of(new EnrichmentLogEventProcessor(telemetryConfiguration),
+                new FilteringLogEventProcessor(telemetryConfiguration), new MaskingLogEventProcessor(telemetryConfiguration)));
+
+        final LogEvent processed = chain.process(LogEvent.builder().type("request").hostname("host-1").ipAddress("10.0.0.42").build());
+
+        assertThat(processed.getHostname()).isEqualTo("host-1");
+        assertThat(processed.getIpAddress()).isEqualTo("10.0.0.*");
+        assertThat(chain.process(LogEvent.builder().type("health").build())).isNull();
+    }
+
+    private static LogEventProcessor stage(List<String> stages, String name, boolean pass) {
+        return event -> {
+            stages.add(name);
+            if (!pass) {
+                return null;
+            }
+            event.setMessage(event.getMessage() + "-" + name);
+            return event;
+        };
+    }
+
+    private LogEventProcessorChain chain(List<LogEventProcessor> processors) {
+        return new LogEventProcessorChain(processors, new ChunkMetricsListener(new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonBatchJobConfigTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void jobRepositoryIsInMemoryByDefault() {
+        assertThat(new TelemetryConfiguration().getJobRepository().getMode()).isEqualTo(JobRepositoryMode.MEMORY);
+    }
+
+    @Test
+    void fileJobRepositoryKeepsJobsAcrossRestarts() throws Exception {
+        final TelemetryConfiguration telemetryConfiguration = new TelemetryConfiguration();
+        telemetryConfiguration.getJobRepository().setMode(JobRepositoryMode.FILE);
+        telemetryConfiguration.getJobRepository().setDir(dir.toString());
+
+        final DataSource first = new JsonBatchJobConfig(null, telemetryConfiguration).batchDataSource();
+        new JdbcTemplate(first).update("INSERT INTO BATCH_JOB_INSTANCE (JOB_INSTANCE_ID, VERSION, JOB_NAME, JOB_KEY) VALUES (1, 0, 'job', 'key')");
+        ((HikariDataSource) first).close();
+
+        final DataSource second = new JsonBatchJobConfig(null, telemetryConfiguration).batchDataSource();
+        try {
+            assertThat(new JdbcTemplate(second).queryForObject("SELECT COUNT(*) FROM BATCH_JOB_INSTANCE", Integer.class)).isEqualTo(1);
+        } finally {
+            ((HikariDataSource) second).close();
+        }
+        assertThat(dir.resolve("batch.mv.db")).exists();
+    }
+}
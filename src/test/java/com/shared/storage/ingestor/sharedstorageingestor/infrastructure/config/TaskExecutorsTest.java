@@ -0,0 +1,64 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TaskExecutorsTest {
+
+    @Test
+    void platformModeRunsOverflowOnTheCaller() throws Exception {
+        final AsyncTaskExecutor executor = TaskExecutors.create(ExecutionMode.PLATFORM, "test-", 1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release));
+            executor.execute(() -> {
+            });
+            final AtomicReference<Thread> overflow = new AtomicReference<>();
+            executor.execute(() -> overflow.set(Thread.currentThread()));
+
+            assertThat(overflow.get()).isSameAs(Thread.currentThread());
+        } finally {
+            release.countDown();
+            TaskExecutors.shutdown(executor);
+        }
+    }
+
+    @Test
+    void virtualModeIsRefusedBeforeJava21() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        assertThatThrownBy(() -> TaskExecutors.create(ExecutionMode.VIRTUAL, "test-", 1, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Java 21");
+    }
+
+    @Test
+    void virtualModeRunsTasksOnVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21);
+        final AsyncTaskExecutor executor = TaskExecutors.create(ExecutionMode.VIRTUAL, "test-", 2, 1);
+        try {
+            final Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+            assertThat(thread.getName()).startsWith("test-");
+        } finally {
+            TaskExecutors.shutdown(executor);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
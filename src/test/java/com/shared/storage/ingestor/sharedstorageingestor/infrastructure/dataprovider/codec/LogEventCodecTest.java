@@ -0,0 +1,86 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogEventCodecTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void encodesTheSameBytesAsJackson() throws Exception {
+        final LogEvent logEvent = LogEvent.builder()
+                .message("quote \" backslash \\ tab \t newline \n bell \u0007 del \u007F")
+                .timestamp("2024-01-01T00:00:00Z")
+                .application("ação")
+                .hostname("主机")
+                .journey("emoji 😀 and 🎉")
+                .correlationId("c-1")
+                .build();
+
+        assertThat(LogEventCodec.encodeToBytes(logEvent)).isEqualTo(OBJECT_MAPPER.writeValueAsBytes(logEvent));
+    }
+
+    @Test
+    void decodesWhatJacksonWrites() throws Exception {
+        final LogEvent logEvent = LogEvent.builder()
+                .message("line\r\nwith \"quotes\" 😀 ção")
+                .span("span")
+                .channel("")
+                .build();
+
+        assertThat(LogEventCodec.decode(OBJECT_MAPPER.writeValueAsBytes(logEvent))).isEqualTo(logEvent);
+    }
+
+    @Test
+    void jacksonReadsWhatTheCodecWrites() throws Exception {
+        final LogEvent logEvent = LogEvent.builder().message("😀\u0000").type("t").build();
+
+        assertThat(OBJECT_MAPPER.readValue(LogEventCodec.encodeToBytes(logEvent), LogEvent.class)).isEqualTo(logEvent);
+    }
+
+    @Test
+    void decodesSupplementaryCharactersWrittenAsFourBytes() throws Exception {
+        final byte[] json = "{\"message\":\"emoji 😀\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(LogEventCodec.decode(json).getMessage()).isEqualTo("emoji 😀");
+    }
+
+    @Test
+    void loneSurrogatesRoundTripAsEscapes() throws Exception {
+        final LogEvent logEvent = LogEvent.builder().message("high \uD83D only, low \uDE00 only").build();
+        final byte[] encoded = LogEventCodec.encodeToBytes(logEvent);
+
+        assertThat(new String(encoded, StandardCharsets.US_ASCII)).contains("\\uD83D", "\\uDE00");
+        assertThat(LogEventCodec.decode(encoded)).isEqualTo(logEvent);
+    }
+
+    @Test
+    void skipsUnknownFieldsAndReadsEscapedNames() throws Exception {
+        final byte[] json = "{\"extra\":{\"a\":[1,\"}\"]},\"mess\\u0061ge\":\"m\",\"other\":3,\"span\":null}".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(LogEventCodec.decode(json)).isEqualTo(LogEvent.builder().message("m").build());
+    }
+
+    @Test
+    void rejectsTruncatedRecords() {
+        final byte[] encoded = LogEventCodec.encodeToBytes(LogEvent.builder().message("truncated").build());
+
+        assertThatThrownBy(() -> LogEventCodec.decode(encoded, 0, encoded.length / 2)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void outsizedRecordsDoNotGrowTheRetainedBuffer() throws Exception {
+        final LogEvent large = LogEvent.builder().message("x".repeat(200_000) + "\\").build();
+        final byte[] encoded = LogEventCodec.encodeToBytes(large);
+
+        assertThat(LogEventCodec.decode(encoded)).isEqualTo(large);
+        assertThat(LogEventCodec.encode(LogEvent.builder().message("small").build()).capacity()).isLessThanOrEqualTo(64 * 1024);
+    }
+}
@@ -0,0 +1,99 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentDictionaryTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void keepsRepeatedValuesMostFrequentFirst() {
+        final SegmentDictionary.Builder builder = SegmentDictionary.builder(List.of("type", "transaction"), 10);
+        List.of(event("request", "t-1"), event("request", "t-2"), event("request", "t-1"), event("health", "t-3"))
+                .forEach(builder::add);
+
+        final SegmentDictionary dictionary = builder.build();
+
+        assertThat(dictionary.size()).isEqualTo(2);
+        assertThat(dictionary.valueOf(0)).isEqualTo("request");
+        assertThat(dictionary.valueOf(1)).isEqualTo("t-1");
+        assertThat(dictionary.idOf("health")).isEqualTo(-1);
+    }
+
+    @Test
+    void capsTheNumberOfValues() {
+        final SegmentDictionary.Builder builder = SegmentDictionary.builder(List.of("transaction"), 1);
+        List.of(event("a", "t-1"), event("a", "t-1"), event("a", "t-1"), event("a", "t-2"), event("a", "t-2")).forEach(builder::add);
+
+        final SegmentDictionary dictionary = builder.build();
+
+        assertThat(dictionary.size()).isEqualTo(1);
+        assertThat(dictionary.valueOf(0)).isEqualTo("t-1");
+    }
+
+    @Test
+    void lineParsesBackToTheSameDictionary() throws Exception {
+        final SegmentDictionary dictionary = dictionary("tab\t\"quoted\"", "ünïcode");
+        final byte[] line = dictionary.toLine();
+
+        assertThat(SegmentDictionary.isDictionaryLine(line, 0, line.length)).isTrue();
+        assertThat(OBJECT_MAPPER.readTree(line).path("@dictionary").path("values").size()).isEqualTo(2);
+        final SegmentDictionary parsed = SegmentDictionary.parse(line, 0, line.length);
+        assertThat(parsed.getFields()).isEqualTo(dictionary.getFields());
+        assertThat(parsed.size()).isEqualTo(dictionary.size());
+        for (int i = 0; i < dictionary.size(); i++) {
+            assertThat(parsed.valueOf(i)).isSameAs(dictionary.valueOf(i));
+        }
+    }
+
+    @Test
+    void encodedRecordsDecodeWithTheParsedDictionary() throws Exception {
+        final SegmentDictionary dictionary = dictionary("t-1", "t-2");
+        final byte[] line = dictionary.toLine();
+        final LogEvent logEvent = event("request", "t-2");
+
+        final ByteBuffer encoded = LogEventCodec.encode(logEvent, dictionary);
+        final byte[] record = Arrays.copyOfRange(encoded.array(), encoded.position(), encoded.limit());
+
+        assertThat(new String(record, StandardCharsets.UTF_8)).doesNotContain("t-2");
+        assertThat(LogEventCodec.decode(record, 0, record.length, SegmentDictionary.parse(line, 0, line.length))).isEqualTo(logEvent);
+    }
+
+    @Test
+    void recordsAreNotTakenForDictionaryLines() {
+        final byte[] record = LogEventCodec.encodeToBytes(event("request", "t-1"));
+
+        assertThat(SegmentDictionary.isDictionaryLine(record, 0, record.length)).isFalse();
+        assertThat(SegmentDictionary.isDictionaryLine(new byte[0], 0, 0)).isFalse();
+    }
+
+    @Test
+    void rejectsUnknownFieldsAndMalformedLines() {
+        final byte[] unknownField = "{\"@dictionary\":{\"fields\":[\"nope\"],\"values\":[]}}".getBytes(StandardCharsets.UTF_8);
+        final byte[] missingValues = "{\"@dictionary\":{\"fields\":[]}}".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> SegmentDictionary.builder(List.of("nope"), 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SegmentDictionary.parse(unknownField, 0, unknownField.length)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> SegmentDictionary.parse(missingValues, 0, missingValues.length)).isInstanceOf(IOException.class);
+    }
+
+    private static SegmentDictionary dictionary(String first, String second) {
+        final SegmentDictionary.Builder builder = SegmentDictionary.builder(List.of("transaction"), 10);
+        List.of(event("a", first), event("a", first), event("a", first), event("a", second), event("a", second)).forEach(builder::add);
+        return builder.build();
+    }
+
+    private static LogEvent event(String type, String transaction) {
+        return LogEvent.builder().type(type).transaction(transaction).message("message").build();
+    }
+}
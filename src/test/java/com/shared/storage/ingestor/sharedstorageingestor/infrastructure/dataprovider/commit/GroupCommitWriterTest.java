@@ -0,0 +1,124 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.commit;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.LogStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitWriterTest {
+
+    @Test
+    void listenerFailureDoesNotFailAppendedRecords() throws Exception {
+        final InMemoryLogStorage storage = new InMemoryLogStorage();
+        final GroupCommitWriter writer = new GroupCommitWriter("test-writer", storage, FsyncPolicy.BATCH, 50L, 16,
+                (records, bytes) -> {
+                    throw new IOException("seal failed");
+                });
+        try {
+            writer.submit(new byte[]{1}).get(5, TimeUnit.SECONDS);
+            writer.submit(new byte[]{2}).get(5, TimeUnit.SECONDS);
+            assertThat(storage.records).hasSize(2);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void runtimeFailureOfListenerKeepsWriterAlive() throws Exception {
+        final InMemoryLogStorage storage = new InMemoryLogStorage();
+        final GroupCommitWriter writer = new GroupCommitWriter("test-writer", storage, FsyncPolicy.BATCH, 50L, 16,
+                (records, bytes) -> {
+                    throw new IllegalStateException("rejected");
+                });
+        try {
+            writer.submit(new byte[]{1}).get(5, TimeUnit.SECONDS);
+            writer.execute(() -> storage.records.add(new byte[]{9})).get(5, TimeUnit.SECONDS);
+            writer.submit(new byte[]{2}).get(5, TimeUnit.SECONDS);
+            assertThat(storage.records).hasSize(3);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void appendFailureFailsOnlyItsGroup() throws Exception {
+        final InMemoryLogStorage storage = new InMemoryLogStorage();
+        storage.failNextAppend = true;
+        final GroupCommitWriter writer = new GroupCommitWriter("test-writer", storage, FsyncPolicy.BATCH, 50L, 16, (records, bytes) -> {
+        });
+        try {
+            assertThatThrownBy(() -> writer.submit(new byte[]{1}).get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IOException.class);
+            writer.submit(new byte[]{2}).get(5, TimeUnit.SECONDS);
+            assertThat(storage.records).hasSize(1);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void submissionsAfterCloseFail() {
+        final GroupCommitWriter writer = new GroupCommitWriter("test-writer", new InMemoryLogStorage(), FsyncPolicy.BATCH, 50L, 16, (records, bytes) -> {
+        });
+        writer.close();
+        final CompletableFuture<Void> acknowledgement = writer.submit(new byte[]{1});
+        assertThat(acknowledgement).isCompletedExceptionally();
+    }
+
+    private static final class InMemoryLogStorage implements LogStorage {
+        private final List<byte[]> records = new ArrayList<>();
+        private volatile boolean failNextAppend;
+
+        @Override
+        public long recover() {
+            return 0L;
+        }
+
+        @Override
+        public void append(List<byte[]> appended) throws IOException {
+            if (failNextAppend) {
+                failNextAppend = false;
+                throw new IOException("append failed");
+            }
+            records.addAll(appended);
+        }
+
+        @Override
+        public void force() {
+        }
+
+        @Override
+        public int count() {
+            return records.size();
+        }
+
+        @Override
+        public long size() {
+            return records.stream().mapToLong(record -> record.length).sum();
+        }
+
+        @Override
+        public void export(File target, boolean sync) {
+        }
+
+        @Override
+        public void transferTo(WritableByteChannel target) {
+        }
+
+        @Override
+        public void clear() {
+            records.clear();
+        }
+    }
+}
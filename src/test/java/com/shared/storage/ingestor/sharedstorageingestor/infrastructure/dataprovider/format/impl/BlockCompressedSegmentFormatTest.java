@@ -0,0 +1,184 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.SegmentDictionary;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.BlockCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockCompressedSegmentFormatTest {
+    private static final BlockCodec CODEC = new DeflateBlockCodec();
+    private static final BlockCompressedSegmentFormat FORMAT = new BlockCompressedSegmentFormat(new NdjsonStorageFormat(), CODEC,
+            Map.of(CODEC.getName(), CODEC), 1024);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackEveryRecordInOrder() throws Exception {
+        final List<LogEvent> events = events(500);
+        final File segment = write(events, null);
+
+        assertThat(count(segment)).isEqualTo(500);
+        assertThat(readAll(FORMAT.createItemReader(new FileSystemResource(segment), null), new ExecutionContext())).isEqualTo(messages(events));
+    }
+
+    @Test
+    void readsBackDictionaryEncodedRecords() throws Exception {
+        final List<LogEvent> events = events(500);
+        final SegmentDictionary.Builder builder = SegmentDictionary.builder(List.of("transaction"), 100);
+        events.forEach(builder::add);
+        final File segment = write(events, builder.build());
+
+        assertThat(count(segment)).isEqualTo(500);
+        final List<LogEvent> read = new ArrayList<>();
+        final ItemStreamReader<LogEvent> reader = FORMAT.createItemReader(new FileSystemResource(segment), null);
+        reader.open(new ExecutionContext());
+        for (LogEvent logEvent = reader.read(); Objects.nonNull(logEvent); logEvent = reader.read()) {
+            read.add(logEvent);
+        }
+        reader.close();
+        assertThat(read).extracting(LogEvent::getTransaction).containsExactlyElementsOf(events.stream().map(LogEvent::getTransaction).toList());
+    }
+
+    @Test
+    void partitionsCoverTheSegmentOnce() throws Exception {
+        final List<LogEvent> events = events(500);
+        final File segment = write(events, null);
+
+        final List<SegmentRange> ranges = FORMAT.split(segment, 4);
+
+        assertThat(ranges).hasSize(4);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i).start()).isEqualTo(ranges.get(i - 1).end());
+        }
+        final List<String> read = new ArrayList<>();
+        for (SegmentRange range : ranges) {
+            read.addAll(readAll(FORMAT.createItemReader(new FileSystemResource(segment), range), new ExecutionContext()));
+        }
+        assertThat(read).isEqualTo(messages(events));
+    }
+
+    @Test
+    void restartResumesAfterTheLastSavedRecord() throws Exception {
+        final List<LogEvent> events = events(500);
+        final SegmentDictionary.Builder builder = SegmentDictionary.builder(List.of("transaction"), 100);
+        events.forEach(builder::add);
+        final File segment = write(events, builder.build());
+        final ExecutionContext executionContext = new ExecutionContext();
+
+        final ItemStreamReader<LogEvent> first = FORMAT.createItemReader(new FileSystemResource(segment), null);
+        first.open(executionContext);
+        final List<String> read = new ArrayList<>();
+        for (int i = 0; i < 123; i++) {
+            read.add(first.read().getMessage());
+        }
+        first.update(executionContext);
+        first.read();
+        first.close();
+
+        read.addAll(readAll(FORMAT.createItemReader(new FileSystemResource(segment), null), executionContext));
+
+        assertThat(read).isEqualTo(messages(events));
+    }
+
+    @Test
+    void keepsRecordsLongerThanABlockWhole() throws Exception {
+        final List<LogEvent> events = List.of(event(0), LogEvent.builder().message("x".repeat(5000)).build(), event(2));
+        final File segment = write(events, null);
+
+        assertThat(readAll(FORMAT.createItemReader(new FileSystemResource(segment), null), new ExecutionContext())).isEqualTo(messages(events));
+    }
+
+    @Test
+    void handsUncompressedSegmentsToTheWrappedFormat() throws Exception {
+        final List<LogEvent> events = events(20);
+        final File segment = dir.resolve("plain.ndjson").toFile();
+        Files.write(segment.toPath(), ndjson(events, null));
+
+        assertThat(count(segment)).isEqualTo(20);
+        assertThat(readAll(FORMAT.createItemReader(new FileSystemResource(segment), null), new ExecutionContext())).isEqualTo(messages(events));
+    }
+
+    private File write(List<LogEvent> events, SegmentDictionary dictionary) throws IOException {
+        final File segment = dir.resolve("segment" + FORMAT.getFileExtension()).toFile();
+        try (final WritableByteChannel writer = FORMAT.openWriter(segment, false)) {
+            final ByteBuffer content = ByteBuffer.wrap(ndjson(events, dictionary));
+            while (content.hasRemaining()) {
+                final ByteBuffer slice = content.slice(content.position(), Math.min(700, content.remaining()));
+                content.position(content.position() + writer.write(slice));
+            }
+        }
+        return segment;
+    }
+
+    private static int count(File segment) throws IOException {
+        try (final FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            return FORMAT.count(channel);
+        }
+    }
+
+    private static List<String> readAll(ItemStreamReader<LogEvent> reader, ExecutionContext executionContext) throws Exception {
+        final List<String> messages = new ArrayList<>();
+        reader.open(executionContext);
+        try {
+            for (LogEvent logEvent = reader.read(); Objects.nonNull(logEvent); logEvent = reader.read()) {
+                messages.add(logEvent.getMessage());
+            }
+        } finally {
+            reader.close();
+        }
+        return messages;
+    }
+
+    private static byte[] ndjson(List<LogEvent> events, SegmentDictionary dictionary) {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (dictionary != null) {
+            content.writeBytes(dictionary.toLine());
+            content.write('\n');
+        }
+        for (LogEvent logEvent : events) {
+            final ByteBuffer encoded = LogEventCodec.encode(logEvent, dictionary);
+            content.write(encoded.array(), encoded.position(), encoded.remaining());
+            content.write('\n');
+        }
+        return content.toByteArray();
+    }
+
+    private static List<String> messages(List<LogEvent> events) {
+        return events.stream().map(LogEvent::getMessage).toList();
+    }
+
+    private static List<LogEvent> events(int count) {
+        final List<LogEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(event(i));
+        }
+        return events;
+    }
+
+    private static LogEvent event(int i) {
+        return LogEvent.builder().message("message " + i).correlationId("c-" + i).transaction("t-" + i % 10).build();
+    }
+}
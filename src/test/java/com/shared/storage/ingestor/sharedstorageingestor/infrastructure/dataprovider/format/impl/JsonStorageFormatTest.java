@@ -0,0 +1,54 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonStorageFormatTest {
+    private final JsonStorageFormat format = new JsonStorageFormat();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void exportsTheLogIntoANewSegment() throws Exception {
+        final Path log = log();
+        final Path segment = dir.resolve("segment.json");
+
+        try (final FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+            format.export(channel, segment.toFile(), false);
+        }
+
+        assertThat(Files.readString(segment)).isEqualTo(Files.readString(log));
+    }
+
+    @Test
+    void refusesToExportOverAnExistingFile() throws Exception {
+        final Path log = log();
+        final Path segment = Files.writeString(dir.resolve("segment.json"), "[]");
+
+        try (final FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+            assertThatThrownBy(() -> format.export(channel, segment.toFile(), false)).isInstanceOf(FileAlreadyExistsException.class);
+        }
+        assertThat(Files.readString(segment)).isEqualTo("[]");
+    }
+
+    private Path log() throws Exception {
+        final Path log = Files.write(dir.resolve("log.json"), format.getEmptyContent());
+        try (final FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            format.append(channel, List.of("{\"message\":\"first\"}".getBytes(StandardCharsets.UTF_8),
+                    "{\"message\":\"second\"}".getBytes(StandardCharsets.UTF_8)));
+        }
+        return log;
+    }
+}
@@ -0,0 +1,93 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonRangeItemReaderTest {
+    private static final NdjsonStorageFormat FORMAT = new NdjsonStorageFormat();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void partitionsCoverTheSegmentOnce() throws Exception {
+        final File segment = write(100);
+
+        final List<SegmentRange> ranges = FORMAT.split(segment, 3);
+
+        assertThat(ranges).hasSize(3);
+        final List<String> read = new ArrayList<>();
+        for (SegmentRange range : ranges) {
+            read.addAll(readAll(new NdjsonRangeItemReader(new FileSystemResource(segment), range), new ExecutionContext()));
+        }
+        assertThat(read).isEqualTo(messages(0, 100));
+    }
+
+    @Test
+    void restartResumesAfterTheLastSavedRecord() throws Exception {
+        final File segment = write(100);
+        final SegmentRange range = new SegmentRange(0, segment.length());
+        final ExecutionContext executionContext = new ExecutionContext();
+
+        final NdjsonRangeItemReader first = new NdjsonRangeItemReader(new FileSystemResource(segment), range);
+        first.open(executionContext);
+        final List<String> read = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            read.add(first.read().getMessage());
+        }
+        first.update(executionContext);
+        first.read();
+        first.close();
+
+        read.addAll(readAll(new NdjsonRangeItemReader(new FileSystemResource(segment), range), executionContext));
+
+        assertThat(read).isEqualTo(messages(0, 100));
+    }
+
+    private File write(int count) throws Exception {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (String message : messages(0, count)) {
+            content.writeBytes(LogEventCodec.encodeToBytes(LogEvent.builder().message(message).build()));
+            content.write('\n');
+        }
+        final Path segment = dir.resolve("segment.ndjson");
+        Files.write(segment, content.toByteArray());
+        return segment.toFile();
+    }
+
+    private static List<String> readAll(NdjsonRangeItemReader reader, ExecutionContext executionContext) throws Exception {
+        final List<String> messages = new ArrayList<>();
+        reader.open(executionContext);
+        try {
+            for (LogEvent logEvent = reader.read(); Objects.nonNull(logEvent); logEvent = reader.read()) {
+                messages.add(logEvent.getMessage());
+            }
+        } finally {
+            reader.close();
+        }
+        return messages;
+    }
+
+    private static List<String> messages(int from, int to) {
+        final List<String> messages = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            messages.add("message " + i);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,131 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.StorageFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageFormatRepairTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String FIRST = record("first");
+    private static final String SECOND = record("second");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ndjsonKeepsIntactFiles() throws Exception {
+        final String content = FIRST + "\n" + SECOND + "\n";
+
+        assertThat(repair(new NdjsonStorageFormat(), content)).isZero();
+        assertThat(read()).isEqualTo(content);
+    }
+
+    @Test
+    void ndjsonDropsATornLastRecord() throws Exception {
+        final String torn = SECOND.substring(0, 10);
+
+        assertThat(repair(new NdjsonStorageFormat(), FIRST + "\n" + torn)).isEqualTo(torn.length());
+        assertThat(read()).isEqualTo(FIRST + "\n");
+    }
+
+    @Test
+    void ndjsonDropsAZeroFilledTail() throws Exception {
+        final String zeros = "\0".repeat(100) + "\n" + "\0".repeat(50);
+
+        assertThat(repair(new NdjsonStorageFormat(), FIRST + "\n" + zeros)).isEqualTo(zeros.length());
+        assertThat(read()).isEqualTo(FIRST + "\n");
+    }
+
+    @Test
+    void ndjsonRepairsTailsLongerThanTheReadBuffer() throws Exception {
+        final String longRecord = record("x".repeat(20_000));
+        final String torn = record("y".repeat(20_000)).substring(0, 15_000);
+
+        repair(new NdjsonStorageFormat(), longRecord + "\n" + torn);
+
+        assertThat(read()).isEqualTo(longRecord + "\n");
+    }
+
+    @Test
+    void jsonKeepsIntactArrays() throws Exception {
+        final String content = "[\n" + FIRST + ",\n" + SECOND + "\n]";
+
+        assertThat(repair(new JsonStorageFormat(), content)).isZero();
+        assertThat(read()).isEqualTo(content);
+    }
+
+    @Test
+    void jsonClosesAnArrayCutBeforeItsBracket() throws Exception {
+        repair(new JsonStorageFormat(), "[\n" + FIRST + ",\n" + SECOND + "\n");
+
+        assertThat(messages()).containsExactly("first", "second");
+    }
+
+    @Test
+    void jsonDropsATornLastRecord() throws Exception {
+        repair(new JsonStorageFormat(), "[\n" + FIRST + ",\n" + SECOND.substring(0, 10));
+
+        assertThat(messages()).containsExactly("first");
+    }
+
+    @Test
+    void jsonResetsFilesWithoutACompleteRecord() throws Exception {
+        repair(new JsonStorageFormat(), "[\n" + FIRST.substring(0, 5));
+        assertThat(read()).isEqualTo("[]");
+
+        repair(new JsonStorageFormat(), "");
+        assertThat(read()).isEqualTo("[]");
+    }
+
+    @Test
+    void repairedJsonAcceptsAppends() throws Exception {
+        final JsonStorageFormat format = new JsonStorageFormat();
+        repair(format, "[\n" + FIRST + ",\n" + SECOND.substring(0, 10));
+
+        try (final FileChannel channel = open()) {
+            format.append(channel, List.of(SECOND.getBytes(StandardCharsets.UTF_8)));
+            assertThat(format.count(channel)).isEqualTo(2);
+        }
+        assertThat(messages()).containsExactly("first", "second");
+    }
+
+    private long repair(StorageFormat format, String content) throws IOException {
+        Files.writeString(file(), content);
+        try (final FileChannel channel = open()) {
+            return format.repair(channel);
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(file(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private String read() throws IOException {
+        return Files.readString(file());
+    }
+
+    private List<String> messages() throws IOException {
+        return List.of(OBJECT_MAPPER.readValue(file().toFile(), LogEvent[].class)).stream().map(LogEvent::getMessage).toList();
+    }
+
+    private Path file() {
+        return dir.resolve("log");
+    }
+
+    private static String record(String message) {
+        return new String(LogEventCodec.encodeToBytes(LogEvent.builder().message(message).build()), StandardCharsets.UTF_8);
+    }
+}
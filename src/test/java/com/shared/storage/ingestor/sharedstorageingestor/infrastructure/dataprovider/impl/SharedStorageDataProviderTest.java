@@ -0,0 +1,132 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.impl;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.event.BatchSealedEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.commit.FsyncPolicy;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl.NdjsonStorageFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.impl.ChannelLogStorageFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SharedStorageDataProviderTest {
+    private final Queue<BatchSealedEvent> sealedEvents = new ConcurrentLinkedQueue<>();
+    private final List<SharedStorageDataProvider> providers = new ArrayList<>();
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void shutdown() {
+        providers.forEach(SharedStorageDataProvider::shutdown);
+    }
+
+    @Test
+    void sealsOnceMaxRecordsAreAppended() {
+        final SharedStorageDataProvider provider = provider(1, sealing -> sealing.setMaxRecords(3));
+
+        for (int i = 0; i < 5; i++) {
+            provider.persist(event(i));
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> sealedEvents.size() == 1 && provider.count() == 2);
+        assertThat(sealedEvents.peek().records()).isEqualTo(3);
+    }
+
+    @Test
+    void sealsOnceMaxBytesAreAppended() {
+        final SharedStorageDataProvider provider = provider(1, sealing -> sealing.setMaxBytes(1L));
+
+        provider.persist(event(0));
+        provider.persist(event(1));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> sealedEvents.size() == 2);
+        assertThat(sealedEvents).extracting(BatchSealedEvent::records).containsExactly(1, 1);
+        assertThat(provider.count()).isZero();
+    }
+
+    @Test
+    void sealsExpiredBatchesOnTheSealingPass() throws Exception {
+        final SharedStorageDataProvider provider = provider(1, sealing -> sealing.setMaxAgeMillis(500L));
+        provider.persist(event(0));
+        provider.sealExpiredBatches();
+        Thread.sleep(100L);
+        assertThat(sealedEvents).isEmpty();
+
+        await().atMost(5, TimeUnit.SECONDS).pollInterval(100, TimeUnit.MILLISECONDS).untilAsserted(() -> {
+            provider.sealExpiredBatches();
+            assertThat(sealedEvents).isNotEmpty();
+        });
+        assertThat(sealedEvents).extracting(BatchSealedEvent::sequence).containsOnly(1L);
+        assertThat(Path.of(sealedEvents.peek().batchFile())).exists();
+    }
+
+    @Test
+    void adoptsAndSealsTheLogFilesOfAStoppedInstance() throws Exception {
+        final SharedStorageDataProvider stopped = provider(2, sealing -> {
+        });
+        stopped.persist(event(0));
+        final Thread otherStripe = new Thread(() -> stopped.persist(event(1)));
+        otherStripe.start();
+        otherStripe.join();
+        stopped.shutdown();
+        providers.remove(stopped);
+
+        final SharedStorageDataProvider survivor = provider(1, sealing -> {
+        });
+        survivor.recoverOrphans();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> sealedEvents.size() == 1);
+        final BatchSealedEvent adopted = sealedEvents.peek();
+        assertThat(adopted.batchId()).isNotEqualTo(survivor.getUuid());
+        assertThat(adopted.records()).isEqualTo(1);
+        assertThat(survivor.count()).isEqualTo(1);
+
+        survivor.acknowledgeExport(adopted.batchId(), adopted.sequence());
+        survivor.recoverOrphans();
+
+        try (var logFiles = Files.list(dir.resolve("log"))) {
+            assertThat(logFiles.map(Path::getFileName).map(Path::toString))
+                    .noneMatch(name -> name.contains(adopted.batchId().toString()));
+        }
+    }
+
+    private SharedStorageDataProvider provider(int stripes, Consumer<TelemetryConfiguration.Sealing> sealing) {
+        final TelemetryConfiguration telemetryConfiguration = new TelemetryConfiguration();
+        telemetryConfiguration.setStorageFormat("ndjson");
+        telemetryConfiguration.setStripes(stripes);
+        telemetryConfiguration.getStorage().setLogDir(dir.resolve("log").toString());
+        telemetryConfiguration.getStorage().setBatchDir(dir.resolve("batch").toString());
+        telemetryConfiguration.getGroupCommit().setFsyncPolicy(FsyncPolicy.NONE);
+        sealing.accept(telemetryConfiguration.getSealing());
+        final GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean("ndjsonStorageFormat", NdjsonStorageFormat.class);
+        applicationContext.registerBean("channelLogStorageFactory", ChannelLogStorageFactory.class);
+        applicationContext.addApplicationListener(ApplicationListener.forPayload(sealedEvents::add));
+        applicationContext.refresh();
+        final SharedStorageDataProvider provider = new SharedStorageDataProvider(applicationContext, telemetryConfiguration, new SimpleMeterRegistry());
+        provider.initialize();
+        providers.add(provider);
+        return provider;
+    }
+
+    private static LogEvent event(int i) {
+        return LogEvent.builder().correlationId("c-" + i).message("message " + i).build();
+    }
+}
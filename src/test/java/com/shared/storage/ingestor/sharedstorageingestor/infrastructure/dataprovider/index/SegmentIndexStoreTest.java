@@ -0,0 +1,161 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.index;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.LogEventCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.codec.SegmentDictionary;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.BlockCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl.BlockCompressedSegmentFormat;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl.DeflateBlockCodec;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.impl.NdjsonStorageFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentIndexStoreTest {
+    private static final BlockCodec CODEC = new DeflateBlockCodec();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsEventsOfLineDelimitedSegments() throws Exception {
+        final SegmentIndexStore store = store(new NdjsonStorageFormat(), 1000);
+        final File segment = writeNdjson("first.ndjson", events(0, 300), null);
+        store.index(segment, segment);
+
+        assertThat(store.find("correlationId", "c-7")).extracting(LogEvent::getMessage).containsExactly("message 7");
+        assertThat(store.find("transaction", "t-3")).extracting(LogEvent::getMessage)
+                .containsExactlyElementsOf(IntStream.range(0, 300).filter(i -> i % 10 == 3).mapToObj(i -> "message " + i).toList());
+        assertThat(store.find("correlationId", "missing")).isEmpty();
+    }
+
+    @Test
+    void findsEventsOfDictionaryEncodedSegments() throws Exception {
+        final SegmentIndexStore store = store(new NdjsonStorageFormat(), 1000);
+        final List<LogEvent> events = events(0, 100);
+        final SegmentDictionary.Builder builder = SegmentDictionary.builder(List.of("transaction"), 100);
+        events.forEach(builder::add);
+        final File segment = writeNdjson("dictionary.ndjson", events, builder.build());
+        store.index(segment, segment);
+
+        assertThat(store.find("transaction", "t-5")).extracting(LogEvent::getCorrelationId)
+                .containsExactly("c-5", "c-15", "c-25", "c-35", "c-45", "c-55", "c-65", "c-75", "c-85", "c-95");
+    }
+
+    @Test
+    void findsEventsAcrossBlocksOfCompressedSegments() throws Exception {
+        final BlockCompressedSegmentFormat format = new BlockCompressedSegmentFormat(new NdjsonStorageFormat(), CODEC,
+                Map.of(CODEC.getName(), CODEC), 1024);
+        final SegmentIndexStore store = store(format, 1000);
+        final List<LogEvent> events = events(0, 500);
+        final SegmentDictionary.Builder builder = SegmentDictionary.builder(List.of("transaction"), 100);
+        events.forEach(builder::add);
+        final File segment = dir.resolve("compressed.ndjson.blk").toFile();
+        try (final WritableByteChannel writer = format.openWriter(segment, false)) {
+            writer.write(ByteBuffer.wrap(ndjson(events, builder.build())));
+        }
+        store.index(segment, segment);
+
+        assertThat(store.find("correlationId", "c-0")).extracting(LogEvent::getMessage).containsExactly("message 0");
+        assertThat(store.find("correlationId", "c-499")).extracting(LogEvent::getMessage).containsExactly("message 499");
+        assertThat(store.find("transaction", "t-9")).hasSize(50).allMatch(logEvent -> "t-9".equals(logEvent.getTransaction()));
+    }
+
+    @Test
+    void stopsAtMaxResultsInSegmentOrder() throws Exception {
+        final SegmentIndexStore store = store(new NdjsonStorageFormat(), 4);
+        final File first = writeNdjson("a.ndjson", events(0, 20), null);
+        final File second = writeNdjson("b.ndjson", events(20, 40), null);
+        store.index(first, first);
+        store.index(second, second);
+
+        assertThat(store.find("transaction", "t-1")).extracting(LogEvent::getCorrelationId).containsExactly("c-1", "c-11", "c-21", "c-31");
+    }
+
+    @Test
+    void searchesSegmentsIndexedAfterAnEarlierLookup() throws Exception {
+        final SegmentIndexStore store = store(new NdjsonStorageFormat(), 1000);
+        final File first = writeNdjson("a.ndjson", events(0, 10), null);
+        store.index(first, first);
+        assertThat(store.find("correlationId", "c-15")).isEmpty();
+
+        final File second = writeNdjson("b.ndjson", events(10, 20), null);
+        store.index(second, second);
+
+        assertThat(store.find("correlationId", "c-15")).extracting(LogEvent::getMessage).containsExactly("message 15");
+    }
+
+    @Test
+    void findsArchivedSegmentsUntilTheyAreDeleted() throws Exception {
+        final SegmentIndexStore store = store(new NdjsonStorageFormat(), 1000);
+        final File segment = writeNdjson("a.ndjson", events(0, 10), null);
+        store.index(segment, segment);
+        store.archive(segment);
+
+        assertThat(segment).doesNotExist();
+        assertThat(store.find("correlationId", "c-3")).extracting(LogEvent::getMessage).containsExactly("message 3");
+
+        Files.delete(dir.resolve("archive").resolve(segment.getName()));
+        assertThat(store.find("correlationId", "c-3")).isEmpty();
+    }
+
+    @Test
+    void rejectsFieldsThatAreNotIndexed() {
+        final SegmentIndexStore store = store(new NdjsonStorageFormat(), 1000);
+
+        assertThatThrownBy(() -> store.find("message", "message 1")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private SegmentIndexStore store(SegmentFormat format, int maxResults) {
+        final TelemetryConfiguration.Index index = new TelemetryConfiguration.Index();
+        index.setEnabled(true);
+        index.setArchiveDir(dir.resolve("archive").toString());
+        index.setMaxResults(maxResults);
+        return new SegmentIndexStore(index, format, dir.toString(), false, new SimpleMeterRegistry());
+    }
+
+    private File writeNdjson(String name, List<LogEvent> events, SegmentDictionary dictionary) throws IOException {
+        final Path file = dir.resolve(name);
+        Files.write(file, ndjson(events, dictionary));
+        return file.toFile();
+    }
+
+    private static byte[] ndjson(List<LogEvent> events, SegmentDictionary dictionary) {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (dictionary != null) {
+            content.writeBytes(dictionary.toLine());
+            content.write('\n');
+        }
+        for (LogEvent logEvent : events) {
+            final ByteBuffer encoded = LogEventCodec.encode(logEvent, dictionary);
+            content.write(encoded.array(), encoded.position(), encoded.remaining());
+            content.write('\n');
+        }
+        return content.toByteArray();
+    }
+
+    private static List<LogEvent> events(int from, int to) {
+        final List<LogEvent> events = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            events.add(LogEvent.builder().message("message " + i).correlationId("c-" + i).transaction("t-" + i % 10).build());
+        }
+        return events;
+    }
+}
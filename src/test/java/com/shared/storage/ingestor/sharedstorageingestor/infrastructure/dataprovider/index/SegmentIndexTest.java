@@ -0,0 +1,64 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.index;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.format.SegmentLocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentIndexTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsEveryKeyThroughTheFooter() throws Exception {
+        final SegmentIndex.Builder builder = SegmentIndex.builder(0.01);
+        for (int i = 0; i < 1000; i++) {
+            builder.add(SegmentIndex.key("correlationId", "c-" + i), i * 100L, i);
+        }
+        final Path file = dir.resolve("unique.idx");
+        builder.writeTo(file, false);
+        final SegmentIndex index = SegmentIndex.open(file);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(index.find(SegmentIndex.key("correlationId", "c-" + i))).containsExactly(new SegmentLocation(i * 100L, i));
+        }
+        assertThat(index.find(SegmentIndex.key("correlationId", "missing"))).isEmpty();
+    }
+
+    @Test
+    void findsRepeatedKeysSpanningBlocks() throws Exception {
+        final SegmentIndex.Builder builder = SegmentIndex.builder(0.01);
+        IntStream.range(0, 50).forEach(i -> builder.add(SegmentIndex.key("transaction", "a"), 0L, i));
+        IntStream.range(0, 200).forEach(i -> builder.add(SegmentIndex.key("transaction", "b"), 1L, i));
+        IntStream.range(0, 10).forEach(i -> builder.add(SegmentIndex.key("transaction", "c"), 2L, i));
+        final Path file = dir.resolve("repeated.idx");
+        builder.writeTo(file, false);
+        final SegmentIndex index = SegmentIndex.open(file);
+
+        assertThat(index.find(SegmentIndex.key("transaction", "a"))).hasSize(50);
+        assertThat(index.find(SegmentIndex.key("transaction", "b"))).hasSize(200).allMatch(location -> location.offset() == 1L);
+        assertThat(index.find(SegmentIndex.key("transaction", "c"))).hasSize(10);
+    }
+
+    @Test
+    void opensAnEmptyIndex() throws Exception {
+        final Path file = dir.resolve("empty.idx");
+        SegmentIndex.builder(0.01).writeTo(file, false);
+
+        assertThat(SegmentIndex.open(file).find(SegmentIndex.key("transaction", "a"))).isEmpty();
+    }
+
+    @Test
+    void rejectsFilesThatAreNotAnIndex() throws Exception {
+        final Path file = Files.writeString(dir.resolve("other.idx"), "not an index");
+
+        assertThatThrownBy(() -> SegmentIndex.open(file)).isInstanceOf(IOException.class);
+    }
+}
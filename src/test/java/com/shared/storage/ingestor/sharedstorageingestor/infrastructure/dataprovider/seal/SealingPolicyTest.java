@@ -0,0 +1,41 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.seal;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SealingPolicyTest {
+    private final SealingPolicy policy = new SealingPolicy(sealing());
+
+    @Test
+    void sealsOnceMaxRecordsAreReached() {
+        assertThat(policy.shouldSeal(2, 10L, 0L)).isFalse();
+        assertThat(policy.shouldSeal(3, 10L, 0L)).isTrue();
+    }
+
+    @Test
+    void sealsOnceMaxBytesAreReached() {
+        assertThat(policy.shouldSeal(1, 99L, 0L)).isFalse();
+        assertThat(policy.shouldSeal(1, 100L, 0L)).isTrue();
+    }
+
+    @Test
+    void sealsOnceMaxAgeIsReached() {
+        assertThat(policy.shouldSeal(1, 10L, 499L)).isFalse();
+        assertThat(policy.shouldSeal(1, 10L, 500L)).isTrue();
+    }
+
+    @Test
+    void neverSealsAnEmptyBatch() {
+        assertThat(policy.shouldSeal(0, 0L, Long.MAX_VALUE)).isFalse();
+    }
+
+    private static TelemetryConfiguration.Sealing sealing() {
+        final TelemetryConfiguration.Sealing sealing = new TelemetryConfiguration.Sealing();
+        sealing.setMaxRecords(3);
+        sealing.setMaxBytes(100L);
+        sealing.setMaxAgeMillis(500L);
+        return sealing;
+    }
+}
@@ -0,0 +1,113 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.segment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentManifestTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenRestoresPendingSegments() throws Exception {
+        final SegmentManifest manifest = open();
+        seal(manifest, manifest.nextSequence());
+        seal(manifest, manifest.nextSequence());
+        seal(manifest, manifest.nextSequence());
+        manifest.exported(2L);
+
+        final SegmentManifest reopened = open();
+
+        assertThat(reopened.getPendingSegments()).extracting(SegmentEntry::sequence).containsExactly(1L, 3L);
+        assertThat(reopened.isPending(2L)).isFalse();
+        assertThat(reopened.getLastSequence()).isEqualTo(3L);
+        assertThat(reopened.getClearedSequence()).isEqualTo(3L);
+        assertThat(reopened.nextSequence()).isEqualTo(4L);
+    }
+
+    @Test
+    void compactionDropsExportedSegments() throws Exception {
+        final SegmentManifest manifest = open();
+        for (int i = 0; i < 10; i++) {
+            final long sequence = manifest.nextSequence();
+            seal(manifest, sequence);
+            manifest.exported(sequence);
+        }
+        assertThat(lines()).isEqualTo(31);
+
+        final SegmentManifest reopened = open();
+
+        assertThat(reopened.getPendingSegments()).isEmpty();
+        assertThat(reopened.getLastSequence()).isEqualTo(10L);
+        assertThat(reopened.nextSequence()).isEqualTo(11L);
+        assertThat(lines()).isEqualTo(1);
+    }
+
+    @Test
+    void compactionKeepsASealThatWasNotCleared() throws Exception {
+        final SegmentManifest manifest = open();
+        seal(manifest, manifest.nextSequence());
+        manifest.sealed(entry(manifest.nextSequence()));
+
+        final SegmentManifest reopened = open();
+        assertThat(reopened.getLastSequence()).isEqualTo(2L);
+        assertThat(reopened.getClearedSequence()).isEqualTo(1L);
+
+        final SegmentManifest compacted = open();
+        assertThat(compacted.getClearedSequence()).isEqualTo(1L);
+        assertThat(compacted.getPendingSegments()).extracting(SegmentEntry::sequence).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void tornLineIsDropped() throws Exception {
+        final SegmentManifest manifest = open();
+        seal(manifest, manifest.nextSequence());
+        Files.writeString(file().toPath(), "{\"sequence\":2,\"fi", StandardOpenOption.APPEND);
+
+        final SegmentManifest reopened = open();
+
+        assertThat(reopened.getPendingSegments()).extracting(SegmentEntry::sequence).containsExactly(1L);
+        assertThat(reopened.nextSequence()).isEqualTo(2L);
+        assertThat(lines()).isEqualTo(2);
+    }
+
+    @Test
+    void manifestWithoutClearedEntriesTreatsEverySealAsCleared() throws Exception {
+        Files.writeString(file().toPath(), "{\"sequence\":4,\"file\":\"segment-4\",\"records\":1,\"bytes\":10,\"status\":\"SEALED\"}\n");
+
+        final SegmentManifest manifest = open();
+
+        assertThat(manifest.getLastSequence()).isEqualTo(4L);
+        assertThat(manifest.getClearedSequence()).isEqualTo(4L);
+        assertThat(manifest.isPending(4L)).isTrue();
+    }
+
+    private void seal(SegmentManifest manifest, long sequence) throws IOException {
+        manifest.sealed(entry(sequence));
+        manifest.cleared(sequence);
+    }
+
+    private SegmentEntry entry(long sequence) {
+        return new SegmentEntry(sequence, dir.resolve("segment-" + sequence).toString(), 1, 10L, SegmentEntry.Status.SEALED);
+    }
+
+    private SegmentManifest open() throws IOException {
+        return SegmentManifest.open(file(), false);
+    }
+
+    private long lines() throws IOException {
+        return Files.readAllLines(file().toPath()).size();
+    }
+
+    private File file() {
+        return dir.resolve("manifest").toFile();
+    }
+}
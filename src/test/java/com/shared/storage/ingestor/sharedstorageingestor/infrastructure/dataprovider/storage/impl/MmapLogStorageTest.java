@@ -0,0 +1,125 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.storage.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MmapLogStorageTest {
+    private static final long SEGMENT_BYTES = 4096L;
+    private static final int HEADER_SIZE = 64;
+    private static final byte[] FIRST = "{\"message\":\"first\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SECOND = "{\"message\":\"second\"}".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restoresPositionAndCountFromTheHeader() throws Exception {
+        final Path file = write(List.of(FIRST, SECOND));
+
+        try (final FileChannel channel = open(file)) {
+            final MmapLogStorage storage = new MmapLogStorage(channel, SEGMENT_BYTES);
+
+            assertThat(storage.recover()).isZero();
+            assertThat(storage.count()).isEqualTo(2);
+            assertThat(storage.size()).isEqualTo(FIRST.length + SECOND.length + 2);
+            assertThat(records(storage)).isEqualTo(lines(FIRST, SECOND));
+        }
+    }
+
+    @Test
+    void movesThePositionBackBeforeARecordThatNeverReachedTheDisk() throws Exception {
+        final Path file = write(List.of(FIRST, SECOND));
+        try (final FileChannel channel = open(file)) {
+            channel.write(ByteBuffer.allocate(SECOND.length), HEADER_SIZE + FIRST.length + 1);
+        }
+
+        try (final FileChannel channel = open(file)) {
+            final MmapLogStorage storage = new MmapLogStorage(channel, SEGMENT_BYTES);
+
+            assertThat(storage.recover()).isEqualTo(SECOND.length + 1);
+            assertThat(storage.count()).isEqualTo(1);
+            assertThat(records(storage)).isEqualTo(lines(FIRST));
+        }
+        try (final FileChannel channel = open(file)) {
+            assertThat(new MmapLogStorage(channel, SEGMENT_BYTES).count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void correctsAStaleRecordCount() throws Exception {
+        final Path file = write(List.of(FIRST, SECOND));
+        try (final FileChannel channel = open(file)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 7), 16);
+        }
+
+        try (final FileChannel channel = open(file)) {
+            final MmapLogStorage storage = new MmapLogStorage(channel, SEGMENT_BYTES);
+
+            assertThat(storage.recover()).isZero();
+            assertThat(storage.count()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotMappedLogs() throws Exception {
+        final Path file = dir.resolve("other.log");
+        try (final FileChannel channel = open(file)) {
+            channel.write(ByteBuffer.wrap(FIRST));
+            assertThatThrownBy(() -> new MmapLogStorage(channel, SEGMENT_BYTES)).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void rejectsAHeaderPositionOutsideTheFile() throws Exception {
+        final Path file = write(List.of(FIRST));
+        try (final FileChannel channel = open(file)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, Long.MAX_VALUE >> 1), 8);
+        }
+
+        try (final FileChannel channel = open(file)) {
+            assertThatThrownBy(() -> new MmapLogStorage(channel, SEGMENT_BYTES)).hasMessageContaining("Corrupt");
+        }
+    }
+
+    private Path write(List<byte[]> records) throws IOException {
+        final Path file = dir.resolve("log.mmap");
+        try (final FileChannel channel = open(file)) {
+            final MmapLogStorage storage = new MmapLogStorage(channel, SEGMENT_BYTES);
+            storage.append(records);
+            storage.force();
+        }
+        return file;
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static byte[] records(MmapLogStorage storage) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        storage.transferTo(Channels.newChannel(output));
+        return output.toByteArray();
+    }
+
+    private static byte[] lines(byte[]... records) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (byte[] record : records) {
+            output.writeBytes(record);
+            output.write('\n');
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.tier;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapRingBufferTest {
+
+    @Test
+    void recordsWrappingAroundTheEndReadBackWhole() throws Exception {
+        final OffHeapRingBuffer buffer = new OffHeapRingBuffer(61);
+        final List<byte[]> drained = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final byte[] record = record(i, 1 + i % 23);
+            assertThat(buffer.offer(record, 0L, TimeUnit.MILLISECONDS)).isTrue();
+            assertThat(buffer.drainTo(drained, 1, 0L, TimeUnit.MILLISECONDS)).isEqualTo(1);
+            assertThat(drained.get(drained.size() - 1)).isEqualTo(record);
+        }
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.getUsedBytes()).isZero();
+    }
+
+    @Test
+    void drainsRecordsInOfferOrder() throws Exception {
+        final OffHeapRingBuffer buffer = new OffHeapRingBuffer(64);
+        buffer.offer(record(1, 20), 0L, TimeUnit.MILLISECONDS);
+        buffer.offer(record(2, 20), 0L, TimeUnit.MILLISECONDS);
+        buffer.drainTo(new ArrayList<>(), 1, 0L, TimeUnit.MILLISECONDS);
+        buffer.offer(record(3, 30), 0L, TimeUnit.MILLISECONDS);
+
+        final List<byte[]> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 10, 0L, TimeUnit.MILLISECONDS)).isEqualTo(2);
+
+        assertThat(drained).containsExactly(record(2, 20), record(3, 30));
+    }
+
+    @Test
+    void rejectsRecordsThatCannotFit() throws Exception {
+        final OffHeapRingBuffer buffer = new OffHeapRingBuffer(64);
+
+        assertThat(buffer.offer(new byte[61], 0L, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(buffer.offer(new byte[60], 0L, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(buffer.getUsedBytes()).isEqualTo(64L);
+        assertThat(buffer.offer(new byte[0], 10L, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(buffer.drainTo(new ArrayList<>(), 10, 0L, TimeUnit.MILLISECONDS)).isEqualTo(1);
+        assertThat(buffer.drainTo(new ArrayList<>(), 10, 10L, TimeUnit.MILLISECONDS)).isZero();
+    }
+
+    @Test
+    void blockedOfferCompletesOnceRoomIsDrained() throws Exception {
+        final OffHeapRingBuffer buffer = new OffHeapRingBuffer(64);
+        buffer.offer(record(1, 40), 0L, TimeUnit.MILLISECONDS);
+
+        final CompletableFuture<Boolean> offered = CompletableFuture.supplyAsync(() -> {
+            try {
+                return buffer.offer(record(2, 40), 5L, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        final List<byte[]> drained = new ArrayList<>();
+        buffer.drainTo(drained, 1, 0L, TimeUnit.MILLISECONDS);
+
+        assertThat(offered.get(5L, TimeUnit.SECONDS)).isTrue();
+        buffer.drainTo(drained, 1, 5L, TimeUnit.SECONDS);
+        assertThat(drained).containsExactly(record(1, 40), record(2, 40));
+    }
+
+    private static byte[] record(int seed, int length) {
+        final byte[] record = new byte[length];
+        Arrays.fill(record, (byte) seed);
+        record[0] = (byte) length;
+        return record;
+    }
+}
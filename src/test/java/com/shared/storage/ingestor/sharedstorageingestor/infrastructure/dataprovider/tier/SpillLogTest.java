@@ -0,0 +1,134 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.tier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpillLogTest {
+    private static final long SEGMENT_BYTES = 100L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysRecordsAcrossFilesInOrder() throws Exception {
+        try (final SpillLog spillLog = SpillLog.open(dir, SEGMENT_BYTES, false)) {
+            for (int i = 0; i < 10; i++) {
+                spillLog.append(records(i * 4, i * 4 + 4));
+            }
+            assertThat(spillFiles()).hasSizeGreaterThan(1);
+
+            assertThat(replay(spillLog, 3)).isEqualTo(messages(0, 40));
+            assertThat(spillLog.isEmpty()).isTrue();
+            assertThat(spillFiles()).isEmpty();
+        }
+    }
+
+    @Test
+    void reopenResumesAtTheAcknowledgedPosition() throws Exception {
+        try (final SpillLog spillLog = SpillLog.open(dir, SEGMENT_BYTES, false)) {
+            spillLog.append(records(0, 10));
+            spillLog.acknowledge(spillLog.read(4));
+        }
+
+        try (final SpillLog reopened = SpillLog.open(dir, SEGMENT_BYTES, false)) {
+            assertThat(reopened.getPendingBytes()).isEqualTo(6L * recordBytes());
+            assertThat(replay(reopened, 100)).isEqualTo(messages(4, 10));
+        }
+    }
+
+    @Test
+    void reopenDropsARecordTornAtTheTail() throws Exception {
+        try (final SpillLog spillLog = SpillLog.open(dir, 1024L, false)) {
+            spillLog.append(records(0, 3));
+        }
+        final Path file = spillFiles().get(0);
+        Files.write(file, ByteBuffer.allocate(7).putInt(100).put("abc".getBytes(StandardCharsets.UTF_8)).array(), StandardOpenOption.APPEND);
+
+        try (final SpillLog reopened = SpillLog.open(dir, 1024L, false)) {
+            assertThat(Files.size(file)).isEqualTo(3L * recordBytes());
+            assertThat(reopened.getPendingBytes()).isEqualTo(3L * recordBytes());
+            reopened.append(records(3, 5));
+            assertThat(replay(reopened, 100)).isEqualTo(messages(0, 5));
+        }
+    }
+
+    @Test
+    void tornReplayPositionReplaysFromTheStart() throws Exception {
+        try (final SpillLog spillLog = SpillLog.open(dir, 1024L, false)) {
+            spillLog.append(records(0, 5));
+            spillLog.acknowledge(spillLog.read(2));
+        }
+        final Path position = dir.resolve("replay.position");
+        final byte[] saved = Files.readAllBytes(position);
+        Files.write(position, Arrays.copyOf(saved, saved.length - 3));
+
+        try (final SpillLog reopened = SpillLog.open(dir, 1024L, false)) {
+            assertThat(replay(reopened, 100)).isEqualTo(messages(0, 5));
+        }
+    }
+
+    @Test
+    void rejectsChunksAcknowledgedOutOfOrder() throws Exception {
+        try (final SpillLog spillLog = SpillLog.open(dir, 1024L, false)) {
+            spillLog.append(records(0, 5));
+            final SpillLog.Chunk first = spillLog.read(2);
+            spillLog.acknowledge(first);
+
+            assertThatThrownBy(() -> spillLog.acknowledge(first)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void directoryIsLockedWhileOpen() throws Exception {
+        try (final SpillLog ignored = SpillLog.open(dir, 1024L, false)) {
+            assertThatThrownBy(() -> SpillLog.open(dir, 1024L, false)).isInstanceOf(IOException.class);
+        }
+        SpillLog.open(dir, 1024L, false).close();
+    }
+
+    private List<Path> spillFiles() throws IOException {
+        try (final Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".bin")).sorted().toList();
+        }
+    }
+
+    private static List<String> replay(SpillLog spillLog, int maxRecords) throws IOException {
+        final List<String> replayed = new ArrayList<>();
+        while (!spillLog.isEmpty()) {
+            final SpillLog.Chunk chunk = spillLog.read(maxRecords);
+            chunk.records().forEach(record -> replayed.add(new String(record, StandardCharsets.UTF_8)));
+            spillLog.acknowledge(chunk);
+        }
+        return replayed;
+    }
+
+    private static List<byte[]> records(int from, int to) {
+        return messages(from, to).stream().map(message -> message.getBytes(StandardCharsets.UTF_8)).toList();
+    }
+
+    private static List<String> messages(int from, int to) {
+        final List<String> messages = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            messages.add(String.format("record-%04d", i));
+        }
+        return messages;
+    }
+
+    private static long recordBytes() {
+        return Integer.BYTES + "record-0000".length();
+    }
+}
@@ -0,0 +1,41 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalPayloadsTest {
+
+    @Test
+    void logEventsRoundTrip() throws Exception {
+        final LogEvent logEvent = LogEvent.builder().message("message").correlationId("c-1").build();
+
+        assertThat(JournalPayloads.decode(JournalPayloads.encode(logEvent))).isEqualTo(logEvent);
+    }
+
+    @Test
+    void refusesToEncodeOtherMessages() {
+        assertThatThrownBy(() -> JournalPayloads.encode(new ArrayList<>())).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void refusesJavaSerializedPayloads() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(2);
+        try (final ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(new ArrayList<>());
+        }
+
+        assertThatThrownBy(() -> JournalPayloads.decode(bytes.toByteArray()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unknown journal payload type");
+        assertThatThrownBy(() -> JournalPayloads.decode(new byte[0])).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,183 @@
+package com.shared.storage.ingestor.sharedstorageingestor.infrastructure.messaging.journal;
+
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageJournalTest {
+    private static final int MESSAGES_PER_SEGMENT = 6;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsMessagesAcrossSegments() throws Exception {
+        final MessageJournal journal = open();
+        try {
+            assertThat(journal.append(payloads(0, 10))).isEqualTo(10L);
+            assertThat(journal.append(payloads(10, 20))).isEqualTo(20L);
+
+            assertThat(segmentFiles()).hasSize(4);
+            assertThat(read(journal, 0L)).isEqualTo(messages(0, 20));
+            assertThat(read(journal, 7L)).isEqualTo(messages(7, 20));
+            assertThat(read(journal, 20L)).isEmpty();
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void reopenRecoversEveryAppendedMessage() throws Exception {
+        final MessageJournal journal = open();
+        journal.append(payloads(0, 10));
+        journal.close();
+
+        final MessageJournal reopened = open();
+        try {
+            assertThat(reopened.getEndOffset()).isEqualTo(10L);
+            assertThat(reopened.append(payloads(10, 12))).isEqualTo(12L);
+            assertThat(read(reopened, 0L)).isEqualTo(messages(0, 12));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void reopenDropsAMessageThatFailsItsChecksum() throws Exception {
+        final MessageJournal journal = open();
+        journal.append(payloads(0, 10));
+        journal.close();
+        final List<Path> files = segmentFiles();
+        try (final RandomAccessFile file = new RandomAccessFile(files.get(files.size() - 1).toFile(), "rw")) {
+            final long lastPayload = 64L + 3L * frameBytes() + 8L;
+            file.seek(lastPayload);
+            file.write('X');
+        }
+
+        final MessageJournal reopened = open();
+        try {
+            assertThat(reopened.getEndOffset()).isEqualTo(9L);
+            reopened.append(payloads(9, 10));
+            assertThat(read(reopened, 0L)).isEqualTo(messages(0, 10));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void keepsSegmentsUntilEveryGroupCommittedPastThem() throws Exception {
+        final MessageJournal journal = open();
+        try {
+            assertThat(journal.acquireGroup("first")).isZero();
+            assertThat(journal.acquireGroup("second")).isZero();
+            journal.append(payloads(0, 20));
+
+            journal.commit("first", 20L);
+            assertThat(journal.getStartOffset()).isZero();
+
+            journal.commit("second", 13L);
+            assertThat(journal.getStartOffset()).isEqualTo(2L * MESSAGES_PER_SEGMENT);
+            assertThat(segmentFiles()).hasSize(2);
+            assertThat(read(journal, 0L)).isEqualTo(messages(12, 20));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void reopenRestoresCommittedOffsetsAndRetention() throws Exception {
+        final MessageJournal journal = open();
+        journal.acquireGroup("group");
+        journal.append(payloads(0, 20));
+        journal.commit("group", 15L);
+        journal.close();
+
+        final MessageJournal reopened = open();
+        try {
+            assertThat(reopened.acquireGroup("group")).isEqualTo(15L);
+            assertThat(reopened.getStartOffset()).isEqualTo(2L * MESSAGES_PER_SEGMENT);
+            assertThat(reopened.getEndOffset()).isEqualTo(20L);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void journalWithoutGroupsKeepsEverything() throws Exception {
+        final MessageJournal journal = open();
+        try {
+            journal.append(payloads(0, 20));
+
+            assertThat(journal.getStartOffset()).isZero();
+            assertThat(segmentFiles()).hasSize(4);
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void groupHasOneConsumerAtATime() throws Exception {
+        final MessageJournal journal = open();
+        try {
+            journal.acquireGroup("group");
+            assertThatThrownBy(() -> journal.acquireGroup("group")).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> journal.acquireGroup("../group")).isInstanceOf(IllegalArgumentException.class);
+
+            journal.releaseGroup("group");
+            assertThat(journal.acquireGroup("group")).isZero();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private MessageJournal open() throws IOException {
+        final TelemetryConfiguration telemetryConfiguration = new TelemetryConfiguration();
+        telemetryConfiguration.getMessaging().setJournalDir(dir.toString());
+        telemetryConfiguration.getMessaging().setSegmentBytes(64L + MESSAGES_PER_SEGMENT * frameBytes() + 8L);
+        final MessageJournal journal = new MessageJournal(telemetryConfiguration, new SimpleMeterRegistry());
+        journal.open();
+        return journal;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (final Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private static List<String> read(MessageJournal journal, long offset) {
+        final JournalCursor cursor = journal.seek(offset);
+        final List<byte[]> payloads = new ArrayList<>();
+        journal.read(cursor, Integer.MAX_VALUE, payloads);
+        return payloads.stream().map(payload -> new String(payload, StandardCharsets.UTF_8)).toList();
+    }
+
+    private static List<byte[]> payloads(int from, int to) {
+        return messages(from, to).stream().map(message -> message.getBytes(StandardCharsets.UTF_8)).toList();
+    }
+
+    private static List<String> messages(int from, int to) {
+        final List<String> messages = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            messages.add(String.format("message-%06d", i));
+        }
+        return messages;
+    }
+
+    private static long frameBytes() {
+        return 8L + "message-000000".length();
+    }
+}
@@ -0,0 +1,90 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.dataprovider.DataProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AbstractBatchTelemetryDataPipelineTest {
+    private final List<String> stored = new ArrayList<>();
+    private boolean failing = true;
+
+    @Test
+    void releasesOnlyTheClaimsOfTheEventsThatFailed() {
+        final AbstractBatchTelemetryDataPipeline pipeline = pipeline();
+
+        final PipelineResult first = pipeline.pipeline(List.of(event("ok"), event("fail"), event("ok")));
+        failing = false;
+        final PipelineResult retry = pipeline.pipeline(List.of(event("ok"), event("fail")));
+
+        assertThat(first.persisted().stream().toArray()).containsExactly(0);
+        assertThat(first.duplicates().stream().toArray()).containsExactly(2);
+        assertThat(retry.persisted().stream().toArray()).containsExactly(1);
+        assertThat(retry.duplicates().stream().toArray()).containsExactly(0);
+        assertThat(stored).containsExactly("ok", "fail");
+    }
+
+    @Test
+    void releasesTheClaimOfASingleEventThatFailed() {
+        final AbstractBatchTelemetryDataPipeline pipeline = pipeline();
+
+        pipeline.pipeline(event("fail"));
+        failing = false;
+        pipeline.pipeline(event("fail"));
+        pipeline.pipeline(event("fail"));
+
+        assertThat(stored).containsExactly("fail");
+    }
+
+    private AbstractBatchTelemetryDataPipeline pipeline() {
+        final TelemetryConfiguration telemetryConfiguration = new TelemetryConfiguration();
+        telemetryConfiguration.setDatasource("batch");
+        telemetryConfiguration.getDeduplication().setEnabled(true);
+        final GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        applicationContext.registerBean(DataProvider.class, () -> new DataProvider() {
+            @Override
+            public void persist(Serializable data) {
+                persist(List.of(data));
+            }
+
+            @Override
+            public BitSet persist(Collection<? extends Serializable> data) {
+                final BitSet persisted = new BitSet(data.size());
+                int index = 0;
+                for (Serializable item : data) {
+                    final String message = ((LogEvent) item).getMessage();
+                    if (!failing || !"fail".equals(message)) {
+                        stored.add(message);
+                        persisted.set(index);
+                    }
+                    index++;
+                }
+                return persisted;
+            }
+
+            @Override
+            public Integer count() {
+                return stored.size();
+            }
+        });
+        applicationContext.refresh();
+        return new AbstractBatchTelemetryDataPipeline(applicationContext, telemetryConfiguration) {
+        };
+    }
+
+    private static LogEvent event(String message) {
+        return LogEvent.builder().correlationId(message).span("span").timestamp("t").message(message).build();
+    }
+}
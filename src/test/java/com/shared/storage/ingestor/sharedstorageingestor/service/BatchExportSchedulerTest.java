@@ -0,0 +1,93 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.event.BatchSealedEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.job.SimpleJob;
+import org.springframework.batch.core.repository.JobRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class BatchExportSchedulerTest {
+    private final Queue<Long> launchedSequences = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final UUID batchId = UUID.randomUUID();
+    private BatchExportScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        running.countDown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    @Timeout(10)
+    void leavesSegmentsPendingInsteadOfBlockingWhenSaturated() {
+        scheduler = scheduler(1);
+
+        scheduler.onBatchSealed(event(1L));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> launchedSequences.contains(1L));
+        scheduler.onBatchSealed(event(2L));
+
+        assertThat(launchedSequences).containsExactly(1L);
+        running.countDown();
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            scheduler.onBatchSealed(event(2L));
+            assertThat(launchedSequences).containsExactly(1L, 2L);
+        });
+    }
+
+    @Test
+    @Timeout(10)
+    void launchesASegmentOnlyOnceWhilePending() {
+        scheduler = scheduler(4);
+
+        scheduler.onBatchSealed(event(1L));
+        scheduler.onBatchSealed(event(1L));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> launchedSequences.contains(1L));
+        scheduler.onBatchSealed(event(1L));
+
+        assertThat(launchedSequences).containsExactly(1L);
+    }
+
+    private BatchExportScheduler scheduler(int maxPendingBatches) {
+        final TelemetryConfiguration telemetryConfiguration = new TelemetryConfiguration();
+        telemetryConfiguration.getExport().setThreads(1);
+        telemetryConfiguration.getExport().setMaxPendingBatches(maxPendingBatches);
+        final JobRepository jobRepository = (JobRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{JobRepository.class}, (proxy, method, arguments) -> null);
+        return new BatchExportScheduler((job, jobParameters) -> launch(jobParameters), jobRepository, new SimpleJob("export"),
+                telemetryConfiguration, event -> {
+        }, new SimpleMeterRegistry());
+    }
+
+    private JobExecution launch(JobParameters jobParameters) {
+        launchedSequences.add(jobParameters.getLong(BatchExportScheduler.SEQUENCE_PARAMETER));
+        try {
+            running.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final JobExecution jobExecution = new JobExecution(1L, jobParameters);
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+        return jobExecution;
+    }
+
+    private BatchSealedEvent event(long sequence) {
+        return new BatchSealedEvent(batchId, sequence, "batch-" + sequence + ".json", 1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.dto.BulkIngestionResponseDTO;
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkIngestionServiceTest {
+    private final List<List<String>> groups = new ArrayList<>();
+    private final BulkIngestionService service = service(2);
+
+    @Test
+    void streamsAJsonArrayInGroups() throws Exception {
+        final BulkIngestionResponseDTO response = ingest("[" + event("a") + "," + event("b") + "," + event("c") + "]");
+
+        assertThat(response.getAccepted()).isEqualTo(3);
+        assertThat(response.getRejected()).isZero();
+        assertThat(response.getError()).isNull();
+        assertThat(groups).containsExactly(List.of("a", "b"), List.of("c"));
+    }
+
+    @Test
+    void streamsNewlineDelimitedEvents() throws Exception {
+        final BulkIngestionResponseDTO response = ingest(event("a") + "\n" + event("b") + "\n" + event("c") + "\n");
+
+        assertThat(response.getAccepted()).isEqualTo(3);
+        assertThat(groups).containsExactly(List.of("a", "b"), List.of("c"));
+    }
+
+    @Test
+    void rejectsEventsThatDoNotBindIndividually() throws Exception {
+        final BulkIngestionResponseDTO response = ingest("[" + event("a") + ",\"text\",{\"message\":[1]}," + event("b") + "]");
+
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(groups).containsExactly(List.of("a", "b"));
+    }
+
+    @Test
+    void reportsEventsTheDataProviderDidNotPersistAsRejected() throws Exception {
+        final BulkIngestionResponseDTO response = ingest("[" + event("a") + "," + event("fail") + "," + event("b") + "]");
+
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsAtASyntaxErrorAndReportsWhatWasAccepted() throws Exception {
+        final BulkIngestionResponseDTO response = ingest("[" + event("a") + "," + event("b") + "," + event("c") + ",{\"message\":");
+
+        assertThat(response.getAccepted()).isEqualTo(3);
+        assertThat(response.getError()).isNotBlank();
+    }
+
+    private BulkIngestionResponseDTO ingest(String body) throws IOException {
+        return service.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private BulkIngestionService service(int groupSize) {
+        final TelemetryConfiguration telemetryConfiguration = new TelemetryConfiguration();
+        telemetryConfiguration.getIngestion().setBulkGroupSize(groupSize);
+        return new BulkIngestionService(new TelemetryDataPipeline<>() {
+            @Override
+            public void pipeline(LogEvent data) {
+                pipeline(List.of(data));
+            }
+
+            @Override
+            public PipelineResult pipeline(Collection<LogEvent> data) {
+                final List<String> messages = data.stream().map(LogEvent::getMessage).toList();
+                groups.add(messages);
+                final BitSet persisted = new BitSet(messages.size());
+                for (int i = 0; i < messages.size(); i++) {
+                    persisted.set(i, !"fail".equals(messages.get(i)));
+                }
+                return PipelineResult.persisted(persisted);
+            }
+        }, telemetryConfiguration);
+    }
+
+    private static String event(String message) {
+        return "{\"message\":\"" + message + "\",\"type\":\"request\"}";
+    }
+}
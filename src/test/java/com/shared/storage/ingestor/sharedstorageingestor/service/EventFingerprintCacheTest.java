@@ -0,0 +1,86 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventFingerprintCacheTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void dropsRepeatedEventsWithinTheWindow() {
+        final EventFingerprintCache cache = cache(60_000L, 100, 4);
+
+        assertThat(cache.claim(event("c-1", "span", "t"))).isTrue();
+        assertThat(cache.claim(event("c-1", "span", "t"))).isFalse();
+        assertThat(cache.claim(event("c-1", "other", "t"))).isTrue();
+        assertThat(cache.claim(event("c-1", null, "t"))).isTrue();
+        assertThat(meterRegistry.get("telemetry.deduplication.lookups").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("telemetry.deduplication.lookups").tag("result", "miss").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void acceptsEventsAgainOnceTheWindowPassed() throws Exception {
+        final EventFingerprintCache cache = cache(50L, 100, 1);
+        cache.claim(event("c-1", "span", "t"));
+
+        Thread.sleep(100L);
+
+        assertThat(cache.claim(event("c-1", "span", "t"))).isTrue();
+        assertThat(meterRegistry.get("telemetry.deduplication.removals").tag("cause", "expired").counter().count()).isEqualTo(1.0);
+        assertThat(entries()).isEqualTo(1.0);
+    }
+
+    @Test
+    void evictsTheOldestEntriesBeyondCapacity() {
+        final EventFingerprintCache cache = cache(60_000L, 3, 1);
+        for (int i = 0; i < 5; i++) {
+            cache.claim(event("c-" + i, null, null));
+        }
+
+        assertThat(entries()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("telemetry.deduplication.removals").tag("cause", "capacity").counter().count()).isEqualTo(2.0);
+        assertThat(cache.claim(event("c-4", null, null))).isFalse();
+        assertThat(cache.claim(event("c-0", null, null))).isTrue();
+    }
+
+    @Test
+    void releasedEventsAreAcceptedAgain() {
+        final EventFingerprintCache cache = cache(60_000L, 100, 4);
+        cache.claim(event("c-1", "span", "t"));
+
+        cache.release(event("c-1", "span", "t"));
+
+        assertThat(cache.claim(event("c-1", "span", "t"))).isTrue();
+    }
+
+    @Test
+    void alwaysAcceptsEventsWithoutIdentifyingFields() {
+        final EventFingerprintCache cache = cache(60_000L, 100, 4);
+
+        assertThat(cache.claim(event(null, null, null))).isTrue();
+        assertThat(cache.claim(event(null, null, null))).isTrue();
+        assertThat(entries()).isZero();
+    }
+
+    private EventFingerprintCache cache(long windowMillis, int maxEntries, int stripes) {
+        final TelemetryConfiguration.Deduplication deduplication = new TelemetryConfiguration.Deduplication();
+        deduplication.setEnabled(true);
+        deduplication.setWindowMillis(windowMillis);
+        deduplication.setMaxEntries(maxEntries);
+        deduplication.setStripes(stripes);
+        return new EventFingerprintCache(deduplication, meterRegistry);
+    }
+
+    private double entries() {
+        return meterRegistry.get("telemetry.deduplication.entries").gauge().value();
+    }
+
+    private static LogEvent event(String correlationId, String span, String timestamp) {
+        return LogEvent.builder().correlationId(correlationId).span(span).timestamp(timestamp).message("message").build();
+    }
+}
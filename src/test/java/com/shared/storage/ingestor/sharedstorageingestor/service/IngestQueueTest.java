@@ -0,0 +1,93 @@
+package com.shared.storage.ingestor.sharedstorageingestor.service;
+
+import com.shared.storage.ingestor.sharedstorageingestor.domain.entity.LogEvent;
+import com.shared.storage.ingestor.sharedstorageingestor.infrastructure.config.TelemetryConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestQueueTest {
+    private final Queue<LogEvent> persisted = new ConcurrentLinkedQueue<>();
+    private IngestQueue ingestQueue;
+
+    @AfterEach
+    void stop() {
+        ingestQueue.stop();
+    }
+
+    @Test
+    void failsOnlyTheEventsThatWereNotPersisted() {
+        ingestQueue = queue(16, 1);
+        ingestQueue.start();
+
+        final List<CompletableFuture<Void>> acknowledgements = List.of("ok-1", "fail", "ok-2").stream()
+                .map(message -> ingestQueue.offer(event(message)).orElseThrow())
+                .toList();
+
+        assertThat(acknowledgements.get(0)).succeedsWithin(5, TimeUnit.SECONDS);
+        assertThat(acknowledgements.get(1)).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(acknowledgements.get(2)).succeedsWithin(5, TimeUnit.SECONDS);
+        assertThat(persisted).extracting(LogEvent::getMessage).containsExactly("ok-1", "ok-2");
+    }
+
+    @Test
+    void refusesEventsWhenTheBufferIsFull() {
+        ingestQueue = queue(1, 0);
+        ingestQueue.start();
+
+        assertThat(ingestQueue.offer(event("ok-1"))).isPresent();
+        assertThat(ingestQueue.offer(event("ok-2"))).isEmpty();
+    }
+
+    @Test
+    void refusesEventsOnceStoppedAndFailsTheUndrainedOnes() {
+        ingestQueue = queue(16, 0);
+        ingestQueue.start();
+        final CompletableFuture<Void> acknowledgement = ingestQueue.offer(event("ok-1")).orElseThrow();
+
+        ingestQueue.stop();
+
+        assertThat(acknowledgement).isCompletedExceptionally();
+        assertThat(ingestQueue.offer(event("ok-2"))).isEmpty();
+        assertThat(ingestQueue.isRunning()).isFalse();
+    }
+
+    private IngestQueue queue(int capacity, int writerThreads) {
+        final TelemetryConfiguration telemetryConfiguration = new TelemetryConfiguration();
+        telemetryConfiguration.getIngestion().setQueueCapacity(capacity);
+        telemetryConfiguration.getIngestion().setWriterThreads(writerThreads);
+        return new IngestQueue(new TelemetryDataPipeline<>() {
+            @Override
+            public void pipeline(LogEvent data) {
+                pipeline(List.of(data));
+            }
+
+            @Override
+            public PipelineResult pipeline(Collection<LogEvent> data) {
+                final BitSet outcome = new BitSet(data.size());
+                int index = 0;
+                for (LogEvent logEvent : data) {
+                    if (!"fail".equals(logEvent.getMessage())) {
+                        persisted.add(logEvent);
+                        outcome.set(index);
+                    }
+                    index++;
+                }
+                return PipelineResult.persisted(outcome);
+            }
+        }, telemetryConfiguration);
+    }
+
+    private static LogEvent event(String message) {
+        return LogEvent.builder().correlationId(message).message(message).build();
+    }
+}